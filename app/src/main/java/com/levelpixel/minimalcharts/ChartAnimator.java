@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Frame loop shared by the chart views. It only runs while the view is attached, shown and at
+ * least partly on screen. While suspended nothing is posted; scroll and layout changes are watched
+ * so the loop picks up again as soon as the view comes back into view.
+ * <p>
+ * Frames are stepped by the time that actually elapsed, so a late frame catches up rather than
+ * slowing the animation down, and a resume after a long pause jumps straight to the end. The
+ * clock starts with the first frame rather than with the data, which is often set before the view
+ * is even attached, so an animation always plays from its start. Each frame only invalidates the
+ * area the stepper reports as changed, and nothing at all when that is empty.
+ */
+final class ChartAnimator implements ViewTreeObserver.OnScrollChangedListener,
+        ViewTreeObserver.OnGlobalLayoutListener {
+
+    // Past this many missed frames the animation is snapped to its end instead of replayed
+    private static final int MAX_CATCH_UP_FRAMES = 10;
+
+    interface Stepper {
+        /**
+         * Advances the animation by one frame.
+         *
+         * @param dirty Grown to cover the old and new bounds of every element that moved.
+         * @return True while anything is still moving.
+         */
+        boolean step(Rect dirty);
+
+        /**
+         * Moves everything to its target at once.
+         */
+        void snap();
+    }
+
+    private final View view;
+    private final ChartMetrics metrics;
+    private final Stepper stepper;
+    private final long frameMillis;
+    // Frames posted are this many apart, the ones between are stepped through on the next
+    private int frameStride = 1;
+    private final Rect visibleRect = new Rect();
+    private final Rect dirtyRect = new Rect();
+    // An animation is in progress, though it may be suspended
+    private boolean running;
+    // The first frame of the animation has run, lastFrameTime is only meaningful from then on
+    private boolean started;
+    private long lastFrameTime;
+    private ViewTreeObserver observer;
+    private final Runnable frame = new Runnable() {
+        @Override
+        public void run() {
+            doFrame();
+        }
+    };
+
+    ChartAnimator(View view, ChartMetrics metrics, long frameMillis, Stepper stepper) {
+        this.view = view;
+        this.metrics = metrics;
+        this.frameMillis = frameMillis;
+        this.stepper = stepper;
+    }
+
+    /**
+     * Redraws the whole view once, then animates towards the new targets, replacing any animation
+     * in progress.
+     */
+    void start() {
+        running = true;
+        started = false;
+        // New data can change more than the moving elements, e.g. labels and grid lines
+        view.invalidate();
+        view.removeCallbacks(frame);
+        if (canRun()) {
+            view.post(frame);
+        } else {
+            suspend();
+        }
+    }
+
+    /**
+     * Stops without moving anything further.
+     */
+    void cancel() {
+        running = false;
+        view.removeCallbacks(frame);
+        stopWatching();
+    }
+
+    /**
+     * Posts only every stride-th frame, the animation still takes as long.
+     */
+    void setFrameStride(int stride) {
+        frameStride = Math.max(1, stride);
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * To be called whenever the view's attachment or visibility changed.
+     */
+    void onVisibilityChanged() {
+        if (!running) return;
+        view.removeCallbacks(frame);
+        if (canRun()) {
+            stopWatching();
+            view.post(frame);
+        } else {
+            suspend();
+        }
+    }
+
+    void onDetachedFromWindow() {
+        view.removeCallbacks(frame);
+        stopWatching();
+    }
+
+    @Override
+    public void onScrollChanged() {
+        onVisibilityChanged();
+    }
+
+    @Override
+    public void onGlobalLayout() {
+        onVisibilityChanged();
+    }
+
+    private void doFrame() {
+        if (!running) return;
+        if (!canRun()) {
+            suspend();
+            return;
+        }
+
+        long now = SystemClock.uptimeMillis();
+        if (!started) {
+            started = true;
+            lastFrameTime = now - frameMillis;
+        }
+        long frames = Math.max(1, (now - lastFrameTime) / frameMillis);
+        lastFrameTime += frames * frameMillis;
+        boolean moving;
+        long start = metrics.begin(ChartMetricsListener.PHASE_ANIMATION);
+        try {
+            if (frames > MAX_CATCH_UP_FRAMES) {
+                stepper.snap();
+                moving = false;
+                view.invalidate();
+                metrics.animationFrame(0, (int) frames);
+            } else {
+                moving = true;
+                dirtyRect.setEmpty();
+                for (int i = 0; i < frames && moving; i++) {
+                    moving = stepper.step(dirtyRect);
+                }
+                invalidate(dirtyRect);
+                metrics.animationFrame(1, (int) frames - 1);
+            }
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_ANIMATION, start);
+        }
+        if (moving) {
+            view.postDelayed(frame, frameMillis * frameStride);
+        } else {
+            running = false;
+        }
+    }
+
+    // Hardware-accelerated windows compute their own damage from API 21 on, the rect still
+    // bounds the redraw in software rendering and in software layers
+    @SuppressWarnings("deprecation")
+    private void invalidate(Rect dirty) {
+        if (!dirty.isEmpty()) {
+            view.invalidate(dirty);
+        }
+    }
+
+    private boolean canRun() {
+        return view.isAttachedToWindow() && view.isShown() && view.getGlobalVisibleRect(visibleRect);
+    }
+
+    // Waits for the view to scroll or be laid out back into view. A detached view is resumed
+    // through onVisibilityChanged from onAttachedToWindow instead.
+    private void suspend() {
+        if (observer != null || !view.isAttachedToWindow()) return;
+        observer = view.getViewTreeObserver();
+        observer.addOnScrollChangedListener(this);
+        observer.addOnGlobalLayoutListener(this);
+    }
+
+    private void stopWatching() {
+        if (observer == null) return;
+        if (observer.isAlive()) {
+            observer.removeOnScrollChangedListener(this);
+            observer.removeOnGlobalLayoutListener(this);
+        }
+        observer = null;
+    }
+}
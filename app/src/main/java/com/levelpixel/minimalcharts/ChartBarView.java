@@ -12,20 +12,26 @@ package com.levelpixel.minimalcharts;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
+import android.os.Parcelable;
 import android.util.AttributeSet;
 import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.levelpixel.minimalcharts.core.Histogram;
+import com.levelpixel.minimalcharts.core.KeyedDiff;
 
 import java.util.ArrayList;
 
 public class ChartBarView extends View {
 
-    // Constants for bar and text styling
-    private static final int TEXT_COLOR = Color.parseColor("#9B9A9B");
-    private static final int BACKGROUND_COLOR = Color.parseColor("#F6F6F6");
-    private static final int FOREGROUND_COLOR = Color.parseColor("#FC496D");
+    // Multi-series layouts
+    public static final int SERIES_STACKED = 1;
+    public static final int SERIES_GROUPED = 2;
+
+    // Shared styling resolved once per density and XML attributes
+    private final ChartStyle style;
 
     // Layout-related dimensions
     private int MINI_BAR_WIDTH;
@@ -37,32 +43,98 @@ public class ChartBarView extends View {
     private Paint bgPaint;
     private Paint fgPaint;
 
-    // Data-related attributes
-    private ArrayList<Float> percentList;
-    private ArrayList<Float> targetPercentList;
-    // Animation-related runnable
-    private final Runnable animator = new Runnable() {
+    // Height change per animation frame, as a fraction of the full bar height
+    private static final float ANIMATION_STEP = 0.02f;
+
+    // Data-related attributes: current and target bar heights as a fraction of max, packed
+    // row-major so that heights[s * barCount + i] is series s at bar i. When stacked, each cell
+    // holds the top of its segment, the segment below ends where the previous row's cell does.
+    private float[] heights = new float[0];
+    private float[] targetHeights = new float[0];
+    private int barCount;
+    private int seriesCount = 1;
+    private int seriesMode = SERIES_STACKED;
+    private Paint[] seriesPaints;
+    // Incremented for every histogram request so that stale results are dropped
+    private int histogramGeneration;
+    private Histogram histogram;
+    // Keys of the bars from the last keyed update, null after any other update
+    private long[] barKeys;
+    // Bars inside the last drawn clip bounds and on screen, only these are animated and drawn
+    private final Rect clipRect = new Rect();
+    private final Rect visibleRect = new Rect();
+    private boolean visibleRangeKnown;
+    private int firstVisibleBar;
+    private int lastVisibleBar;
+    // Read from while drawing instead of the height arrays when set, bars are not animated then
+    private ChartDataSource source;
+    private float sourceMax;
+    // Heights of the visible bars only, sourceHeights[s * visible + i] for the i-th visible bar
+    private float[] sourceHeights = new float[0];
+    private float[] sourceValues = new float[0];
+    private final ChartDataSource.Observer sourceObserver = new ChartDataSource.Observer() {
+        @Override
+        public void onChanged() {
+            updateSourceShape();
+            requestLayout();
+            invalidate();
+        }
+
+        @Override
+        public void onRangeChanged(int series, int from, int count) {
+            if (from <= lastVisibleBar && from + count > firstVisibleBar) {
+                invalidate();
+            }
+        }
+    };
+    // Animation of the bar heights, only the visible range is stepped
+    private final ChartMetrics metrics = new ChartMetrics(this);
+    private final ChartAnimator animator = new ChartAnimator(this, metrics, 20, new ChartAnimator.Stepper() {
         @Override
-        public void run() {
+        public boolean step(Rect dirty) {
             boolean needNewFrame = false;
-            for (int i = 0; i < targetPercentList.size(); i++) {
-                float current = percentList.get(i);
-                float target = targetPercentList.get(i);
-
-                if (Math.abs(target - current) < 0.02f) {
-                    percentList.set(i, target);
-                } else {
-                    percentList.set(i, current + (target > current ? 0.02f : -0.02f));
-                    needNewFrame = true;
+            final float[] heights = ChartBarView.this.heights;
+            final float[] targetHeights = ChartBarView.this.targetHeights;
+            int first = visibleRangeKnown ? firstVisibleBar : 0;
+            int last = visibleRangeKnown ? Math.min(lastVisibleBar, barCount - 1) : barCount - 1;
+            for (int row = 0; row < seriesCount * barCount; row += barCount) {
+                for (int k = row + first; k <= row + last; k++) {
+                    float current = heights[k];
+                    float target = targetHeights[k];
+
+                    if (Math.abs(target - current) < ANIMATION_STEP) {
+                        heights[k] = target;
+                    } else {
+                        heights[k] = current + (target > current ? ANIMATION_STEP : -ANIMATION_STEP);
+                        needNewFrame = true;
+                    }
+                    if (heights[k] != current) {
+                        unionBar(dirty, k - row, current, heights[k]);
+                    }
                 }
             }
+            return needNewFrame;
+        }
 
-            if (needNewFrame) {
-                postDelayed(this, 20);
+        @Override
+        public void snap() {
+            snapBars(0, barCount - 1);
+        }
+    });
+    // A scrolling parent doesn't draw this view again, bars scrolled into view need a new frame
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            if (!visibleRangeKnown) return;
+            boolean visible = getLocalVisibleRect(visibleRect);
+            int first = visible ? getFirstBarIn(visibleRect) : 0;
+            int last = visible ? getLastBarIn(visibleRect) : -1;
+            if (first != firstVisibleBar || last != lastVisibleBar) {
+                invalidate();
             }
-            invalidate();
         }
     };
+    private ChartStateCache stateCache;
     private ArrayList<String> bottomTextList = new ArrayList<>();
     private int barWidth;
     private int bottomTextDescent;
@@ -81,41 +153,37 @@ public class ChartBarView extends View {
     // Constructor for XML-based instantiation
     public ChartBarView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        initialize(context);
+        style = ChartStyle.obtain(context, attrs);
+        initialize();
     }
 
     // Initialize paint objects and dimensions
-    private void initialize(Context context) {
-        bgPaint = createPaint(BACKGROUND_COLOR);
-        fgPaint = createPaint(FOREGROUND_COLOR);
-        textPaint = createTextPaint(context);
+    private void initialize() {
+        bgPaint = style.barBackgroundPaint;
+        fgPaint = style.barPaint;
+        textPaint = style.barLabelPaint;
 
         rect = new Rect();
-        topMargin = Utils.dip2px(context, 5);
-        barWidth = Utils.dip2px(context, 22);
-        MINI_BAR_WIDTH = Utils.dip2px(context, 22);
-        BAR_SIDE_MARGIN = Utils.dip2px(context, 22);
-        TEXT_TOP_MARGIN = Utils.dip2px(context, 5);
-
-        percentList = new ArrayList<>();
+        topMargin = style.barTopMargin;
+        barWidth = style.barMinWidth;
+        MINI_BAR_WIDTH = style.barMinWidth;
+        BAR_SIDE_MARGIN = style.barSideMargin;
+        TEXT_TOP_MARGIN = style.barTextTopMargin;
     }
 
-    // Helper method to create a Paint object
-    private Paint createPaint(int color) {
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setColor(color);
-        return paint;
+    /**
+     * @param listener Receives this view's timings and workload, or null to stop.
+     */
+    public void setChartMetricsListener(ChartMetricsListener listener) {
+        metrics.setListener(listener);
     }
 
-    // Helper method to create a text Paint object
-    private Paint createTextPaint(Context context) {
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setColor(TEXT_COLOR);
-        paint.setTextSize(Utils.sp2px(context, 15));
-        paint.setTextAlign(Paint.Align.CENTER);
-        return paint;
+    /**
+     * @param cache Keeps the saved state when it is too large for the instance state, or null to
+     *              drop such state.
+     */
+    public void setStateCache(ChartStateCache cache) {
+        stateCache = cache;
     }
 
     // Set the bottom text labels
@@ -146,44 +214,500 @@ public class ChartBarView extends View {
 
     // Set the data for the chart
     public void setDataList(ArrayList<Integer> dataList, int max) {
+        float[] values = new float[dataList.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = dataList.get(i);
+        }
+        setData(values, max);
+    }
+
+    /**
+     * Sets the bar values without boxing. Bars that already exist animate from their current
+     * height, new bars grow from zero.
+     *
+     * @param values The bar values, the array is not retained.
+     * @param max    The value drawn as a full-height bar.
+     */
+    public void setData(float[] values, float max) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            histogramGeneration++;
+            histogram = null;
+            applyData(values, 1, max, seriesMode);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    /**
+     * Shows several series in one view, either stacked on top of each other or side by side.
+     *
+     * @param values      Row-major matrix, values[s * barCount + i] is series s at bar i. The
+     *                    array is not retained.
+     * @param seriesCount Number of rows in values.
+     * @param max         The value drawn as a full-height bar, for stacks the largest total.
+     * @param mode        {@link #SERIES_STACKED} or {@link #SERIES_GROUPED}.
+     */
+    public void setSeriesData(float[] values, int seriesCount, float max, int mode) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            if (seriesCount < 1 || values.length % seriesCount != 0) {
+                throw new IllegalArgumentException("values.length " + values.length
+                        + " is not a multiple of seriesCount " + seriesCount);
+            }
+            histogramGeneration++;
+            histogram = null;
+            ensureSeriesPaints();
+            applyData(values, seriesCount, max, mode);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    /**
+     * Draws the bars straight from a data source, one series per source series. Every frame only
+     * reads the bars inside the clip bounds that are on screen, nothing is copied up front and nothing is animated.
+     *
+     * @param source The data, observed until replaced, or null to clear the chart.
+     * @param max    The value drawn as a full-height bar, for stacks the largest total.
+     * @param mode   {@link #SERIES_STACKED} or {@link #SERIES_GROUPED}.
+     */
+    public void setDataSource(ChartDataSource source, float max, int mode) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            detachSource();
+            histogramGeneration++;
+            histogram = null;
+            barKeys = null;
+            animator.cancel();
+            resize(1, 0);
+            seriesMode = mode;
+            if (source != null) {
+                this.source = source;
+                sourceMax = max == 0 ? 1 : max;
+                source.registerObserver(sourceObserver);
+                updateSourceShape();
+            }
+            requestLayout();
+            invalidate();
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void detachSource() {
+        if (source == null) return;
+        source.unregisterObserver(sourceObserver);
+        source = null;
+    }
+
+    // The height arrays stay empty, only the shape is taken from the source
+    private void updateSourceShape() {
+        seriesCount = Math.max(1, source.getSeriesCount());
+        if (seriesCount > 1) ensureSeriesPaints();
+        int bars = 0;
+        for (int s = 0; s < source.getSeriesCount(); s++) {
+            bars = Math.max(bars, source.getPointCount(s));
+        }
+        barCount = bars;
+    }
+
+    /**
+     * @param colors One color per series, repeated when there are more series than colors. At
+     *               least one.
+     */
+    public void setSeriesColors(int[] colors) {
+        if (colors.length == 0) {
+            throw new IllegalArgumentException("No series colors");
+        }
+        seriesPaints = createSeriesPaints(colors);
+        postInvalidate();
+    }
+
+    // Called with the data rather than from onDraw, so drawing never builds paints or invalidates
+    private void ensureSeriesPaints() {
+        if (seriesPaints != null) return;
+        // Bar color first, then the pie palette
+        int[] colors = new int[style.pieColors.length + 1];
+        colors[0] = style.barColor;
+        System.arraycopy(style.pieColors, 0, colors, 1, style.pieColors.length);
+        seriesPaints = createSeriesPaints(colors);
+    }
+
+    private Paint[] createSeriesPaints(int[] colors) {
+        Paint[] paints = new Paint[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            paints[i] = new Paint(style.barPaint);
+            paints[i].setColor(colors[i]);
+        }
+        return paints;
+    }
+
+    private Paint getSeriesPaint(int series) {
+        return seriesPaints[series % seriesPaints.length];
+    }
+
+    /**
+     * Like {@link #setData(float[], float)}, but bars are matched to the previous keyed update by
+     * key. Bars that kept their key keep their current height and only animate if their value
+     * changed, new bars grow from zero.
+     *
+     * @param keys Stable key of each bar, unique within one update.
+     */
+    public void setKeyedData(long[] keys, float[] values, float max) {
+        setKeyedSeriesData(keys, values, 1, max, seriesMode);
+    }
+
+    /**
+     * Keyed version of {@link #setSeriesData(float[], int, float, int)}, one key per bar shared
+     * by all series.
+     */
+    public void setKeyedSeriesData(long[] keys, float[] values, int seriesCount, float max,
+                                   int mode) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyKeyedSeriesData(keys, values, seriesCount, max, mode);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyKeyedSeriesData(long[] keys, float[] values, int seriesCount, float max,
+                                      int mode) {
+        if (seriesCount < 1 || values.length != keys.length * seriesCount) {
+            throw new IllegalArgumentException("values.length " + values.length
+                    + " does not match " + keys.length + " keys times seriesCount " + seriesCount);
+        }
+        ensureSeriesPaints();
+        histogramGeneration++;
+        histogram = null;
+        if (barKeys != null && seriesCount == this.seriesCount) {
+            remapBars(KeyedDiff.compute(barKeys, barKeys.length, keys, keys.length), keys.length);
+        }
+        applyData(values, seriesCount, max, mode);
+        barKeys = keys.clone();
+    }
+
+    // Moves the current heights to the new positions of their bars, inserted bars start at zero
+    private void remapBars(KeyedDiff diff, int newBarCount) {
+        float[] newHeights = new float[seriesCount * newBarCount];
+        for (int s = 0; s < seriesCount; s++) {
+            for (int i = 0; i < newBarCount; i++) {
+                int old = diff.getOldIndex(i);
+                if (old != KeyedDiff.INSERTED) {
+                    newHeights[s * newBarCount + i] = heights[s * barCount + old];
+                }
+            }
+        }
+        heights = newHeights;
+        targetHeights = new float[newHeights.length];
+        barCount = newBarCount;
+    }
+
+    private void applyData(float[] values, int seriesCount, float max, int mode) {
         if (max == 0) max = 1;
+        barKeys = null;
+        if (source != null) {
+            detachSource();
+            resize(1, 0);
+        }
+
+        int newBarCount = values.length / seriesCount;
+        resize(seriesCount, newBarCount);
+        seriesMode = mode;
+        // Stack offsets are accumulated once here rather than on every frame
+        boolean stacked = mode == SERIES_STACKED;
+        for (int k = 0; k < values.length; k++) {
+            float height = values[k] / max;
+            targetHeights[k] = stacked && k >= barCount ? targetHeights[k - barCount] + height : height;
+        }
+        if (visibleRangeKnown) {
+            snapBars(0, firstVisibleBar - 1);
+            snapBars(lastVisibleBar + 1, barCount - 1);
+        }
+
+        animator.start();
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        return ChartState.save(this, super.onSaveInstanceState(), saveSnapshot(), stateCache);
+    }
 
-        targetPercentList = new ArrayList<>();
-        for (int value : dataList) {
-            targetPercentList.add(1 - (float) value / max);
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof ChartState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        ChartState chartState = (ChartState) state;
+        super.onRestoreInstanceState(chartState.getSuperState());
+        Snapshot snapshot = chartState.getSnapshot(stateCache);
+        if (snapshot != null) {
+            restoreSnapshot(snapshot);
+        }
+    }
+
+    // The target heights with the stacking already applied, and the measured label sizes. Data
+    // sources belong to the app and are not saved.
+    private Snapshot saveSnapshot() {
+        if (source != null || barCount == 0) return null;
+        Snapshot snapshot = new Snapshot();
+        snapshot.putStrings(bottomTextList);
+        snapshot.putInt(barWidth);
+        snapshot.putInt(bottomTextHeight);
+        snapshot.putInt(bottomTextDescent);
+        snapshot.putInt(seriesCount);
+        snapshot.putInt(seriesMode);
+        snapshot.putFloats(targetHeights, seriesCount * barCount);
+        snapshot.putLongs(barKeys);
+        return snapshot;
+    }
+
+    // The bars are shown at their targets, nothing is measured or animated
+    private void restoreSnapshot(Snapshot snapshot) {
+        detachSource();
+        animator.cancel();
+        histogramGeneration++;
+        histogram = null;
+        bottomTextList = snapshot.getStrings();
+        barWidth = snapshot.getInt();
+        bottomTextHeight = snapshot.getInt();
+        bottomTextDescent = snapshot.getInt();
+        seriesCount = snapshot.getInt();
+        if (seriesCount > 1) ensureSeriesPaints();
+        seriesMode = snapshot.getInt();
+        targetHeights = snapshot.getFloats();
+        heights = targetHeights.clone();
+        barCount = targetHeights.length / seriesCount;
+        barKeys = snapshot.getLongs();
+        visibleRangeKnown = false;
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnScrollChangedListener(scrollListener);
+        animator.onVisibilityChanged();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnScrollChangedListener(scrollListener);
+        animator.onDetachedFromWindow();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // Also called from the View constructor, before the animator exists
+        if (animator != null) {
+            animator.onVisibilityChanged();
         }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        animator.onVisibilityChanged();
+    }
+
+    /**
+     * Bins the raw samples off the UI thread and shows the result, the labels and max are derived
+     * from the bins. A later call, or any other data update, supersedes a pending computation.
+     */
+    public void setHistogram(final double[] samples, final Histogram.BinSpec spec) {
+        final int generation = ++histogramGeneration;
+        Histogram.pool().execute(new Runnable() {
+            @Override
+            public void run() {
+                postHistogram(generation, Histogram.compute(samples, spec));
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #setHistogram(double[], Histogram.BinSpec)} for float samples.
+     */
+    public void setHistogram(final float[] samples, final Histogram.BinSpec spec) {
+        final int generation = ++histogramGeneration;
+        Histogram.pool().execute(new Runnable() {
+            @Override
+            public void run() {
+                postHistogram(generation, Histogram.compute(samples, spec));
+            }
+        });
+    }
+
+    // Called on a pool thread, hands the result over to the UI thread
+    private void postHistogram(final int generation, final Histogram result) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != histogramGeneration) return;
+
+                histogram = result;
+                int binCount = result.getBinCount();
+                ArrayList<String> labels = new ArrayList<>(binCount);
+                float[] values = new float[binCount];
+                for (int i = 0; i < binCount; i++) {
+                    labels.add(formatBinEdge(result.getBinStart(i)));
+                    values[i] = result.getCount(i);
+                }
+                setBottomTextList(labels);
+                long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+                try {
+                    applyData(values, 1, result.getMaxCount(), seriesMode);
+                } finally {
+                    metrics.end(ChartMetricsListener.PHASE_DATA, start);
+                }
+                requestLayout();
+            }
+        });
+    }
+
+    private static String formatBinEdge(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.valueOf((float) value);
+    }
+
+    /**
+     * @return The histogram currently shown, or null when the data was not set as a histogram.
+     */
+    public Histogram getHistogram() {
+        return histogram;
+    }
 
-        adjustPercentListSize();
-        removeCallbacks(animator);
-        post(animator);
+    // Re-lay the packed arrays for a new shape. Cells present in both keep their current height
+    // so running animations continue, new cells grow from zero.
+    private void resize(int newSeriesCount, int newBarCount) {
+        int size = newSeriesCount * newBarCount;
+        if (seriesCount == 1 && newSeriesCount == 1) {
+            // Rows don't move, only grow the arrays when needed
+            if (heights.length < size) {
+                float[] newHeights = new float[size];
+                System.arraycopy(heights, 0, newHeights, 0, barCount);
+                heights = newHeights;
+                targetHeights = new float[size];
+            }
+            for (int i = barCount; i < newBarCount; i++) {
+                heights[i] = 0f;
+            }
+        } else if (newSeriesCount != seriesCount || newBarCount != barCount) {
+            float[] newHeights = new float[size];
+            int rows = Math.min(seriesCount, newSeriesCount);
+            int columns = Math.min(barCount, newBarCount);
+            for (int s = 0; s < rows; s++) {
+                System.arraycopy(heights, s * barCount, newHeights, s * newBarCount, columns);
+            }
+            heights = newHeights;
+            targetHeights = new float[size];
+        }
+        seriesCount = newSeriesCount;
+        barCount = newBarCount;
     }
 
-    // Adjust the size of percentList to match targetPercentList
-    private void adjustPercentListSize() {
-        if (percentList.size() < targetPercentList.size()) {
-            for (int i = percentList.size(); i < targetPercentList.size(); i++) {
-                percentList.add(1f);
+    // Jump the bars in [from, to] straight to their target height
+    private void snapBars(int from, int to) {
+        if (source != null) return;
+        from = Math.max(from, 0);
+        to = Math.min(to, barCount - 1);
+        for (int row = 0; row < seriesCount * barCount; row += barCount) {
+            for (int k = row + from; k <= row + to; k++) {
+                heights[k] = targetHeights[k];
             }
-        } else if (percentList.size() > targetPercentList.size()) {
-            percentList.subList(targetPercentList.size(), percentList.size()).clear();
         }
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
-        drawBars(canvas);
-        drawBottomText(canvas);
+        long start = metrics.begin(ChartMetricsListener.PHASE_DRAW);
+        try {
+            updateVisibleRange(canvas);
+            if (source != null) {
+                readSourceHeights();
+            }
+            drawBars(canvas);
+            drawBottomText(canvas);
+            int drawn = Math.min(lastVisibleBar, barCount - 1) - firstVisibleBar + 1;
+            metrics.pointsDrawn(Math.max(0, drawn), barCount);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DRAW, start);
+        }
     }
 
-    // Draw the bars
-    private void drawBars(Canvas canvas) {
-        if (percentList == null || percentList.isEmpty()) return;
+    // Bars are laid out with a fixed stride, so the visible range follows from the clip bounds
+    // and the part of the view on screen
+    private void updateVisibleRange(Canvas canvas) {
+        int first = 0;
+        int last = -1;
+        if (Utils.getVisibleClipBounds(this, canvas, clipRect, visibleRect)) {
+            first = getFirstBarIn(clipRect);
+            last = getLastBarIn(clipRect);
+        }
 
-        int i = 1;
-        for (Float percent : percentList) {
-            drawBarBackground(canvas, i);
-            drawBarForeground(canvas, i, percent);
-            i++;
+        if (!visibleRangeKnown) {
+            snapBars(0, first - 1);
+            snapBars(last + 1, barCount - 1);
+        } else {
+            // Bars scrolled out mid-animation were left behind, catch them up as they come back
+            snapBars(first, Math.min(last, firstVisibleBar - 1));
+            snapBars(Math.max(first, lastVisibleBar + 1), last);
+        }
+        firstVisibleBar = first;
+        lastVisibleBar = last;
+        visibleRangeKnown = true;
+    }
+
+    private int getFirstBarIn(Rect bounds) {
+        return Math.max(0, bounds.left / (BAR_SIDE_MARGIN + barWidth));
+    }
+
+    private int getLastBarIn(Rect bounds) {
+        return (bounds.right + barWidth) / (BAR_SIDE_MARGIN + barWidth);
+    }
+
+    // Pulls the visible bars into sourceHeights, stacking them like applyData does
+    private void readSourceHeights() {
+        int first = firstVisibleBar;
+        int visible = Math.max(0, Math.min(lastVisibleBar, barCount - 1) - first + 1);
+        if (sourceHeights.length < seriesCount * visible) {
+            sourceHeights = new float[seriesCount * visible];
+        }
+        if (sourceValues.length < visible) {
+            sourceValues = new float[visible];
+        }
+        boolean stacked = seriesMode == SERIES_STACKED;
+        for (int s = 0; s < seriesCount; s++) {
+            int row = s * visible;
+            int count = s < source.getSeriesCount() ? source.getPointCount(s) : 0;
+            int read = Math.max(0, Math.min(first + visible, count) - first);
+            if (read > 0) {
+                source.copyValues(s, first, first + read, sourceValues);
+            }
+            for (int i = 0; i < visible; i++) {
+                float height = i < read ? sourceValues[i] / sourceMax : 0;
+                sourceHeights[row + i] = stacked && s > 0 ? sourceHeights[row - visible + i] + height : height;
+            }
+        }
+    }
+
+    // Draw the bars, one batch of rects per series so each paint is set up once
+    private void drawBars(Canvas canvas) {
+        int last = Math.min(lastVisibleBar, barCount - 1);
+        for (int i = firstVisibleBar; i <= last; i++) {
+            drawBarBackground(canvas, i + 1);
+        }
+        for (int s = 0; s < seriesCount; s++) {
+            Paint paint = seriesCount == 1 ? fgPaint : getSeriesPaint(s);
+            for (int i = firstVisibleBar; i <= last; i++) {
+                drawBarForeground(canvas, i + 1, s, paint);
+            }
         }
     }
 
@@ -198,42 +722,74 @@ public class ChartBarView extends View {
         canvas.drawRect(rect, bgPaint);
     }
 
-    // Draw the foreground of a single bar
-    private void drawBarForeground(Canvas canvas, int i, Float percent) {
+    // Draw the foreground of a single bar, or one series' segment of it
+    private void drawBarForeground(Canvas canvas, int i, int series, Paint paint) {
+        float[] heights = this.heights;
+        int row = barCount;
+        int k = series * barCount + i - 1;
+        if (source != null) {
+            // Only the visible bars were read
+            heights = sourceHeights;
+            row = Math.min(lastVisibleBar, barCount - 1) - firstVisibleBar + 1;
+            k = series * row + i - 1 - firstVisibleBar;
+        }
+        int left = BAR_SIDE_MARGIN * i + barWidth * (i - 1);
+        int width = barWidth;
+        float base = 0;
+        if (seriesMode == SERIES_STACKED) {
+            if (series > 0) base = heights[k - row];
+        } else {
+            width = barWidth / seriesCount;
+            left += width * series;
+        }
+        int barHeight = getHeight() - topMargin - bottomTextHeight - TEXT_TOP_MARGIN;
         rect.set(
-                BAR_SIDE_MARGIN * i + barWidth * (i - 1),
-                topMargin + (int) ((getHeight() - topMargin - bottomTextHeight - TEXT_TOP_MARGIN) * percent),
-                (BAR_SIDE_MARGIN + barWidth) * i,
-                getHeight() - bottomTextHeight - TEXT_TOP_MARGIN
+                left,
+                topMargin + (int) (barHeight * (1 - heights[k])),
+                left + width,
+                topMargin + (int) (barHeight * (1 - base))
         );
-        canvas.drawRect(rect, fgPaint);
+        canvas.drawRect(rect, paint);
+    }
+
+    // Covers the part of bar i between two heights, for every series in the bar's slot
+    private void unionBar(Rect dirty, int i, float from, float to) {
+        int left = BAR_SIDE_MARGIN * (i + 1) + barWidth * i;
+        int barHeight = getHeight() - topMargin - bottomTextHeight - TEXT_TOP_MARGIN;
+        dirty.union(left, topMargin + (int) (barHeight * (1 - Math.max(from, to))),
+                left + barWidth, topMargin + (int) (barHeight * (1 - Math.min(from, to))) + 1);
     }
 
     // Draw the bottom text labels
     private void drawBottomText(Canvas canvas) {
         if (bottomTextList == null || bottomTextList.isEmpty()) return;
 
-        int i = 1;
-        for (String text : bottomTextList) {
+        int last = Math.min(lastVisibleBar, bottomTextList.size() - 1);
+        for (int i = firstVisibleBar + 1; i <= last + 1; i++) {
             canvas.drawText(
-                    text,
+                    bottomTextList.get(i - 1),
                     BAR_SIDE_MARGIN * i + barWidth * (i - 1) + barWidth / 2,
                     getHeight() - bottomTextDescent,
                     textPaint
             );
-            i++;
         }
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        int width = measureWidth(widthMeasureSpec);
-        int height = measureHeight(heightMeasureSpec);
-        setMeasuredDimension(width, height);
+        long start = metrics.begin(ChartMetricsListener.PHASE_LAYOUT);
+        try {
+            int width = measureWidth(widthMeasureSpec);
+            int height = measureHeight(heightMeasureSpec);
+            setMeasuredDimension(width, height);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_LAYOUT, start);
+        }
     }
 
     private int measureWidth(int measureSpec) {
-        int preferred = bottomTextList.size() * (barWidth + BAR_SIDE_MARGIN);
+        int bars = source == null ? bottomTextList.size() : Math.max(bottomTextList.size(), barCount);
+        int preferred = (int) Math.min(Integer.MAX_VALUE, (long) bars * (barWidth + BAR_SIDE_MARGIN));
         return getMeasurement(measureSpec, preferred);
     }
 
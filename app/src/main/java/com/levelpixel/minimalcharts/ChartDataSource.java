@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.database.Observable;
+
+/**
+ * Data a chart pulls on demand instead of holding a copy of it, much like a RecyclerView adapter.
+ * A view only asks for the index ranges it is about to draw, so the values can stay in the app's
+ * own buffers, a database cursor or a file.
+ * <p>
+ * The views read from the main thread while drawing, so the values must not change under them.
+ * Change the data and call one of the notify methods on the main thread.
+ */
+public abstract class ChartDataSource {
+
+    private final SourceObservable observable = new SourceObservable();
+
+    public abstract int getSeriesCount();
+
+    public abstract int getPointCount(int series);
+
+    public abstract float getValue(int series, int index);
+
+    /**
+     * Copies values [from, to) of a series into dst, starting at dst[0]. Views read through this
+     * in chunks, so overriding it with a bulk copy pays off for large data.
+     */
+    public void copyValues(int series, int from, int to, float[] dst) {
+        for (int i = from; i < to; i++) {
+            dst[i - from] = getValue(series, i);
+        }
+    }
+
+    public void registerObserver(Observer observer) {
+        observable.registerObserver(observer);
+    }
+
+    public void unregisterObserver(Observer observer) {
+        observable.unregisterObserver(observer);
+    }
+
+    /**
+     * Anything may have changed, including the number of series and points.
+     */
+    public final void notifyDataChanged() {
+        observable.notifyChanged();
+    }
+
+    /**
+     * The values of a series in [from, from + count) changed, nothing else did.
+     */
+    public final void notifyRangeChanged(int series, int from, int count) {
+        observable.notifyRangeChanged(series, from, count);
+    }
+
+    /**
+     * Points were inserted into a series at [from, from + count), e.g. appended at the end.
+     */
+    public final void notifyRangeInserted(int series, int from, int count) {
+        observable.notifyRangeInserted(series, from, count);
+    }
+
+    /**
+     * Told about changes to a source. The range callbacks fall back to {@link #onChanged()}.
+     */
+    public abstract static class Observer {
+
+        public void onChanged() {
+        }
+
+        public void onRangeChanged(int series, int from, int count) {
+            onChanged();
+        }
+
+        public void onRangeInserted(int series, int from, int count) {
+            onChanged();
+        }
+    }
+
+    private static final class SourceObservable extends Observable<Observer> {
+
+        void notifyChanged() {
+            synchronized (mObservers) {
+                // Backwards, so an observer may unregister itself while being notified
+                for (int i = mObservers.size() - 1; i >= 0; i--) {
+                    mObservers.get(i).onChanged();
+                }
+            }
+        }
+
+        void notifyRangeChanged(int series, int from, int count) {
+            synchronized (mObservers) {
+                for (int i = mObservers.size() - 1; i >= 0; i--) {
+                    mObservers.get(i).onRangeChanged(series, from, count);
+                }
+            }
+        }
+
+        void notifyRangeInserted(int series, int from, int count) {
+            synchronized (mObservers) {
+                for (int i = mObservers.size() - 1; i >= 0; i--) {
+                    mObservers.get(i).onRangeInserted(series, from, count);
+                }
+            }
+        }
+    }
+}
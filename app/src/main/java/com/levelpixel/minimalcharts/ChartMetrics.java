@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.os.Trace;
+import android.view.View;
+
+/**
+ * Trace sections and {@link ChartMetricsListener} reporting for one chart view. Without a
+ * listener a phase costs two trace calls, which are no-ops unless tracing is on, and nothing is
+ * timed or allocated.
+ * <p>
+ * Phases are used as
+ * <pre>
+ * long start = metrics.begin(ChartMetricsListener.PHASE_DRAW);
+ * try {
+ *     ...
+ * } finally {
+ *     metrics.end(ChartMetricsListener.PHASE_DRAW, start);
+ * }
+ * </pre>
+ */
+final class ChartMetrics {
+
+    private static final String[] PHASE_NAMES = {"setData", "layout", "animate", "draw"};
+
+    private final View chart;
+    // Built once, so starting a section never builds a string
+    private final String[] sections = new String[PHASE_NAMES.length];
+    // Volatile for LiveLineView, which draws on its own thread
+    private volatile ChartMetricsListener listener;
+
+    ChartMetrics(View chart) {
+        this.chart = chart;
+        String name = chart.getClass().getSimpleName();
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            sections[i] = name + "." + PHASE_NAMES[i];
+        }
+    }
+
+    void setListener(ChartMetricsListener listener) {
+        this.listener = listener;
+    }
+
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * @return The start time to pass to {@link #end}, 0 when nothing is listening.
+     */
+    long begin(int phase) {
+        Trace.beginSection(sections[phase]);
+        return listener != null ? System.nanoTime() : 0;
+    }
+
+    void end(int phase, long start) {
+        Trace.endSection();
+        ChartMetricsListener listener = this.listener;
+        // A listener registered mid-phase has no start time to go by
+        if (listener != null && start != 0) {
+            listener.onPhase(chart, phase, System.nanoTime() - start);
+        }
+    }
+
+    void animationFrame(int framesExecuted, int framesSkipped) {
+        ChartMetricsListener listener = this.listener;
+        if (listener != null) {
+            listener.onAnimationFrame(chart, framesExecuted, framesSkipped);
+        }
+    }
+
+    void pointsDrawn(int drawn, int total) {
+        ChartMetricsListener listener = this.listener;
+        if (listener != null) {
+            listener.onPointsDrawn(chart, drawn, total);
+        }
+    }
+
+    void cacheAccess(int hits, int misses) {
+        ChartMetricsListener listener = this.listener;
+        if (listener != null) {
+            listener.onCacheAccess(chart, hits, misses);
+        }
+    }
+}
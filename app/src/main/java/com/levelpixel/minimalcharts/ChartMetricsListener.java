@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.view.View;
+
+/**
+ * Receives timing and workload numbers from a chart view, e.g. to feed them into telemetry.
+ * Register one with the view's setChartMetricsListener. Callbacks come on the thread doing the
+ * work, which is the main thread except for {@link LiveLineView}'s drawing and
+ * {@link ScatterView}'s counting, and should return quickly since they run inside the measured
+ * frame.
+ * <p>
+ * The same phases are always visible in Perfetto and systrace as trace sections named after the
+ * view class and the phase, e.g. "LineView.draw", whether or not a listener is registered.
+ */
+public interface ChartMetricsListener {
+
+    /**
+     * New data was handed to the chart and turned into animation targets.
+     */
+    int PHASE_DATA = 0;
+    /**
+     * The chart was measured or resized.
+     */
+    int PHASE_LAYOUT = 1;
+    /**
+     * One animation tick stepped the moving elements.
+     */
+    int PHASE_ANIMATION = 2;
+    /**
+     * The chart was drawn.
+     */
+    int PHASE_DRAW = 3;
+
+    /**
+     * @param chart         The view that did the work.
+     * @param phase         One of the PHASE_ constants.
+     * @param durationNanos Wall time the phase took.
+     */
+    void onPhase(View chart, int phase, long durationNanos);
+
+    /**
+     * Called once per animation tick.
+     *
+     * @param framesExecuted Frames stepped and then shown, 0 when the tick snapped to the end.
+     * @param framesSkipped  Frames that were due but not shown, because the tick caught up over
+     *                       them or snapped past them.
+     */
+    void onAnimationFrame(View chart, int framesExecuted, int framesSkipped);
+
+    /**
+     * Called once per draw.
+     *
+     * @param drawn Points, bars, slices or arcs actually drawn, after culling and merging.
+     * @param total How many the data holds.
+     */
+    void onPointsDrawn(View chart, int drawn, int total);
+
+    /**
+     * Called once per draw by charts that draw from a cache, such as the clock heatmap bitmap
+     * or the cached slice geometry of a pie.
+     *
+     * @param hits   Cached entries used as they were.
+     * @param misses Entries that had to be rebuilt.
+     */
+    void onCacheAccess(View chart, int hits, int misses);
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.View;
+
+/**
+ * Saved instance state of a chart view: a binary snapshot of its data, selection and computed
+ * layout, so a restored chart draws its final state straight away. Snapshots over
+ * {@link #MAX_PARCEL_BYTES} are handed to the view's {@link ChartStateCache} and only their key
+ * is parceled, or dropped when there is no cache.
+ */
+final class ChartState extends View.BaseSavedState {
+
+    // The saved state of the whole activity shares one binder transaction of about 1 MB
+    static final int MAX_PARCEL_BYTES = 64 * 1024;
+
+    private final byte[] snapshot;
+    private final String cacheKey;
+
+    private ChartState(Parcelable superState, byte[] snapshot, String cacheKey) {
+        super(superState);
+        this.snapshot = snapshot;
+        this.cacheKey = cacheKey;
+    }
+
+    private ChartState(Parcel in) {
+        super(in);
+        snapshot = in.createByteArray();
+        cacheKey = in.readString();
+    }
+
+    /**
+     * @param snapshot The view's snapshot, or null when there is nothing worth restoring.
+     */
+    static ChartState save(View view, Parcelable superState, Snapshot snapshot,
+                           ChartStateCache cache) {
+        if (snapshot == null) {
+            return new ChartState(superState, null, null);
+        }
+        byte[] bytes = snapshot.toByteArray();
+        if (bytes.length <= MAX_PARCEL_BYTES) {
+            return new ChartState(superState, bytes, null);
+        }
+        if (cache == null) {
+            // Too large to parcel and nowhere else to keep it, the app sets the data again
+            return new ChartState(superState, null, null);
+        }
+        String key = view.getClass().getName() + '#' + view.getId();
+        cache.put(key, bytes);
+        return new ChartState(superState, null, key);
+    }
+
+    /**
+     * @return The saved snapshot, or null when there is none or it can't be read.
+     */
+    Snapshot getSnapshot(ChartStateCache cache) {
+        byte[] bytes = snapshot;
+        if (bytes == null && cacheKey != null && cache != null) {
+            bytes = cache.get(cacheKey);
+        }
+        return bytes == null ? null : Snapshot.read(bytes);
+    }
+
+    @Override
+    public void writeToParcel(Parcel out, int flags) {
+        super.writeToParcel(out, flags);
+        out.writeByteArray(snapshot);
+        out.writeString(cacheKey);
+    }
+
+    public static final Parcelable.Creator<ChartState> CREATOR = new Parcelable.Creator<ChartState>() {
+        @Override
+        public ChartState createFromParcel(Parcel in) {
+            return new ChartState(in);
+        }
+
+        @Override
+        public ChartState[] newArray(int size) {
+            return new ChartState[size];
+        }
+    };
+}
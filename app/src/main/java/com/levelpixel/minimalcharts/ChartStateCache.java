@@ -0,0 +1,26 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+/**
+ * Keeps chart snapshots that are too large for the saved instance state across configuration
+ * changes. Back it with something that outlives the activity, e.g. a map in a ViewModel. Such
+ * snapshots do not survive the process being killed, the chart then comes back empty.
+ */
+public interface ChartStateCache {
+
+    void put(String key, byte[] snapshot);
+
+    /**
+     * @return The snapshot last put under the key, or null.
+     */
+    byte[] get(String key);
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.graphics.DashPathEffect;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Immutable, pre-resolved dimensions, colors and template paints shared by every chart view.
+ * <p>
+ * A style is resolved once per density/font scale and set of XML color attributes, then handed
+ * to every view inflated with the same values. Template paints must never be modified; views
+ * that need to change a paint (e.g. per-series colors) copy it with {@link Paint#Paint(Paint)}.
+ */
+public final class ChartStyle {
+
+    static final int DEFAULT_LABEL_COLOR = Color.parseColor("#9B9A9B");
+    static final int DEFAULT_GRID_COLOR = Color.parseColor("#EEEEEE");
+    static final int DEFAULT_BAR_COLOR = Color.parseColor("#FC496D");
+    static final int DEFAULT_BAR_BACKGROUND_COLOR = Color.parseColor("#F6F6F6");
+    static final int DEFAULT_INTERVAL_COLOR = Color.argb(50, 255, 0, 51);
+    static final int CLOCK_LINE_COLOR = Color.parseColor("#D4D3D4");
+
+    private static final HashMap<Key, ChartStyle> CACHE = new HashMap<>();
+
+    // Shared colors
+    final int labelColor;
+    final int gridColor;
+    final int popupTextColor;
+    final int barColor;
+    final int barBackgroundColor;
+    final int intervalColor;
+    final int[] lineColors = {
+            Color.parseColor("#e74c3c"), Color.parseColor("#2980b9"), Color.parseColor("#1abc9c")
+    };
+    final int[] pieColors = {
+            Color.parseColor("#33B5E5"), Color.parseColor("#AA66CC"), Color.parseColor("#99CC00"),
+            Color.parseColor("#FFBB33"), Color.parseColor("#FF4444")
+    };
+
+    // LineView dimensions
+    final int popupTopPadding;
+    final int popupBottomMargin;
+    final int popupBottomPadding;
+    final int popupSidePadding;
+    final int popupSidePaddingSingular;
+    final int popupDotOffset;
+    final int bottomTextTopMargin;
+    final int bottomLineLength;
+    final int dotInnerRadius;
+    final int dotOuterRadius;
+    final int dotVelocity;
+    final int topLineLength;
+    final int sideLineLength;
+    final int backgroundGridWidth;
+    final int lineStrokeWidth;
+    final int gridStrokeWidth;
+
+    // ChartBarView dimensions
+    final int barTopMargin;
+    final int barMinWidth;
+    final int barSideMargin;
+    final int barTextTopMargin;
+
+    // ClockPieView dimensions
+    final int clockTextSize;
+    final int clockLineThickness;
+    final int clockLineLength;
+
+    // Template paints, never modified after construction
+    final Paint popupTextPaint;
+    final Paint lineLabelPaint;
+    final Paint barLabelPaint;
+    final Paint clockLabelPaint;
+    final Paint gridPaint;
+    final Paint gridDashPaint;
+    final Paint linePaint;
+    final Paint dotPaint;
+    final Paint barPaint;
+    final Paint barBackgroundPaint;
+
+    private ChartStyle(DisplayMetrics metrics, int[] colors) {
+        labelColor = colors[0];
+        gridColor = colors[1];
+        popupTextColor = colors[2];
+        barColor = colors[3];
+        barBackgroundColor = colors[4];
+        intervalColor = colors[5];
+
+        popupTopPadding = Utils.dip2px(metrics, 2);
+        popupBottomMargin = Utils.dip2px(metrics, 5);
+        popupBottomPadding = Utils.dip2px(metrics, 2);
+        popupSidePadding = Utils.dip2px(metrics, 5);
+        popupSidePaddingSingular = Utils.dip2px(metrics, 8);
+        popupDotOffset = Utils.dip2px(metrics, 5);
+        bottomTextTopMargin = Utils.sp2px(metrics, 5);
+        bottomLineLength = Utils.sp2px(metrics, 22);
+        dotInnerRadius = Utils.dip2px(metrics, 2);
+        dotOuterRadius = Utils.dip2px(metrics, 5);
+        dotVelocity = Utils.dip2px(metrics, 18);
+        topLineLength = Utils.dip2px(metrics, 12);
+        backgroundGridWidth = Utils.dip2px(metrics, 45);
+        sideLineLength = backgroundGridWidth / 3 * 2;
+        lineStrokeWidth = Utils.dip2px(metrics, 2);
+        gridStrokeWidth = Utils.dip2px(metrics, 1f);
+
+        barTopMargin = Utils.dip2px(metrics, 5);
+        barMinWidth = Utils.dip2px(metrics, 22);
+        barSideMargin = Utils.dip2px(metrics, 22);
+        barTextTopMargin = Utils.dip2px(metrics, 5);
+
+        clockTextSize = Utils.sp2px(metrics, 15);
+        clockLineThickness = Utils.dip2px(metrics, 1);
+        clockLineLength = Utils.dip2px(metrics, 10);
+
+        popupTextPaint = new Paint();
+        popupTextPaint.setAntiAlias(true);
+        popupTextPaint.setColor(popupTextColor);
+        popupTextPaint.setTextSize(Utils.sp2px(metrics, 13));
+        popupTextPaint.setStrokeWidth(5);
+        popupTextPaint.setTextAlign(Paint.Align.CENTER);
+
+        lineLabelPaint = createLabelPaint(Utils.sp2px(metrics, 12));
+        barLabelPaint = createLabelPaint(Utils.sp2px(metrics, 15));
+        clockLabelPaint = createLabelPaint(clockTextSize);
+
+        gridPaint = new Paint();
+        gridPaint.setStyle(Paint.Style.STROKE);
+        gridPaint.setStrokeWidth(gridStrokeWidth);
+        gridPaint.setColor(gridColor);
+        gridDashPaint = new Paint(gridPaint);
+        gridDashPaint.setPathEffect(new DashPathEffect(new float[]{10, 5, 10, 5}, 1));
+
+        linePaint = new Paint();
+        linePaint.setAntiAlias(true);
+        linePaint.setStrokeWidth(lineStrokeWidth);
+
+        dotPaint = new Paint();
+        dotPaint.setAntiAlias(true);
+
+        barPaint = new Paint(dotPaint);
+        barPaint.setColor(barColor);
+        barBackgroundPaint = new Paint(dotPaint);
+        barBackgroundPaint.setColor(barBackgroundColor);
+    }
+
+    private Paint createLabelPaint(int textSize) {
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setTextSize(textSize);
+        paint.setTextAlign(Paint.Align.CENTER);
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(labelColor);
+        return paint;
+    }
+
+    /**
+     * Returns the shared style for the given context and XML attributes, resolving it only when no
+     * view with the same density, font scale and colors has been inflated before.
+     *
+     * @param attrs The attributes the view was inflated with, may be null.
+     */
+    public static ChartStyle obtain(Context context, AttributeSet attrs) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        int[] colors = {
+                DEFAULT_LABEL_COLOR, DEFAULT_GRID_COLOR, Color.WHITE,
+                DEFAULT_BAR_COLOR, DEFAULT_BAR_BACKGROUND_COLOR, DEFAULT_INTERVAL_COLOR
+        };
+        if (attrs != null) {
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.ChartStyle);
+            try {
+                colors[0] = a.getColor(R.styleable.ChartStyle_chartLabelColor, colors[0]);
+                colors[1] = a.getColor(R.styleable.ChartStyle_chartGridColor, colors[1]);
+                colors[2] = a.getColor(R.styleable.ChartStyle_chartPopupTextColor, colors[2]);
+                colors[3] = a.getColor(R.styleable.ChartStyle_chartBarColor, colors[3]);
+                colors[4] = a.getColor(R.styleable.ChartStyle_chartBarBackgroundColor, colors[4]);
+                colors[5] = a.getColor(R.styleable.ChartStyle_chartIntervalColor, colors[5]);
+            } finally {
+                a.recycle();
+            }
+        }
+
+        Key key = new Key(metrics.density, metrics.scaledDensity, colors);
+        synchronized (CACHE) {
+            ChartStyle style = CACHE.get(key);
+            if (style == null) {
+                style = new ChartStyle(metrics, colors);
+                CACHE.put(key, style);
+            }
+            return style;
+        }
+    }
+
+    private static final class Key {
+        private final float density;
+        private final float scaledDensity;
+        private final int[] colors;
+
+        Key(float density, float scaledDensity, int[] colors) {
+            this.density = density;
+            this.scaledDensity = scaledDensity;
+            this.colors = colors;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return density == other.density
+                    && scaledDensity == other.scaledDensity
+                    && Arrays.equals(colors, other.colors);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(density);
+            result = 31 * result + Float.floatToIntBits(scaledDensity);
+            return 31 * result + Arrays.hashCode(colors);
+        }
+    }
+}
@@ -10,12 +10,17 @@
 
 package com.levelpixel.minimalcharts;
 
+import com.levelpixel.minimalcharts.core.ClockAngles;
+import com.levelpixel.minimalcharts.core.Motion;
+
+import java.util.TimeZone;
+
 /**
  * Helper class for managing the properties and animations of a clock-style pie chart.
  */
 public class ClockPie {
 
-    private static final int DEFAULT_VELOCITY = 5; // Default velocity for updates
+    static final int DEFAULT_VELOCITY = 5; // Default velocity for updates
 
     private final int velocity; // Velocity for animating changes
     private float start; // Current start angle
@@ -55,6 +60,24 @@ public class ClockPie {
         normalizeEndAngle();
     }
 
+    /**
+     * Converts many epoch-millis intervals to start and end angles in one pass, without creating
+     * a ClockPie or any calendar object per interval. Zone offsets are looked up once per day.
+     * The angles follow the same rules as the time-based constructors: the wall-clock start and
+     * end, with the end moved past the start.
+     *
+     * @param startMillis Epoch millis each interval starts at.
+     * @param endMillis   Epoch millis each interval ends at.
+     * @param zone        Time zone whose wall clock the dial shows. java.time.ZoneId would need
+     *                    API 26, so a TimeZone is used instead.
+     * @param outStart    Receives the start angle of each interval.
+     * @param outEnd      Receives the end angle of each interval.
+     */
+    public static void toAngles(long[] startMillis, long[] endMillis, int count, TimeZone zone,
+                                float[] outStart, float[] outEnd) {
+        ClockAngles.fromEpochMillis(startMillis, endMillis, count, zone, outStart, outEnd);
+    }
+
     /**
      * Sets the target start and end angles for animation.
      *
@@ -93,8 +116,8 @@ public class ClockPie {
      * Updates the current start and end angles to move closer to their targets.
      */
     public void update() {
-        start = updateAngle(start, targetStart, velocity);
-        end = updateAngle(end, targetEnd, velocity);
+        start = Motion.step(start, targetStart, velocity);
+        end = Motion.step(end, targetEnd, velocity);
     }
 
     /**
@@ -133,7 +156,7 @@ public class ClockPie {
      * @return The calculated angle.
      */
     private float calculateAngle(int hour, int minute, int second) {
-        return 270 + hour * 15 + minute * 15 / 60f + second * 15 / 3600f;
+        return ClockAngles.angleOf(hour, minute, second);
     }
 
     /**
@@ -144,24 +167,4 @@ public class ClockPie {
             end += 360;
         }
     }
-
-    /**
-     * Updates the current angle towards the target angle by the specified velocity.
-     *
-     * @param current  The current angle.
-     * @param target   The target angle.
-     * @param velocity The velocity of the change.
-     * @return The updated angle.
-     */
-    private float updateAngle(float current, float target, int velocity) {
-        if (current < target) {
-            current += velocity;
-        } else if (current > target) {
-            current -= velocity;
-        }
-        if (Math.abs(target - current) < velocity) {
-            current = target;
-        }
-        return current;
-    }
 }
@@ -11,26 +11,39 @@
 package com.levelpixel.minimalcharts;
 
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.Rect;
 import android.graphics.RectF;
+import android.os.Parcelable;
 import android.util.AttributeSet;
+import android.view.MotionEvent;
 import android.view.View;
 
+import com.levelpixel.minimalcharts.core.ClockHeatmap;
+import com.levelpixel.minimalcharts.core.ClockIntervalTree;
+import com.levelpixel.minimalcharts.core.ClockIntervals;
+import com.levelpixel.minimalcharts.core.Motion;
+
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TimeZone;
 
 public class ClockPieView extends View {
 
-    // Constants for default colors
-    private static final int TEXT_COLOR = Color.parseColor("#9B9A9B");
-    private static final int GRAY_COLOR = Color.parseColor("#D4D3D4");
-    private static final int RED_COLOR = Color.argb(50, 255, 0, 51);
+    // How overlapping pies are rendered
+    public static final int OVERLAP_STACK = 0; // One arc per pie, overlaps get darker
+    public static final int OVERLAP_MERGE = 1; // One arc per disjoint covered range
+    public static final int OVERLAP_DEPTH = 2; // One arc per range, shaded by overlap depth
+
+    // Shared styling resolved once per density and XML attributes
+    private final ChartStyle style;
 
     // Paint objects for drawing
-    private final Paint textPaint = new Paint();
+    private Paint textPaint;
     private final Paint redPaint = new Paint();
     private final Paint linePaint = new Paint();
     private final Paint whitePaint = new Paint();
@@ -41,25 +54,61 @@ public class ClockPieView extends View {
     // Bounds and drawing areas
     private final RectF cirRect = new RectF();
     private final Rect textRect = new Rect();
-    // List of pie slices
-    private final ArrayList<ClockPie> pieArrayList = new ArrayList<>();
+    // Pie angles, packed. Pie i animates from (pieStarts[i], pieEnds[i]) towards the targets.
+    private float[] pieStarts = new float[0];
+    private float[] pieEnds = new float[0];
+    private float[] targetStarts = new float[0];
+    private float[] targetEnds = new float[0];
+    private int pieCount;
+    // Intervals given before merging, pieCount can be fewer
+    private int intervalCount;
+    // The intervals as given, kept for saving and for building the tree after a restore
+    private float[] intervalStarts;
+    private float[] intervalEnds;
+    private int overlapMode = OVERLAP_STACK;
+    // Alpha of each merged range in OVERLAP_DEPTH mode, null otherwise
+    private int[] pieAlphas;
+    // Answers tap queries against the pies as they were set, before merging
+    private ClockIntervalTree intervalTree;
+    private int[] queryResult = new int[0];
+    private OnClockPieClickListener onClockPieClickListener;
+    private ChartStateCache stateCache;
+    // Minute-resolution heatmap, drawn instead of the pies while set. The ring is rasterized
+    // into a bitmap once per data change.
+    private ClockHeatmap heatmap;
+    private ColorRamp heatmapRamp;
+    private Bitmap heatmapBitmap;
+    private boolean heatmapDirty;
+    private final Paint heatmapPaint = new Paint();
+    private final RectF heatmapRect = new RectF();
     // Animator for pie slice motion
-    private final Runnable animator = new Runnable() {
+    private final ChartMetrics metrics = new ChartMetrics(this);
+    private final ChartAnimator animator = new ChartAnimator(this, metrics, 10, new ChartAnimator.Stepper() {
         @Override
-        public void run() {
+        public boolean step(Rect dirty) {
             boolean needNewFrame = false;
-            for (ClockPie pie : pieArrayList) {
-                pie.update();
-                if (!pie.isAtRest()) {
+            for (int i = 0; i < pieCount; i++) {
+                float oldStart = pieStarts[i];
+                float oldEnd = pieEnds[i];
+                pieStarts[i] = Motion.step(oldStart, targetStarts[i], ClockPie.DEFAULT_VELOCITY);
+                pieEnds[i] = Motion.step(oldEnd, targetEnds[i], ClockPie.DEFAULT_VELOCITY);
+                if (pieStarts[i] != oldStart || pieEnds[i] != oldEnd) {
+                    Utils.unionWedge(dirty, cirRect, oldStart, oldEnd - oldStart, 1);
+                    Utils.unionWedge(dirty, cirRect, pieStarts[i], pieEnds[i] - pieStarts[i], 1);
+                }
+                if (pieStarts[i] != targetStarts[i] || pieEnds[i] != targetEnds[i]) {
                     needNewFrame = true;
                 }
             }
-            if (needNewFrame) {
-                postDelayed(this, 10);
-            }
-            invalidate();
+            return needNewFrame;
+        }
+
+        @Override
+        public void snap() {
+            System.arraycopy(targetStarts, 0, pieStarts, 0, pieCount);
+            System.arraycopy(targetEnds, 0, pieEnds, 0, pieCount);
         }
-    };
+    });
     // Dimensions and metrics
     private int mViewWidth;
     private int mViewHeight;
@@ -79,21 +128,23 @@ public class ClockPieView extends View {
 
     public ClockPieView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        initializePaints(context);
+        style = ChartStyle.obtain(context, attrs);
+        initializePaints();
     }
 
     // Initializes paint objects and metrics
-    private void initializePaints(Context context) {
-        textSize = Utils.sp2px(context, 15);
-        lineThickness = Utils.dip2px(context, 1);
-        lineLength = Utils.dip2px(context, 10);
+    private void initializePaints() {
+        textSize = style.clockTextSize;
+        lineThickness = style.clockLineThickness;
+        lineLength = style.clockLineLength;
 
-        configurePaint(textPaint, TEXT_COLOR, Paint.Align.CENTER);
+        textPaint = style.clockLabelPaint;
+        textPaint.getTextBounds("18", 0, 1, textRect);
         redPaint.set(textPaint);
-        redPaint.setColor(RED_COLOR);
+        redPaint.setColor(style.intervalColor);
 
         linePaint.set(textPaint);
-        linePaint.setColor(GRAY_COLOR);
+        linePaint.setColor(ChartStyle.CLOCK_LINE_COLOR);
         linePaint.setStrokeWidth(lineThickness);
 
         whitePaint.set(linePaint);
@@ -104,52 +155,245 @@ public class ClockPieView extends View {
         topTextHeight = textRect.height();
     }
 
-    private void configurePaint(Paint paint, int color, Paint.Align align) {
-        paint.setAntiAlias(true);
-        paint.setColor(color);
-        paint.setTextSize(textSize);
-        paint.setTextAlign(align);
-        paint.getTextBounds("18", 0, 1, textRect);
+    /**
+     * @param mode {@link #OVERLAP_STACK}, {@link #OVERLAP_MERGE} or {@link #OVERLAP_DEPTH}, used
+     *             from the next {@link #setDate(ArrayList)} on.
+     */
+    public void setOverlapMode(int mode) {
+        overlapMode = mode;
+    }
+
+    /**
+     * @param listener Receives this view's timings and workload, or null to stop.
+     */
+    public void setChartMetricsListener(ChartMetricsListener listener) {
+        metrics.setListener(listener);
+    }
+
+    /**
+     * @param cache Keeps the saved state when it is too large for the instance state, or null to
+     *              drop such state.
+     */
+    public void setStateCache(ChartStateCache cache) {
+        stateCache = cache;
+    }
+
+    /**
+     * The listener is told which pies cover the tapped time, as indices into the list given to
+     * {@link #setDate(ArrayList)}.
+     */
+    public void setOnClockPieClickListener(OnClockPieClickListener listener) {
+        onClockPieClickListener = listener;
+    }
+
+    /**
+     * Shows how often each minute of the day is active across the events, colored along the
+     * heatmap ramp. Replaces the pies until the next {@link #setDate(ArrayList)} or
+     * {@link #setData(long[], long[], TimeZone)}.
+     *
+     * @param startMillis Epoch millis each event starts at.
+     * @param endMillis   Epoch millis each event ends at.
+     * @param zone        Time zone whose wall clock the dial shows.
+     */
+    public void setHeatmap(long[] startMillis, long[] endMillis, TimeZone zone) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyHeatmap(startMillis, endMillis, zone);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyHeatmap(long[] startMillis, long[] endMillis, TimeZone zone) {
+        if (heatmap == null) {
+            heatmap = new ClockHeatmap();
+        }
+        heatmap.accumulate(startMillis, endMillis, Math.min(startMillis.length, endMillis.length),
+                zone);
+        intervalTree = null;
+        intervalStarts = null;
+        intervalEnds = null;
+        intervalCount = 0;
+        animator.cancel();
+        pieCount = 0;
+        heatmapDirty = true;
+        invalidate();
+    }
+
+    /**
+     * @param colors Colors from the least to the most active minute, at least two.
+     */
+    public void setHeatmapColors(int... colors) {
+        heatmapRamp = new ColorRamp(colors);
+        heatmapDirty = true;
+        invalidate();
     }
 
     // Sets pie slice data and starts the animator
     public void setDate(ArrayList<ClockPie> helperList) {
-        updatePieList(helperList);
-        removeCallbacks(animator);
-        post(animator);
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyDate(helperList);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
     }
 
-    private void updatePieList(ArrayList<ClockPie> helperList) {
-        if (helperList != null && !helperList.isEmpty()) {
-            syncPieList(helperList);
-        } else {
-            pieArrayList.clear();
+    private void applyDate(ArrayList<ClockPie> helperList) {
+        int count = helperList == null ? 0 : helperList.size();
+        float[] starts = new float[count];
+        float[] ends = new float[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = helperList.get(i).getStart();
+            ends[i] = helperList.get(i).getEnd();
         }
+        setAngles(starts, ends, count);
     }
 
-    private void syncPieList(ArrayList<ClockPie> helperList) {
-        int existingSize = pieArrayList.size();
-        for (int i = 0; i < helperList.size(); i++) {
-            if (i >= existingSize) {
-                pieArrayList.add(new ClockPie(0, 0, helperList.get(i)));
-            } else {
-                pieArrayList.set(i, pieArrayList.get(i).setTarget(helperList.get(i)));
+    /**
+     * Bulk alternative to {@link #setDate(ArrayList)} for large histories: the intervals are
+     * converted straight to packed angles, without a ClockPie per interval.
+     *
+     * @param startMillis Epoch millis each interval starts at.
+     * @param endMillis   Epoch millis each interval ends at.
+     * @param zone        Time zone whose wall clock the dial shows.
+     */
+    public void setData(long[] startMillis, long[] endMillis, TimeZone zone) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyData(startMillis, endMillis, zone);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyData(long[] startMillis, long[] endMillis, TimeZone zone) {
+        int count = Math.min(startMillis.length, endMillis.length);
+        float[] starts = new float[count];
+        float[] ends = new float[count];
+        ClockPie.toAngles(startMillis, endMillis, count, zone, starts, ends);
+        setAngles(starts, ends, count);
+    }
+
+    private void setAngles(float[] starts, float[] ends, int count) {
+        intervalCount = count;
+        intervalStarts = starts;
+        intervalEnds = ends;
+        heatmap = null;
+        pieAlphas = null;
+        intervalTree = null;
+        if (count > 0) {
+            ClockIntervals intervals = ClockIntervals.of(starts, ends, count);
+            intervalTree = new ClockIntervalTree(intervals);
+            queryResult = new int[count];
+            if (overlapMode == OVERLAP_DEPTH) {
+                float[] segments = intervals.mergeWithDepth();
+                count = segments.length / 3;
+                starts = new float[count];
+                ends = new float[count];
+                pieAlphas = new int[count];
+                // Same opacity that many stacked translucent arcs would reach
+                double transparency = 1 - Color.alpha(style.intervalColor) / 255.0;
+                for (int i = 0; i < count; i++) {
+                    starts[i] = segments[i * 3];
+                    ends[i] = segments[i * 3 + 1];
+                    pieAlphas[i] = (int) Math.round(255 * (1 - Math.pow(transparency, segments[i * 3 + 2])));
+                }
+            } else if (overlapMode == OVERLAP_MERGE) {
+                // Collapses the pies into disjoint ranges so overlaps are drawn once
+                float[] ranges = intervals.merge();
+                count = ranges.length / 2;
+                starts = new float[count];
+                ends = new float[count];
+                for (int i = 0; i < count; i++) {
+                    starts[i] = ranges[i * 2];
+                    ends[i] = ranges[i * 2 + 1];
+                }
             }
         }
-        removeExtraPies(helperList.size());
+        setTargets(starts, ends, count);
+        animator.start();
     }
 
-    private void removeExtraPies(int newSize) {
-        int excessCount = pieArrayList.size() - newSize;
-        for (int i = 0; i < excessCount; i++) {
-            pieArrayList.remove(pieArrayList.size() - 1);
+    // Existing pies move to the new angles, new ones grow out of 0 like before
+    private void setTargets(float[] starts, float[] ends, int count) {
+        if (pieStarts.length < count) {
+            pieStarts = Arrays.copyOf(pieStarts, count);
+            pieEnds = Arrays.copyOf(pieEnds, count);
+            targetStarts = new float[count];
+            targetEnds = new float[count];
+        }
+        for (int i = pieCount; i < count; i++) {
+            pieStarts[i] = 0;
+            pieEnds[i] = 0;
         }
+        System.arraycopy(starts, 0, targetStarts, 0, count);
+        System.arraycopy(ends, 0, targetEnds, 0, count);
+        pieCount = count;
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
-        drawBackground(canvas);
-        drawPies(canvas);
+        long start = metrics.begin(ChartMetricsListener.PHASE_DRAW);
+        try {
+            drawBackground(canvas);
+            if (heatmap != null) {
+                drawHeatmap(canvas);
+            } else {
+                drawPies(canvas);
+                metrics.pointsDrawn(pieCount, intervalCount);
+            }
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DRAW, start);
+        }
+    }
+
+    private void drawHeatmap(Canvas canvas) {
+        int size = pieRadius * 2;
+        if (size <= 0) return;
+        if (heatmapBitmap == null || heatmapBitmap.getWidth() != size) {
+            heatmapBitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            heatmapDirty = true;
+        }
+        if (heatmapDirty) {
+            renderHeatmap(heatmapBitmap);
+            heatmapDirty = false;
+            metrics.cacheAccess(0, 1);
+        } else {
+            metrics.cacheAccess(1, 0);
+        }
+        canvas.drawBitmap(heatmapBitmap, cirRect.left, cirRect.top, null);
+    }
+
+    // Rasterizes the ring, one arc per run of minutes that map to the same color
+    private void renderHeatmap(Bitmap bitmap) {
+        if (heatmapRamp == null) {
+            heatmapRamp = new ColorRamp(style.intervalColor, style.intervalColor | 0xFF000000);
+        }
+        bitmap.eraseColor(Color.TRANSPARENT);
+        Canvas bitmapCanvas = new Canvas(bitmap);
+        heatmapRect.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        heatmapPaint.setAntiAlias(true);
+
+        float max = Math.max(1, heatmap.getMaxCount());
+        float degreesPerMinute = 360f / ClockHeatmap.MINUTES_PER_DAY;
+        int minute = 0;
+        while (minute < ClockHeatmap.MINUTES_PER_DAY) {
+            int count = heatmap.getCount(minute);
+            int color = heatmapRamp.colorAt(count / max);
+            int runEnd = minute + 1;
+            while (runEnd < ClockHeatmap.MINUTES_PER_DAY
+                    && heatmapRamp.colorAt(heatmap.getCount(runEnd) / max) == color
+                    && (heatmap.getCount(runEnd) == 0) == (count == 0)) {
+                runEnd++;
+            }
+            if (count > 0) {
+                heatmapPaint.setColor(color);
+                bitmapCanvas.drawArc(heatmapRect, ClockIntervals.LAP_START + minute * degreesPerMinute,
+                        (runEnd - minute) * degreesPerMinute, true, heatmapPaint);
+            }
+            minute = runEnd;
+        }
     }
 
     private void drawBackground(Canvas canvas) {
@@ -185,18 +429,150 @@ public class ClockPieView extends View {
     }
 
     private void drawPies(Canvas canvas) {
-        for (ClockPie helper : pieArrayList) {
-            canvas.drawArc(cirRect, helper.getStart(), helper.getSweep(), true, redPaint);
+        for (int i = 0; i < pieCount; i++) {
+            if (pieAlphas != null && i < pieAlphas.length) {
+                redPaint.setAlpha(pieAlphas[i]);
+            }
+            canvas.drawArc(cirRect, pieStarts[i], pieEnds[i] - pieStarts[i], true, redPaint);
+        }
+        redPaint.setColor(style.intervalColor);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (onClockPieClickListener == null || intervalCount == 0) {
+            return super.onTouchEvent(event);
+        }
+        if (intervalTree == null) {
+            intervalTree = new ClockIntervalTree(
+                    ClockIntervals.of(intervalStarts, intervalEnds, intervalCount));
+            queryResult = new int[intervalCount];
+        }
+        if (event.getAction() == MotionEvent.ACTION_UP) {
+            float dx = event.getX() - pieCenterPoint.x;
+            float dy = event.getY() - pieCenterPoint.y;
+            if (dx * dx + dy * dy <= pieRadius * pieRadius) {
+                float angle = (float) Math.toDegrees(Math.atan2(dy, dx));
+                int found = intervalTree.query(angle, queryResult);
+                onClockPieClickListener.onClockPieClick(Arrays.copyOf(queryResult, found));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        return ChartState.save(this, super.onSaveInstanceState(), saveSnapshot(), stateCache);
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof ChartState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        ChartState chartState = (ChartState) state;
+        super.onRestoreInstanceState(chartState.getSuperState());
+        Snapshot snapshot = chartState.getSnapshot(stateCache);
+        if (snapshot != null) {
+            restoreSnapshot(snapshot);
+        }
+    }
+
+    // Either the heatmap counts, or the intervals with the pies they were drawn as
+    private Snapshot saveSnapshot() {
+        if (heatmap == null && pieCount == 0) return null;
+        Snapshot snapshot = new Snapshot();
+        snapshot.putBoolean(heatmap != null);
+        if (heatmap != null) {
+            int[] counts = new int[ClockHeatmap.MINUTES_PER_DAY];
+            for (int minute = 0; minute < counts.length; minute++) {
+                counts[minute] = heatmap.getCount(minute);
+            }
+            snapshot.putInts(counts);
+            return snapshot;
+        }
+        snapshot.putFloats(intervalStarts, intervalCount);
+        snapshot.putFloats(intervalEnds, intervalCount);
+        snapshot.putFloats(targetStarts, pieCount);
+        snapshot.putFloats(targetEnds, pieCount);
+        snapshot.putInts(pieAlphas);
+        return snapshot;
+    }
+
+    // The pies come back at rest, and the interval tree is only built again on the first tap
+    private void restoreSnapshot(Snapshot snapshot) {
+        animator.cancel();
+        intervalTree = null;
+        if (snapshot.getBoolean()) {
+            applyHeatmapCounts(snapshot.getInts());
+            return;
+        }
+        heatmap = null;
+        intervalStarts = snapshot.getFloats();
+        intervalEnds = snapshot.getFloats();
+        intervalCount = intervalStarts.length;
+        targetStarts = snapshot.getFloats();
+        targetEnds = snapshot.getFloats();
+        pieAlphas = snapshot.getInts();
+        pieCount = targetStarts.length;
+        pieStarts = targetStarts.clone();
+        pieEnds = targetEnds.clone();
+        invalidate();
+    }
+
+    private void applyHeatmapCounts(int[] counts) {
+        if (heatmap == null) {
+            heatmap = new ClockHeatmap();
+        }
+        heatmap.setCounts(counts);
+        intervalStarts = null;
+        intervalEnds = null;
+        intervalCount = 0;
+        pieCount = 0;
+        heatmapDirty = true;
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        animator.onVisibilityChanged();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        animator.onDetachedFromWindow();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // Also called from the View constructor, before the animator exists
+        if (animator != null) {
+            animator.onVisibilityChanged();
         }
     }
 
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        animator.onVisibilityChanged();
+    }
+
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        mViewWidth = measureDimension(widthMeasureSpec, 3);
-        mViewHeight = measureDimension(heightMeasureSpec, mViewWidth);
+        long start = metrics.begin(ChartMetricsListener.PHASE_LAYOUT);
+        try {
+            mViewWidth = measureDimension(widthMeasureSpec, 3);
+            mViewHeight = measureDimension(heightMeasureSpec, mViewWidth);
 
-        calculateDrawingArea();
-        setMeasuredDimension(mViewWidth, mViewHeight);
+            calculateDrawingArea();
+            setMeasuredDimension(mViewWidth, mViewHeight);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_LAYOUT, start);
+        }
     }
 
     private int measureDimension(int measureSpec, int preferredSize) {
@@ -220,4 +596,11 @@ public class ClockPieView extends View {
         cirRect.set(pieCenterPoint.x - pieRadius, pieCenterPoint.y - pieRadius,
                 pieCenterPoint.x + pieRadius, pieCenterPoint.y + pieRadius);
     }
+
+    public interface OnClockPieClickListener {
+        /**
+         * @param pieIndices Indices of the pies covering the tapped time, empty if none.
+         */
+        void onClockPieClick(int[] pieIndices);
+    }
 }
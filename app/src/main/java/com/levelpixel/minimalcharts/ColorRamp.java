@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.graphics.Color;
+
+/**
+ * Maps a fraction in [0, 1] to a color interpolated between evenly spaced color stops. The ramp
+ * is sampled once into a 256-entry table, so a lookup is an array read.
+ */
+public final class ColorRamp {
+
+    private static final int TABLE_SIZE = 256;
+
+    private final int[] table = new int[TABLE_SIZE];
+
+    /**
+     * @param stops At least two colors, from the lowest to the highest value.
+     */
+    public ColorRamp(int... stops) {
+        if (stops.length < 2) {
+            throw new IllegalArgumentException("A color ramp needs at least two stops");
+        }
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            float position = i / (float) (TABLE_SIZE - 1) * (stops.length - 1);
+            int stop = Math.min((int) position, stops.length - 2);
+            table[i] = blend(stops[stop], stops[stop + 1], position - stop);
+        }
+    }
+
+    private static int blend(int from, int to, float fraction) {
+        return Color.argb(
+                Math.round(Color.alpha(from) + (Color.alpha(to) - Color.alpha(from)) * fraction),
+                Math.round(Color.red(from) + (Color.red(to) - Color.red(from)) * fraction),
+                Math.round(Color.green(from) + (Color.green(to) - Color.green(from)) * fraction),
+                Math.round(Color.blue(from) + (Color.blue(to) - Color.blue(from)) * fraction));
+    }
+
+    /**
+     * @param fraction Position on the ramp, clamped to [0, 1].
+     */
+    public int colorAt(float fraction) {
+        int index = (int) (fraction * (TABLE_SIZE - 1) + 0.5f);
+        return table[Math.max(0, Math.min(TABLE_SIZE - 1, index))];
+    }
+}
@@ -15,40 +15,53 @@ package com.levelpixel.minimalcharts;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.DashPathEffect;
 import android.graphics.Paint;
 import android.graphics.Path;
-import android.graphics.PathEffect;
 import android.graphics.Point;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuffColorFilter;
 import android.graphics.Rect;
-import android.graphics.Region;
 import android.graphics.drawable.NinePatchDrawable;
+import android.os.Parcelable;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewTreeObserver;
+
+import com.levelpixel.minimalcharts.core.KeyedDiff;
+import com.levelpixel.minimalcharts.core.Motion;
+import com.levelpixel.minimalcharts.core.PointHitTester;
+import com.levelpixel.minimalcharts.core.QualityGovernor;
+import com.levelpixel.minimalcharts.core.Scale;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 
 public class LineView extends View {
     public static final int SHOW_POPUPS_All = 1;
     public static final int SHOW_POPUPS_MAXMIN_ONLY = 2;
     public static final int SHOW_POPUPS_NONE = 3;
+    /**
+     * Levels a {@link QualityGovernor} for this view is created with. Each level drops one more
+     * feature on top of the ones below it: dot antialiasing, the dots, the popups, line detail
+     * finer than two pixels, and finally every other animation frame.
+     */
+    public static final int QUALITY_LEVEL_COUNT = 6;
+    private static final int QUALITY_ALIASED_DOTS = 1;
+    private static final int QUALITY_NO_DOTS = 2;
+    private static final int QUALITY_NO_POPUPS = 3;
+    private static final int QUALITY_COARSE_LINES = 4;
+    private static final int QUALITY_SKIP_FRAMES = 5;
+    // Source values read per copy, and line floats drawn per call
+    private static final int SOURCE_CHUNK = 512;
+    // A frame this long after the previous one is not part of a burst, it starts at full quality
+    private static final long IDLE_FRAME_GAP_NANOS = 250_000_000L;
     private final int bottomTriangleHeight = 12;
-    private final int popupTopPadding = Utils.dip2px(getContext(), 2);
-    private final int popupBottomMargin = Utils.dip2px(getContext(), 5);
-    private final int bottomTextTopMargin = Utils.sp2px(getContext(), 5);
-    private final int bottomLineLength = Utils.sp2px(getContext(), 22);
-    private final int DOT_INNER_CIR_RADIUS = Utils.dip2px(getContext(), 2);
-    private final int DOT_OUTER_CIR_RADIUS = Utils.dip2px(getContext(), 5);
-    private final int MIN_TOP_LINE_LENGTH = Utils.dip2px(getContext(), 12);
+    private final ChartStyle style;
     private final int MIN_VERTICAL_GRID_NUM = 4;
     private final int MIN_HORIZONTAL_GRID_NUM = 1;
-    private final int BACKGROUND_LINE_COLOR = Color.parseColor("#EEEEEE");
-    private final int BOTTOM_TEXT_COLOR = Color.parseColor("#9B9A9B");
     private final Point tmpPoint = new Point();
+    private final Rect tmpRect = new Rect();
 
     public boolean showPopup = true;
     private int mViewHeight;
@@ -61,46 +74,182 @@ public class LineView extends View {
     private final ArrayList<Integer> xCoordinateList = new ArrayList<Integer>();
     private final ArrayList<Integer> yCoordinateList = new ArrayList<Integer>();
     private final ArrayList<ArrayList<Dot>> drawDotLists = new ArrayList<ArrayList<Dot>>();
-    private final Paint bottomTextPaint = new Paint();
+    // Keys of the x positions from the last keyed update, null after any other update
+    private long[] dotKeys;
+    // Min and max of line k at 2k and 2k + 1
+    private float[] lineExtents;
+    private final float[] tmpExtent = new float[2];
+    // Dot positions of one line, gathered for hit testing
+    private int[] hitXs = new int[0];
+    private float[] hitYs = new float[0];
+    private final Paint bottomTextPaint;
     private int bottomTextDescent;
-    private final Paint popupTextPaint = new Paint();
+    private final Paint popupTextPaint;
+    private final Paint linePaint;
+    private final Paint bigCirPaint;
+    private final Paint smallCirPaint;
+    private final Paint overlayLinePaint;
+    private final Paint overlayBandPaint;
+    private final Path dottedPath = new Path();
+    private NinePatchDrawable popup;
+    private final Rect popupRect = new Rect();
+    // Popup tints by line color index, made again when that color changes
+    private PorterDuffColorFilter[] popupFilters = new PorterDuffColorFilter[0];
+    private int[] popupFilterColors = new int[0];
+    private PorterDuffColorFilter popupFilter;
     private boolean showFloatNumInPopup;
     private Dot pointToSelect;
     private Dot selectedDot;
-    private final int popupBottomPadding = Utils.dip2px(getContext(), 2);
     /*
           |  | ←topLineLength
         --+--+--+--+--+--+--
         --+--+--+--+--+--+--
          ↑sideLineLength
      */
-    private int topLineLength = Utils.dip2px(getContext(), 12);
-    private int sideLineLength = Utils.dip2px(getContext(), 45) / 3 * 2;
+    private int topLineLength;
+    private int sideLineLength;
 
-    private int backgroundGridWidth = Utils.dip2px(getContext(), 45);
+    private int backgroundGridWidth;
     private int showPopupType = SHOW_POPUPS_NONE;
     private Boolean drawDotLine = false;
-    private int[] colorArray = {
-            Color.parseColor("#e74c3c"), Color.parseColor("#2980b9"), Color.parseColor("#1abc9c")
+    private int[] colorArray;
+    // How far the drawing of a dot reaches from its center, including its popup
+    private int dotExtentX;
+    private int dotExtentTop;
+    private int dotExtentBottom;
+    private QualityGovernor governor;
+    private int qualityLevel;
+    private long lastFrameEnd;
+    // Width in pixels of the columns lines are reduced to, 1 draws every segment of the data lists
+    private int lineColumn = 1;
+    // Read from while drawing instead of dataLists when set
+    private ChartDataSource source;
+    private float sourceMax;
+    // Pixels between two source points, 0 for a grid width
+    private float pointSpacing;
+    // Union of the source index ranges read in the last frame
+    private int drawnFrom;
+    private int drawnTo = -1;
+    private final float[] sourceValues = new float[SOURCE_CHUNK];
+    private final float[] sourceLines = new float[SOURCE_CHUNK * 4];
+    private int sourceLineCount;
+    // The pixel column being downsampled, and where the line left the previous one
+    private float columnX;
+    private float columnFirst;
+    private float columnLast;
+    private float columnMin;
+    private float columnMax;
+    private float joinX;
+    private float joinY;
+    private boolean hasJoin;
+    private final ArrayList<RollingOverlay> overlays = new ArrayList<>();
+    private final Path overlayPath = new Path();
+    // One entry per pixel column of the overlay being drawn
+    private float[] overlayXs = new float[0];
+    private float[] overlayTops = new float[0];
+    private float[] overlayBottoms = new float[0];
+    // Indices sources and overlays were drawn for in the last frame: the part of the view drawn on
+    // screen, widened by a point on each side, and not yet limited to the point counts
+    private final Rect visibleRect = new Rect();
+    private int windowFrom;
+    private int windowTo = -1;
+    // A scrolling parent doesn't draw this view again, points scrolled into view need a new frame
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener = new ViewTreeObserver.OnScrollChangedListener() {
+        @Override
+        public void onScrollChanged() {
+            if (source == null && overlays.isEmpty()) return;
+            boolean visible = getLocalVisibleRect(visibleRect);
+            int from = visible ? getWindowFrom(visibleRect) : 0;
+            int to = visible ? getWindowTo(visibleRect) : -1;
+            if (from != windowFrom || to != windowTo) {
+                invalidate();
+            }
+        }
+    };
+    private ChartStateCache stateCache;
+    // Restored from saved state: dots are placed at rest on layout, until the first frame is drawn
+    private boolean settleOnLayout;
+    private int restoredLine = -1;
+    private int restoredIndex = -1;
+    private final ChartDataSource.Observer sourceObserver = new ChartDataSource.Observer() {
+        @Override
+        public void onChanged() {
+            refillRollingOverlays();
+            // The point count, and with it the width, may have changed
+            requestLayout();
+            invalidate();
+        }
+
+        @Override
+        public void onRangeChanged(int series, int from, int count) {
+            boolean overlaysChanged = false;
+            for (RollingOverlay overlay : overlays) {
+                if (overlay.getSeries() == series && from < overlay.getCount()) {
+                    refillRollingOverlay(overlay);
+                    overlaysChanged = true;
+                }
+            }
+            if (overlaysChanged || (from <= drawnTo && from + count > drawnFrom)) {
+                invalidate();
+            }
+        }
+
+        @Override
+        public void onRangeInserted(int series, int from, int count) {
+            for (RollingOverlay overlay : overlays) {
+                if (overlay.getSeries() != series) continue;
+                if (from == overlay.getCount()) {
+                    // Appended points only move the statistic forward
+                    fillRollingOverlay(overlay, from + count);
+                } else {
+                    refillRollingOverlay(overlay);
+                }
+            }
+            requestLayout();
+            invalidate();
+        }
     };
-    private final Runnable animator = new Runnable() {
+    private final ChartMetrics metrics = new ChartMetrics(this);
+    private final ChartAnimator animator = new ChartAnimator(this, metrics, 25, new ChartAnimator.Stepper() {
         @Override
-        public void run() {
+        public boolean step(Rect dirty) {
             boolean needNewFrame = false;
             for (ArrayList<Dot> data : drawDotLists) {
-                for (Dot dot : data) {
+                for (int i = 0; i < data.size(); i++) {
+                    Dot dot = data.get(i);
+                    int oldX = dot.x;
+                    float oldY = dot.y;
                     dot.update();
+                    if (dot.x != oldX || dot.y != oldY) {
+                        unionDot(dirty, oldX, oldY);
+                        unionDot(dirty, dot.x, dot.y);
+                        // The line segments to both neighbours move with the dot
+                        int before = Math.max(0, i - 1);
+                        int after = Math.min(data.size() - 1, i + 1);
+                        unionDot(dirty, data.get(before).x, data.get(before).y);
+                        unionDot(dirty, data.get(after).x, data.get(after).y);
+                    }
                     if (!dot.isAtRest()) {
                         needNewFrame = true;
                     }
                 }
             }
-            if (needNewFrame) {
-                postDelayed(this, 25);
+            if (!needNewFrame) {
+                restoreQuality();
             }
-            invalidate();
+            return needNewFrame;
         }
-    };
+
+        @Override
+        public void snap() {
+            for (ArrayList<Dot> data : drawDotLists) {
+                for (Dot dot : data) {
+                    dot.snap();
+                }
+            }
+            restoreQuality();
+        }
+    });
 
     public LineView(Context context) {
         this(context, null);
@@ -108,20 +257,179 @@ public class LineView extends View {
 
     public LineView(Context context, AttributeSet attrs) {
         super(context, attrs);
-        popupTextPaint.setAntiAlias(true);
-        popupTextPaint.setColor(Color.WHITE);
-        popupTextPaint.setTextSize(Utils.sp2px(getContext(), 13));
-        popupTextPaint.setStrokeWidth(5);
-        popupTextPaint.setTextAlign(Paint.Align.CENTER);
-
-        bottomTextPaint.setAntiAlias(true);
-        bottomTextPaint.setTextSize(Utils.sp2px(getContext(), 12));
-        bottomTextPaint.setTextAlign(Paint.Align.CENTER);
-        bottomTextPaint.setStyle(Paint.Style.FILL);
-        bottomTextPaint.setColor(BOTTOM_TEXT_COLOR);
+        style = ChartStyle.obtain(context, attrs);
+        topLineLength = style.topLineLength;
+        sideLineLength = style.sideLineLength;
+        backgroundGridWidth = style.backgroundGridWidth;
+        colorArray = style.lineColors;
+
+        // Label paints are shared, the others are tinted per series so each view keeps a copy
+        popupTextPaint = style.popupTextPaint;
+        bottomTextPaint = style.lineLabelPaint;
+        linePaint = new Paint(style.linePaint);
+        bigCirPaint = new Paint(style.dotPaint);
+        smallCirPaint = new Paint(style.dotPaint);
+        smallCirPaint.setColor(Color.WHITE);
+        overlayLinePaint = new Paint(style.linePaint);
+        overlayLinePaint.setStyle(Paint.Style.STROKE);
+        overlayLinePaint.setStrokeWidth(style.linePaint.getStrokeWidth() / 2);
+        overlayBandPaint = new Paint(style.linePaint);
+        overlayBandPaint.setStyle(Paint.Style.FILL);
         refreshTopLineLength();
     }
 
+    /**
+     * @param listener Receives this view's timings and workload, or null to stop.
+     */
+    public void setChartMetricsListener(ChartMetricsListener listener) {
+        metrics.setListener(listener);
+    }
+
+    /**
+     * Lowers the drawing quality while frames take longer than the governor's budget and raises it
+     * again once they are back within it. The chart always settles at full quality when an
+     * animation ends, and draws at full quality again after a pause or a tap.
+     *
+     * @param governor Created with {@link #QUALITY_LEVEL_COUNT} levels, or null to always draw at
+     *                 full quality.
+     */
+    public void setQualityGovernor(QualityGovernor governor) {
+        this.governor = governor;
+        if (governor != null) {
+            governor.reset();
+        }
+        applyQuality(0);
+        invalidate();
+    }
+
+    /**
+     * Draws one line per series straight from a data source instead of from data lists. Every
+     * frame only reads the points inside the clip bounds that are on screen, and where several points share a pixel
+     * column only the range they span is drawn. Dots, popups and the entry animation are left
+     * out in this mode.
+     *
+     * @param source   The data, observed until replaced, or null to go back to the data lists.
+     * @param maxValue The value drawn at the top of the grid.
+     */
+    public void setDataSource(ChartDataSource source, float maxValue) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            detachSource();
+            this.source = source;
+            sourceMax = maxValue;
+            drawnFrom = 0;
+            drawnTo = -1;
+            if (source != null) {
+                source.registerObserver(sourceObserver);
+                dataLists = null;
+                dotKeys = null;
+                selectedDot = null;
+                drawDotLists.clear();
+                dataOfAGird = 1;
+                while (maxValue / 10 > dataOfAGird) {
+                    dataOfAGird *= 10;
+                }
+            }
+            settleOnLayout = false;
+            updateLineExtents();
+            updateDotExtent();
+            refillRollingOverlays();
+            refreshAfterDataChanged();
+            requestLayout();
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    /**
+     * @param spacing Pixels between two points of a data source, below 1 several points share a
+     *                pixel column. 0 lays them out a grid width apart, like the data lists.
+     */
+    public void setPointSpacing(float spacing) {
+        pointSpacing = spacing;
+        requestLayout();
+        invalidate();
+    }
+
+    private double getPointSpacing() {
+        return pointSpacing > 0 ? pointSpacing : backgroundGridWidth;
+    }
+
+    private void detachSource() {
+        if (source == null) return;
+        source.unregisterObserver(sourceObserver);
+        source = null;
+    }
+
+    /**
+     * @param cache Keeps the saved state when it is too large for the instance state, or null to
+     *              drop such state.
+     */
+    public void setStateCache(ChartStateCache cache) {
+        stateCache = cache;
+    }
+
+    /**
+     * Draws a rolling statistic of one of the lines behind the lines. The statistic is computed
+     * once over the data lists whenever they are set. A data source only has the points it reports
+     * through {@link ChartDataSource#notifyRangeInserted} at the end of a series added to it, so
+     * streams appended to a source cost O(1) amortized per point; any other change recomputes the
+     * overlays of the series.
+     */
+    public void addRollingOverlay(RollingOverlay overlay) {
+        overlays.add(overlay);
+        refillRollingOverlay(overlay);
+        invalidate();
+    }
+
+    public void removeRollingOverlay(RollingOverlay overlay) {
+        if (overlays.remove(overlay)) {
+            invalidate();
+        }
+    }
+
+    public void clearRollingOverlays() {
+        overlays.clear();
+        invalidate();
+    }
+
+    private void refillRollingOverlays() {
+        for (RollingOverlay overlay : overlays) {
+            refillRollingOverlay(overlay);
+        }
+    }
+
+    private void refillRollingOverlay(RollingOverlay overlay) {
+        overlay.reset();
+        int series = overlay.getSeries();
+        if (source != null) {
+            if (series < source.getSeriesCount()) {
+                fillRollingOverlay(overlay, source.getPointCount(series));
+            }
+        } else if (dataLists != null && series < dataLists.size()) {
+            fillRollingOverlay(overlay, dataLists.get(series).size());
+        }
+    }
+
+    // Adds the points from the overlay's count up to the given one
+    private void fillRollingOverlay(RollingOverlay overlay, int to) {
+        int series = overlay.getSeries();
+        if (source != null) {
+            for (int chunk = overlay.getCount(); chunk < to; chunk += SOURCE_CHUNK) {
+                int end = Math.min(chunk + SOURCE_CHUNK, to);
+                source.copyValues(series, chunk, end, sourceValues);
+                for (int i = 0; i < end - chunk; i++) {
+                    overlay.add(sourceValues[i]);
+                }
+            }
+        } else {
+            ArrayList<Float> list = dataLists.get(series);
+            for (int i = overlay.getCount(); i < to; i++) {
+                overlay.add(list.get(i));
+            }
+        }
+    }
+
     public void setShowPopup(int popupType) {
         this.showPopupType = popupType;
     }
@@ -182,6 +490,15 @@ public class LineView extends View {
     }
 
     public void setDataList(ArrayList<ArrayList<Integer>> dataLists) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyDataList(dataLists);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyDataList(ArrayList<ArrayList<Integer>> dataLists) {
         ArrayList<ArrayList<Float>> newList = new ArrayList<>();
         for (ArrayList<Integer> list : dataLists) {
             ArrayList<Float> tempList = new ArrayList<>();
@@ -190,12 +507,60 @@ public class LineView extends View {
             }
             newList.add(tempList);
         }
-        setFloatDataList(newList, false);
+        applyFloatDataList(newList, false);
+    }
+
+    /**
+     * Like {@link #setFloatDataList(ArrayList, boolean)}, but the x positions are matched to the
+     * previous keyed update by key. Dots that kept their key continue from where they are, and
+     * only the ones whose value or position changed move. New dots rise from the top as usual.
+     *
+     * @param keys Stable key of each x position, shared by all lines and unique within one update.
+     */
+    public void setKeyedFloatDataList(long[] keys, ArrayList<ArrayList<Float>> dataLists,
+                                      boolean showFloatNumInPopup) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyKeyedFloatDataList(keys, dataLists, showFloatNumInPopup);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyKeyedFloatDataList(long[] keys, ArrayList<ArrayList<Float>> dataLists,
+                                         boolean showFloatNumInPopup) {
+        if (dotKeys != null && drawDotLists.size() == dataLists.size()) {
+            KeyedDiff diff = KeyedDiff.compute(dotKeys, dotKeys.length, keys, keys.length);
+            for (int k = 0; k < drawDotLists.size(); k++) {
+                ArrayList<Dot> dots = drawDotLists.get(k);
+                ArrayList<Dot> remapped = new ArrayList<>(keys.length);
+                for (int i = 0; i < keys.length; i++) {
+                    int old = diff.getOldIndex(i);
+                    remapped.add(old != KeyedDiff.INSERTED && old < dots.size() ? dots.get(old) : null);
+                }
+                drawDotLists.set(k, remapped);
+            }
+        }
+        applyFloatDataList(dataLists, showFloatNumInPopup);
+        dotKeys = keys.clone();
     }
 
     public void setFloatDataList(ArrayList<ArrayList<Float>> dataLists,
                                  boolean showFloatNumInPopup) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyFloatDataList(dataLists, showFloatNumInPopup);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyFloatDataList(ArrayList<ArrayList<Float>> dataLists,
+                                    boolean showFloatNumInPopup) {
+        detachSource();
+        dotKeys = null;
         selectedDot = null;
+        settleOnLayout = false;
         this.showFloatNumInPopup = showFloatNumInPopup;
         this.dataLists = dataLists;
         for (ArrayList<Float> list : dataLists) {
@@ -204,6 +569,10 @@ public class LineView extends View {
                         "dacer.LineView error:" + " dataList.size() > bottomTextList.size() !!!");
             }
         }
+        // Only depend on the data, unlike the positions that follow the size
+        updateLineExtents();
+        updateDotExtent();
+        refillRollingOverlays();
         float biggestData = 0;
         for (ArrayList<Float> list : dataLists) {
             if (autoSetDataOfGird) {
@@ -233,17 +602,16 @@ public class LineView extends View {
     }
 
     private int getVerticalGridlNum() {
-        int verticalGridNum = MIN_VERTICAL_GRID_NUM;
-        if (dataLists != null && !dataLists.isEmpty()) {
-            for (ArrayList<Float> list : dataLists) {
-                for (Float f : list) {
-                    if (verticalGridNum < (f + 1)) {
-                        verticalGridNum = (int) Math.floor(f + 1);
-                    }
-                }
+        if (source != null) {
+            return Scale.gridCount(sourceMax, MIN_VERTICAL_GRID_NUM);
+        }
+        float max = Float.NEGATIVE_INFINITY;
+        if (lineExtents != null) {
+            for (int k = 0; k < lineExtents.length; k += 2) {
+                max = Math.max(max, lineExtents[k + 1]);
             }
         }
-        return verticalGridNum;
+        return Scale.gridCount(max, MIN_VERTICAL_GRID_NUM);
     }
 
     private int getHorizontalGridNum() {
@@ -267,12 +635,30 @@ public class LineView extends View {
             yCoordinateList.add(topLineLength + ((mViewHeight
                     - topLineLength
                     - bottomTextHeight
-                    - bottomTextTopMargin
-                    - bottomLineLength
+                    - style.bottomTextTopMargin
+                    - style.bottomLineLength
                     - bottomTextDescent) * i / (verticalGridNum)));
         }
     }
 
+    // Min and max of every line, scanned once per data change instead of on every frame
+    private void updateLineExtents() {
+        lineExtents = new float[dataLists == null ? 0 : dataLists.size() * 2];
+        float[] values = new float[0];
+        for (int k = 0; k < lineExtents.length / 2; k++) {
+            ArrayList<Float> list = dataLists.get(k);
+            if (values.length < list.size()) {
+                values = new float[list.size()];
+            }
+            for (int i = 0; i < list.size(); i++) {
+                values[i] = list.get(i);
+            }
+            Scale.extent(values, 0, list.size(), tmpExtent);
+            lineExtents[k * 2] = tmpExtent[0];
+            lineExtents[k * 2 + 1] = tmpExtent[1];
+        }
+    }
+
     private void refreshDrawDotList(int verticalGridNum) {
         if (dataLists != null && !dataLists.isEmpty()) {
             if (drawDotLists.size() == 0) {
@@ -288,6 +674,9 @@ public class LineView extends View {
                     float y = getYAxesOf(dataLists.get(k).get(i), verticalGridNum);
                     if (i > drawDotSize - 1) {
                         drawDotLists.get(k).add(new Dot(x, 0, x, y, dataLists.get(k).get(i), k));
+                    } else if (drawDotLists.get(k).get(i) == null) {
+                        // Inserted by a keyed update
+                        drawDotLists.get(k).set(i, new Dot(x, 0, x, y, dataLists.get(k).get(i), k));
                     } else {
                         drawDotLists.get(k)
                                 .set(i, drawDotLists.get(k)
@@ -302,53 +691,283 @@ public class LineView extends View {
                 }
             }
         }
-        removeCallbacks(animator);
-        post(animator);
+        if (settleOnLayout) {
+            for (ArrayList<Dot> dots : drawDotLists) {
+                for (Dot dot : dots) {
+                    dot.snap();
+                }
+            }
+            if (restoredLine >= 0 && restoredLine < drawDotLists.size()
+                    && restoredIndex < drawDotLists.get(restoredLine).size()) {
+                selectedDot = drawDotLists.get(restoredLine).get(restoredIndex);
+            }
+            invalidate();
+        } else {
+            animator.start();
+        }
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        return ChartState.save(this, super.onSaveInstanceState(), saveSnapshot(), stateCache);
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof ChartState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        ChartState chartState = (ChartState) state;
+        super.onRestoreInstanceState(chartState.getSuperState());
+        Snapshot snapshot = chartState.getSnapshot(stateCache);
+        if (snapshot != null) {
+            restoreSnapshot(snapshot);
+        }
+    }
+
+    // The data and everything derived from it that doesn't depend on the size. Data sources
+    // belong to the app and are not saved.
+    private Snapshot saveSnapshot() {
+        if (source != null || dataLists == null) return null;
+        Snapshot snapshot = new Snapshot();
+        snapshot.putStrings(bottomTextList);
+        snapshot.putInt(bottomTextHeight);
+        snapshot.putInt(bottomTextDescent);
+        snapshot.putInt(backgroundGridWidth);
+        snapshot.putInt(sideLineLength);
+        snapshot.putBoolean(showFloatNumInPopup);
+        snapshot.putInt(dataOfAGird);
+        snapshot.putInt(dataLists.size());
+        float[] values = new float[0];
+        for (ArrayList<Float> list : dataLists) {
+            if (values.length < list.size()) {
+                values = new float[list.size()];
+            }
+            for (int i = 0; i < list.size(); i++) {
+                values[i] = list.get(i);
+            }
+            snapshot.putFloats(values, list.size());
+        }
+        snapshot.putFloats(lineExtents);
+        snapshot.putInt(dotExtentX);
+        snapshot.putInt(dotExtentTop);
+        snapshot.putInt(dotExtentBottom);
+        snapshot.putLongs(dotKeys);
+        int line = selectedDot == null ? -1 : selectedDot.linenumber;
+        snapshot.putInt(line);
+        snapshot.putInt(line < 0 ? -1 : drawDotLists.get(line).indexOf(selectedDot));
+        return snapshot;
+    }
+
+    // Nothing is measured or scanned again, the dots are placed once the height is known
+    private void restoreSnapshot(Snapshot snapshot) {
+        detachSource();
+        animator.cancel();
+        bottomTextList = snapshot.getStrings();
+        bottomTextHeight = snapshot.getInt();
+        bottomTextDescent = snapshot.getInt();
+        backgroundGridWidth = snapshot.getInt();
+        sideLineLength = snapshot.getInt();
+        showFloatNumInPopup = snapshot.getBoolean();
+        dataOfAGird = snapshot.getInt();
+        int lines = snapshot.getInt();
+        dataLists = new ArrayList<>(lines);
+        for (int k = 0; k < lines; k++) {
+            float[] values = snapshot.getFloats();
+            ArrayList<Float> list = new ArrayList<>(values.length);
+            for (float value : values) {
+                list.add(value);
+            }
+            dataLists.add(list);
+        }
+        lineExtents = snapshot.getFloats();
+        dotExtentX = snapshot.getInt();
+        dotExtentTop = snapshot.getInt();
+        dotExtentBottom = snapshot.getInt();
+        dotKeys = snapshot.getLongs();
+        restoredLine = snapshot.getInt();
+        restoredIndex = snapshot.getInt();
+        // Overlays belong to the app like the data sources, only their values are computed again
+        refillRollingOverlays();
+
+        selectedDot = null;
+        showPopup = true;
+        drawDotLists.clear();
+        refreshXCoordinateList(getHorizontalGridNum());
+        settleOnLayout = true;
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        getViewTreeObserver().addOnScrollChangedListener(scrollListener);
+        animator.onVisibilityChanged();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        getViewTreeObserver().removeOnScrollChangedListener(scrollListener);
+        animator.onDetachedFromWindow();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // Also called from the View constructor, before the animator exists
+        if (animator != null) {
+            animator.onVisibilityChanged();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        animator.onVisibilityChanged();
+    }
+
+    // Popups are sized like drawPopup does, for the widest value
+    private void updateDotExtent() {
+        int textWidth = 0;
+        if (dataLists != null) {
+            for (ArrayList<Float> data : dataLists) {
+                for (Float value : data) {
+                    String numStr = showFloatNumInPopup ? String.valueOf(value)
+                            : String.valueOf(Math.round(value));
+                    textWidth = Math.max(textWidth,
+                            (int) Math.ceil(popupTextPaint.measureText(numStr)));
+                }
+            }
+        }
+        Paint.FontMetricsInt metrics = popupTextPaint.getFontMetricsInt();
+        int dot = style.dotOuterRadius + style.lineStrokeWidth;
+        dotExtentX = Math.max(dot, textWidth / 2 + style.popupSidePadding);
+        dotExtentTop = Math.max(dot, style.popupDotOffset + metrics.descent - metrics.ascent
+                + bottomTriangleHeight + style.popupTopPadding * 2 + style.popupBottomMargin);
+        dotExtentBottom = Math.max(dot, style.popupTopPadding - style.popupBottomMargin
+                + style.popupBottomPadding - style.popupDotOffset);
+    }
+
+    private void unionDot(Rect dirty, int x, float y) {
+        dirty.union(x - dotExtentX, (int) y - dotExtentTop, x + dotExtentX + 1,
+                (int) y + dotExtentBottom + 1);
     }
 
     private float getYAxesOf(float value, int verticalGridNum) {
-        return topLineLength + ((mViewHeight
+        return Scale.project(value, verticalGridNum, topLineLength, mViewHeight
                 - topLineLength
                 - bottomTextHeight
-                - bottomTextTopMargin
-                - bottomLineLength
-                - bottomTextDescent) * (verticalGridNum - value) / (getVerticalGridlNum()));
+                - style.bottomTextTopMargin
+                - style.bottomLineLength
+                - bottomTextDescent);
     }
 
     private void refreshTopLineLength() {
         // For prevent popup can't be completely showed when backgroundGridHeight is too small.
-        topLineLength = getPopupHeight() + DOT_OUTER_CIR_RADIUS + DOT_INNER_CIR_RADIUS + 2;
+        topLineLength = getPopupHeight() + style.dotOuterRadius + style.dotInnerRadius + 2;
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DRAW);
+        long drawStart = governor != null ? System.nanoTime() : 0;
+        if (governor != null && !animator.isRunning()
+                && drawStart - lastFrameEnd > IDLE_FRAME_GAP_NANOS) {
+            // A single frame at rest, e.g. for a selection, gives the governor nothing to step
+            // the level back down with
+            governor.reset();
+            applyQuality(0);
+        }
+        settleOnLayout = false;
+        restoredLine = -1;
+        try {
+            drawChart(canvas);
+        } finally {
+            if (governor != null) {
+                lastFrameEnd = System.nanoTime();
+                applyQuality(governor.onFrame(lastFrameEnd - drawStart));
+            }
+            metrics.end(ChartMetricsListener.PHASE_DRAW, start);
+        }
+    }
+
+    // Takes effect from the next frame on
+    private void applyQuality(int level) {
+        if (level == qualityLevel) return;
+        qualityLevel = level;
+        boolean antialias = level < QUALITY_ALIASED_DOTS;
+        bigCirPaint.setAntiAlias(antialias);
+        smallCirPaint.setAntiAlias(antialias);
+        lineColumn = level >= QUALITY_COARSE_LINES ? 2 : 1;
+        animator.setFrameStride(level >= QUALITY_SKIP_FRAMES ? 2 : 1);
+    }
+
+    // A settled chart is drawn once more at full quality, it costs a single frame
+    private void restoreQuality() {
+        if (governor == null || qualityLevel == 0) return;
+        governor.reset();
+        applyQuality(0);
+        invalidate();
+    }
+
+    private void drawChart(Canvas canvas) {
         drawBackgroundLines(canvas);
+        if ((source != null || !overlays.isEmpty())
+                && Utils.getVisibleClipBounds(this, canvas, tmpRect, visibleRect)) {
+            windowFrom = getWindowFrom(tmpRect);
+            windowTo = getWindowTo(tmpRect);
+        } else {
+            windowFrom = 0;
+            windowTo = -1;
+        }
+        drawRollingOverlays(canvas);
+        if (source != null) {
+            drawSourceLines(canvas);
+            return;
+        }
         drawLines(canvas);
-        drawDots(canvas);
+        if (qualityLevel < QUALITY_NO_DOTS) {
+            drawDots(canvas);
+        }
 
-        for (int k = 0; k < drawDotLists.size(); k++) {
-            float maxValue = Collections.max(dataLists.get(k));
-            float minValue = Collections.min(dataLists.get(k));
-            for (Dot d : drawDotLists.get(k)) {
+        for (int k = 0; k < drawDotLists.size() && qualityLevel < QUALITY_NO_POPUPS; k++) {
+            float minValue = lineExtents[k * 2];
+            float maxValue = lineExtents[k * 2 + 1];
+            ArrayList<Dot> dots = drawDotLists.get(k);
+            // Indexed, an iterator per frame is only optimized away once the JIT gets to it
+            for (int i = 0; i < dots.size(); i++) {
+                Dot d = dots.get(i);
                 if (showPopupType == SHOW_POPUPS_All) {
-                    drawPopup(canvas, d.data, d.setupPoint(tmpPoint),
-                            colorArray[k % colorArray.length]);
+                    drawPopup(canvas, d.getLabel(), d.setupPoint(tmpPoint),
+                            k % colorArray.length);
                 } else if (showPopupType == SHOW_POPUPS_MAXMIN_ONLY) {
                     if (d.data == maxValue) {
-                        drawPopup(canvas, d.data, d.setupPoint(tmpPoint),
-                                colorArray[k % colorArray.length]);
+                        drawPopup(canvas, d.getLabel(), d.setupPoint(tmpPoint),
+                                k % colorArray.length);
                     }
                     if (d.data == minValue) {
-                        drawPopup(canvas, d.data, d.setupPoint(tmpPoint),
-                                colorArray[k % colorArray.length]);
+                        drawPopup(canvas, d.getLabel(), d.setupPoint(tmpPoint),
+                                k % colorArray.length);
                     }
                 }
             }
         }
 
-        if (showPopup && selectedDot != null) {
-            drawPopup(canvas, selectedDot.data, selectedDot.setupPoint(tmpPoint),
-                    colorArray[selectedDot.linenumber % colorArray.length]);
+        if (showPopup && selectedDot != null && qualityLevel < QUALITY_NO_POPUPS) {
+            drawPopup(canvas, selectedDot.getLabel(), selectedDot.setupPoint(tmpPoint),
+                    selectedDot.linenumber % colorArray.length);
+        }
+
+        if (metrics.isEnabled()) {
+            // Nothing is culled, coarse lines still reach every point
+            int points = 0;
+            for (int k = 0; k < drawDotLists.size(); k++) {
+                points += drawDotLists.get(k).size();
+            }
+            metrics.pointsDrawn(points, points);
         }
     }
 
@@ -361,28 +980,47 @@ public class LineView extends View {
      *               2
      *               1
      *               0 1 2 3 4 5
+     * @param colorIndex Of the popup's color in the color array.
      */
-    private void drawPopup(Canvas canvas, float num, Point point, int PopupColor) {
-        String numStr = showFloatNumInPopup ? String.valueOf(num) : String.valueOf(Math.round(num));
+    private void drawPopup(Canvas canvas, String numStr, Point point, int colorIndex) {
         boolean singularNum = (numStr.length() == 1);
-        int sidePadding = Utils.dip2px(getContext(), singularNum ? 8 : 5);
+        int sidePadding = singularNum ? style.popupSidePaddingSingular : style.popupSidePadding;
         int x = point.x;
-        int y = point.y - Utils.dip2px(getContext(), 5);
-        Rect popupTextRect = new Rect();
+        int y = point.y - style.popupDotOffset;
+        Rect popupTextRect = tmpRect;
         popupTextPaint.getTextBounds(numStr, 0, numStr.length(), popupTextRect);
-        Rect r = new Rect(x - popupTextRect.width() / 2 - sidePadding, y
+        Rect r = popupRect;
+        r.set(x - popupTextRect.width() / 2 - sidePadding, y
                 - popupTextRect.height()
                 - bottomTriangleHeight
-                - popupTopPadding * 2
-                - popupBottomMargin, x + popupTextRect.width() / 2 + sidePadding,
-                y + popupTopPadding - popupBottomMargin + popupBottomPadding);
+                - style.popupTopPadding * 2
+                - style.popupBottomMargin, x + popupTextRect.width() / 2 + sidePadding,
+                y + style.popupTopPadding - style.popupBottomMargin + style.popupBottomPadding);
 
-        NinePatchDrawable popup =
-                (NinePatchDrawable) getResources().getDrawable(R.drawable.popup);
-        popup.setColorFilter(new PorterDuffColorFilter(PopupColor, PorterDuff.Mode.MULTIPLY));
+        if (popup == null) {
+            popup = (NinePatchDrawable) getResources().getDrawable(R.drawable.popup);
+        }
+        PorterDuffColorFilter filter = getPopupFilter(colorIndex);
+        if (popupFilter != filter) {
+            popup.setColorFilter(filter);
+            popupFilter = filter;
+        }
         popup.setBounds(r);
         popup.draw(canvas);
-        canvas.drawText(numStr, x, y - bottomTriangleHeight - popupBottomMargin, popupTextPaint);
+        canvas.drawText(numStr, x, y - bottomTriangleHeight - style.popupBottomMargin, popupTextPaint);
+    }
+
+    private PorterDuffColorFilter getPopupFilter(int colorIndex) {
+        if (popupFilters.length != colorArray.length) {
+            popupFilters = new PorterDuffColorFilter[colorArray.length];
+            popupFilterColors = new int[colorArray.length];
+        }
+        int color = colorArray[colorIndex];
+        if (popupFilters[colorIndex] == null || popupFilterColors[colorIndex] != color) {
+            popupFilters[colorIndex] = new PorterDuffColorFilter(color, PorterDuff.Mode.MULTIPLY);
+            popupFilterColors[colorIndex] = color;
+        }
+        return popupFilters[colorIndex];
     }
 
     private int getPopupHeight() {
@@ -390,35 +1028,35 @@ public class LineView extends View {
         popupTextPaint.getTextBounds("9", 0, 1, popupTextRect);
         Rect r = new Rect(-popupTextRect.width() / 2, -popupTextRect.height()
                 - bottomTriangleHeight
-                - popupTopPadding * 2
-                - popupBottomMargin, +popupTextRect.width() / 2,
-                +popupTopPadding - popupBottomMargin + popupBottomPadding);
+                - style.popupTopPadding * 2
+                - style.popupBottomMargin, +popupTextRect.width() / 2,
+                +style.popupTopPadding - style.popupBottomMargin + style.popupBottomPadding);
         return r.height();
     }
 
     private void drawDots(Canvas canvas) {
-        Paint bigCirPaint = new Paint();
-        bigCirPaint.setAntiAlias(true);
-        Paint smallCirPaint = new Paint(bigCirPaint);
-        smallCirPaint.setColor(Color.parseColor("#FFFFFF"));
         if (drawDotLists != null && !drawDotLists.isEmpty()) {
             for (int k = 0; k < drawDotLists.size(); k++) {
                 bigCirPaint.setColor(colorArray[k % colorArray.length]);
-                for (Dot dot : drawDotLists.get(k)) {
-                    canvas.drawCircle(dot.x, dot.y, DOT_OUTER_CIR_RADIUS, bigCirPaint);
-                    canvas.drawCircle(dot.x, dot.y, DOT_INNER_CIR_RADIUS, smallCirPaint);
+                ArrayList<Dot> dots = drawDotLists.get(k);
+                for (int i = 0; i < dots.size(); i++) {
+                    Dot dot = dots.get(i);
+                    canvas.drawCircle(dot.x, dot.y, style.dotOuterRadius, bigCirPaint);
+                    canvas.drawCircle(dot.x, dot.y, style.dotInnerRadius, smallCirPaint);
                 }
             }
         }
     }
 
     private void drawLines(Canvas canvas) {
-        Paint linePaint = new Paint();
-        linePaint.setAntiAlias(true);
-        linePaint.setStrokeWidth(Utils.dip2px(getContext(), 2));
         for (int k = 0; k < drawDotLists.size(); k++) {
             linePaint.setColor(colorArray[k % colorArray.length]);
-            for (int i = 0; i < drawDotLists.get(k).size() - 1; i++) {
+            if (lineColumn > 1) {
+                drawDotColumns(canvas, drawDotLists.get(k), lineColumn);
+                continue;
+            }
+            int last = drawDotLists.get(k).size() - 1;
+            for (int i = 0; i < last; i++) {
                 canvas.drawLine(drawDotLists.get(k).get(i).x, drawDotLists.get(k).get(i).y,
                         drawDotLists.get(k).get(i + 1).x, drawDotLists.get(k).get(i + 1).y,
                         linePaint);
@@ -426,23 +1064,236 @@ public class LineView extends View {
         }
     }
 
+    // Reduces the dots to columns as drawSourceColumns does, so spikes are kept
+    private void drawDotColumns(Canvas canvas, ArrayList<Dot> dots, int column) {
+        sourceLineCount = 0;
+        hasJoin = false;
+        long current = Long.MIN_VALUE;
+        for (int i = 0; i < dots.size(); i++) {
+            Dot dot = dots.get(i);
+            long index = (long) Math.floor((double) dot.x / column);
+            current = addColumnPoint(canvas, current, index, column, dot.y);
+        }
+        if (current != Long.MIN_VALUE) {
+            addSourceColumn(canvas);
+        }
+        flushSourceLines(canvas);
+    }
+
+    // Sources and overlays place their points alike
+    private double getWindowSpacing() {
+        return source != null ? getPointSpacing() : backgroundGridWidth;
+    }
+
+    // One point past each side, so lines leaving the bounds are drawn up to their edge
+    private int getWindowFrom(Rect bounds) {
+        return (int) Math.max(0,
+                Math.floor((bounds.left - sideLineLength) / getWindowSpacing()) - 1);
+    }
+
+    private int getWindowTo(Rect bounds) {
+        return (int) Math.min(Integer.MAX_VALUE,
+                Math.ceil((bounds.right - sideLineLength) / getWindowSpacing()) + 1);
+    }
+
+    // Where several points share a pixel column, a line is drawn through the last of them and a
+    // band spans all of them
+    private void drawRollingOverlays(Canvas canvas) {
+        int gridNum = getVerticalGridlNum();
+        double spacing = getWindowSpacing();
+        for (int o = 0; o < overlays.size(); o++) {
+            RollingOverlay overlay = overlays.get(o);
+            int from = windowFrom;
+            int to = Math.min(overlay.getCount() - 1, windowTo);
+            if (from >= to) continue;
+
+            boolean band = overlay.isBand();
+            int columns = 0;
+            long current = Long.MIN_VALUE;
+            for (int i = from; i <= to; i++) {
+                float x = (float) (sideLineLength + i * spacing);
+                float top = getYAxesOf(overlay.getHigh(i), gridNum);
+                float bottom = band ? getYAxesOf(overlay.getLow(i), gridNum) : top;
+                long column = (long) Math.floor(x);
+                if (column != current) {
+                    if (columns == overlayXs.length) {
+                        int capacity = Math.max(64, columns * 2);
+                        overlayXs = Arrays.copyOf(overlayXs, capacity);
+                        overlayTops = Arrays.copyOf(overlayTops, capacity);
+                        overlayBottoms = Arrays.copyOf(overlayBottoms, capacity);
+                    }
+                    current = column;
+                    overlayXs[columns] = x;
+                    overlayTops[columns] = top;
+                    overlayBottoms[columns] = bottom;
+                    columns++;
+                } else if (band) {
+                    overlayTops[columns - 1] = Math.min(overlayTops[columns - 1], top);
+                    overlayBottoms[columns - 1] = Math.max(overlayBottoms[columns - 1], bottom);
+                } else {
+                    overlayTops[columns - 1] = top;
+                }
+            }
+
+            int color = colorArray[overlay.getSeries() % colorArray.length];
+            overlayPath.rewind();
+            overlayPath.moveTo(overlayXs[0], overlayTops[0]);
+            for (int c = 1; c < columns; c++) {
+                overlayPath.lineTo(overlayXs[c], overlayTops[c]);
+            }
+            if (band) {
+                for (int c = columns - 1; c >= 0; c--) {
+                    overlayPath.lineTo(overlayXs[c], overlayBottoms[c]);
+                }
+                overlayPath.close();
+                overlayBandPaint.setColor(overlay.hasColor() ? overlay.getColor()
+                        : (color & 0x00FFFFFF) | (Color.alpha(color) / 4) << 24);
+                canvas.drawPath(overlayPath, overlayBandPaint);
+            } else {
+                overlayLinePaint.setColor(overlay.hasColor() ? overlay.getColor() : color);
+                canvas.drawPath(overlayPath, overlayLinePaint);
+            }
+        }
+    }
+
+    private void drawSourceLines(Canvas canvas) {
+        drawnFrom = Integer.MAX_VALUE;
+        drawnTo = -1;
+        int drawn = 0;
+        int total = 0;
+        if (windowFrom <= windowTo) {
+            int gridNum = getVerticalGridlNum();
+            double spacing = getPointSpacing();
+            // Downsampling columns are widened under load
+            int column = lineColumn;
+            for (int k = 0; k < source.getSeriesCount(); k++) {
+                int count = source.getPointCount(k);
+                total += count;
+                int from = windowFrom;
+                int to = Math.min(count - 1, windowTo);
+                if (from > to) continue;
+
+                linePaint.setColor(colorArray[k % colorArray.length]);
+                if (spacing >= column) {
+                    drawSourceSegments(canvas, k, from, to, spacing, gridNum);
+                } else {
+                    drawSourceColumns(canvas, k, from, to, spacing, column, gridNum);
+                }
+                drawn += to - from + 1;
+                drawnFrom = Math.min(drawnFrom, from);
+                drawnTo = Math.max(drawnTo, to);
+            }
+        }
+        if (drawnTo < 0) {
+            drawnFrom = 0;
+        }
+        metrics.pointsDrawn(drawn, total);
+    }
+
+    private void drawSourceSegments(Canvas canvas, int series, int from, int to, double spacing,
+                                    int gridNum) {
+        sourceLineCount = 0;
+        float lastX = 0;
+        float lastY = 0;
+        for (int chunk = from; chunk <= to; chunk += SOURCE_CHUNK) {
+            int end = Math.min(chunk + SOURCE_CHUNK, to + 1);
+            source.copyValues(series, chunk, end, sourceValues);
+            for (int i = chunk; i < end; i++) {
+                float x = (float) (sideLineLength + i * spacing);
+                float y = getYAxesOf(sourceValues[i - chunk], gridNum);
+                if (i > from) {
+                    addSourceLine(canvas, lastX, lastY, x, y);
+                }
+                lastX = x;
+                lastY = y;
+            }
+        }
+        flushSourceLines(canvas);
+    }
+
+    // Each column draws the span of its points and is joined to the next from its last point to
+    // that column's first, which covers the same pixels as drawing every segment
+    private void drawSourceColumns(Canvas canvas, int series, int from, int to, double spacing,
+                                   int column, int gridNum) {
+        sourceLineCount = 0;
+        hasJoin = false;
+        long current = Long.MIN_VALUE;
+        for (int chunk = from; chunk <= to; chunk += SOURCE_CHUNK) {
+            int end = Math.min(chunk + SOURCE_CHUNK, to + 1);
+            source.copyValues(series, chunk, end, sourceValues);
+            for (int i = chunk; i < end; i++) {
+                float y = getYAxesOf(sourceValues[i - chunk], gridNum);
+                long index = (long) Math.floor((sideLineLength + i * spacing) / column);
+                current = addColumnPoint(canvas, current, index, column, y);
+            }
+        }
+        if (current != Long.MIN_VALUE) {
+            addSourceColumn(canvas);
+        }
+        flushSourceLines(canvas);
+    }
+
+    // Adds a point to the column being reduced, or draws that one and starts the point's column
+    private long addColumnPoint(Canvas canvas, long current, long index, int column, float y) {
+        if (index != current) {
+            if (current != Long.MIN_VALUE) {
+                addSourceColumn(canvas);
+            }
+            columnX = index * column;
+            columnFirst = y;
+            columnMin = y;
+            columnMax = y;
+        } else if (y < columnMin) {
+            columnMin = y;
+        } else if (y > columnMax) {
+            columnMax = y;
+        }
+        columnLast = y;
+        return index;
+    }
+
+    private void addSourceColumn(Canvas canvas) {
+        if (hasJoin) {
+            addSourceLine(canvas, joinX, joinY, columnX, columnFirst);
+        }
+        if (columnMin != columnMax) {
+            addSourceLine(canvas, columnX, columnMin, columnX, columnMax);
+        }
+        joinX = columnX;
+        joinY = columnLast;
+        hasJoin = true;
+    }
+
+    private void addSourceLine(Canvas canvas, float x0, float y0, float x1, float y1) {
+        sourceLines[sourceLineCount++] = x0;
+        sourceLines[sourceLineCount++] = y0;
+        sourceLines[sourceLineCount++] = x1;
+        sourceLines[sourceLineCount++] = y1;
+        if (sourceLineCount == sourceLines.length) {
+            flushSourceLines(canvas);
+        }
+    }
+
+    private void flushSourceLines(Canvas canvas) {
+        if (sourceLineCount > 0) {
+            canvas.drawLines(sourceLines, 0, sourceLineCount, linePaint);
+            sourceLineCount = 0;
+        }
+    }
+
     private void drawBackgroundLines(Canvas canvas) {
-        Paint paint = new Paint();
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(Utils.dip2px(getContext(), 1f));
-        paint.setColor(BACKGROUND_LINE_COLOR);
-        PathEffect effects = new DashPathEffect(new float[]{10, 5, 10, 5}, 1);
+        Paint paint = style.gridPaint;
 
         //draw vertical lines
         for (int i = 0; i < xCoordinateList.size(); i++) {
             canvas.drawLine(xCoordinateList.get(i), 0, xCoordinateList.get(i),
-                    mViewHeight - bottomTextTopMargin - bottomTextHeight - bottomTextDescent,
+                    mViewHeight - style.bottomTextTopMargin - bottomTextHeight - bottomTextDescent,
                     paint);
         }
 
         //draw dotted lines
-        paint.setPathEffect(effects);
-        Path dottedPath = new Path();
+        paint = style.gridDashPaint;
+        dottedPath.rewind();
         for (int i = 0; i < yCoordinateList.size(); i++) {
             if ((yCoordinateList.size() - 1 - i) % dataOfAGird == 0) {
                 dottedPath.moveTo(0, yCoordinateList.get(i));
@@ -471,16 +1322,29 @@ public class LineView extends View {
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        int mViewWidth = measureWidth(widthMeasureSpec);
-        mViewHeight = measureHeight(heightMeasureSpec);
-        //        mViewHeight = MeasureSpec.getSize(measureSpec);
-        refreshAfterDataChanged();
-        setMeasuredDimension(mViewWidth, mViewHeight);
+        long start = metrics.begin(ChartMetricsListener.PHASE_LAYOUT);
+        try {
+            int mViewWidth = measureWidth(widthMeasureSpec);
+            mViewHeight = measureHeight(heightMeasureSpec);
+            //        mViewHeight = MeasureSpec.getSize(measureSpec);
+            refreshAfterDataChanged();
+            setMeasuredDimension(mViewWidth, mViewHeight);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_LAYOUT, start);
+        }
     }
 
     private int measureWidth(int measureSpec) {
         int horizontalGridNum = getHorizontalGridNum();
         int preferred = backgroundGridWidth * horizontalGridNum + sideLineLength * 2;
+        if (source != null) {
+            int points = 0;
+            for (int k = 0; k < source.getSeriesCount(); k++) {
+                points = Math.max(points, source.getPointCount(k));
+            }
+            double span = Math.ceil(Math.max(0, points - 1) * getPointSpacing()) + sideLineLength * 2;
+            preferred = (int) Math.max(preferred, Math.min(span, Integer.MAX_VALUE));
+        }
         return getMeasurement(measureSpec, preferred);
     }
 
@@ -514,6 +1378,8 @@ public class LineView extends View {
             if (pointToSelect != null) {
                 selectedDot = pointToSelect;
                 pointToSelect = null;
+                // The popup is dropped under load, a selection is shown at full quality
+                restoreQuality();
                 postInvalidate();
             }
         }
@@ -527,17 +1393,19 @@ public class LineView extends View {
         }
 
         final int width = backgroundGridWidth / 2;
-        final Region r = new Region();
-
         for (ArrayList<Dot> data : drawDotLists) {
-            for (Dot dot : data) {
-                final int pointX = dot.x;
-                final int pointY = (int) dot.y;
-
-                r.set(pointX - width, pointY - width, pointX + width, pointY + width);
-                if (r.contains(x, y)) {
-                    return dot;
-                }
+            int count = data.size();
+            if (hitXs.length < count) {
+                hitXs = new int[count];
+                hitYs = new float[count];
+            }
+            for (int i = 0; i < count; i++) {
+                hitXs[i] = data.get(i).x;
+                hitYs[i] = data.get(i).y;
+            }
+            int index = PointHitTester.find(hitXs, hitYs, count, x, y, width);
+            if (index != PointHitTester.NO_POINT) {
+                return data.get(index);
             }
         }
 
@@ -551,7 +1419,9 @@ public class LineView extends View {
         int targetX;
         float targetY;
         int linenumber;
-        int velocity = Utils.dip2px(getContext(), 18);
+        int velocity = style.dotVelocity;
+        // Popup text of data, made on first use
+        private String label;
 
         Dot(int x, float y, int targetX, float targetY, float data, int linenumber) {
             this.x = x;
@@ -570,28 +1440,30 @@ public class LineView extends View {
             this.targetY = targetY;
             this.data = data;
             this.linenumber = linenumber;
+            label = null;
             return this;
         }
 
+        String getLabel() {
+            if (label == null) {
+                label = showFloatNumInPopup ? String.valueOf(data)
+                        : String.valueOf(Math.round(data));
+            }
+            return label;
+        }
+
         boolean isAtRest() {
             return (x == targetX) && (y == targetY);
         }
 
         void update() {
-            x = (int) updateSelf(x, targetX, velocity);
-            y = updateSelf(y, targetY, velocity);
+            x = (int) Motion.step(x, targetX, velocity);
+            y = Motion.step(y, targetY, velocity);
         }
 
-        private float updateSelf(float origin, float target, int velocity) {
-            if (origin < target) {
-                origin += velocity;
-            } else if (origin > target) {
-                origin -= velocity;
-            }
-            if (Math.abs(target - origin) < velocity) {
-                origin = target;
-            }
-            return origin;
+        void snap() {
+            x = targetX;
+            y = targetY;
         }
     }
 }
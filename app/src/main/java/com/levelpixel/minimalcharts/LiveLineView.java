@@ -0,0 +1,425 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.SurfaceTexture;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.Surface;
+import android.view.TextureView;
+
+import com.levelpixel.minimalcharts.core.SampleQueue;
+
+/**
+ * Line chart for high-frequency streams, e.g. 500 Hz to 1 kHz sensor traces.
+ * <p>
+ * Samples are handed over through a lock-free single-producer, single-consumer queue, so the
+ * producer never blocks. A dedicated render thread drains the queue once per vsync and redraws
+ * the latest window into the TextureView's surface, only on frames where something changed. The
+ * UI thread is only involved in configuration changes.
+ * <p>
+ * With {@link #setScrollByBlit(boolean)} and a fixed range, the trace is kept in an offscreen
+ * bitmap that scrolls by blitting, so a frame only rasterizes the newly arrived samples.
+ */
+public class LiveLineView extends TextureView implements TextureView.SurfaceTextureListener {
+
+    private static final int DEFAULT_WINDOW_SIZE = 1000;
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    private static final int GRID_LINES = 4;
+
+    private final ChartStyle style;
+    private final SampleQueue queue;
+    private final ChartMetrics metrics = new ChartMetrics(this);
+    private RenderThread renderThread;
+    // Configuration, owned by the UI thread and copied to the render thread on every change
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+    private boolean autoRange = true;
+    private float minValue;
+    private float maxValue;
+    private int lineColor;
+    private boolean scrollByBlit;
+
+    public LiveLineView(Context context) {
+        this(context, null);
+    }
+
+    public LiveLineView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        style = ChartStyle.obtain(context, attrs);
+        queue = new SampleQueue(DEFAULT_QUEUE_CAPACITY);
+        lineColor = style.lineColors[0];
+        setOpaque(false);
+        setSurfaceTextureListener(this);
+    }
+
+    /**
+     * Queues one sample. Must always be called from the same producer thread.
+     *
+     * @return False if the render thread fell behind and the sample was dropped.
+     */
+    public boolean offer(float sample) {
+        return queue.offer(sample);
+    }
+
+    /**
+     * Queues several samples at once. Must always be called from the same producer thread.
+     *
+     * @return How many samples were queued, the rest were dropped.
+     */
+    public int offer(float[] samples, int offset, int count) {
+        return queue.offer(samples, offset, count);
+    }
+
+    /**
+     * @return How many samples were dropped because the queue was full.
+     */
+    public long getDroppedSampleCount() {
+        return queue.getDroppedCount();
+    }
+
+    /**
+     * Draining the queue is reported as {@link ChartMetricsListener#PHASE_DATA} and drawing as
+     * {@link ChartMetricsListener#PHASE_DRAW}, both on the render thread. With
+     * {@link #setScrollByBlit(boolean)} the scrolling bitmap counts as the cache, and only the
+     * newly rasterized samples as drawn.
+     *
+     * @param listener Receives this view's timings and workload, or null to stop.
+     */
+    public void setChartMetricsListener(ChartMetricsListener listener) {
+        metrics.setListener(listener);
+    }
+
+    /**
+     * @param windowSize How many of the latest samples span the width of the view.
+     */
+    public void setWindowSize(int windowSize) {
+        if (windowSize < 2) {
+            throw new IllegalArgumentException("windowSize " + windowSize + " < 2");
+        }
+        this.windowSize = windowSize;
+        postConfiguration();
+    }
+
+    /**
+     * Fixes the value range shown from the bottom to the top of the view.
+     */
+    public void setRange(float minValue, float maxValue) {
+        autoRange = false;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        postConfiguration();
+    }
+
+    /**
+     * Fits the value range to the visible window on every frame, the default.
+     */
+    public void setAutoRange() {
+        autoRange = true;
+        postConfiguration();
+    }
+
+    public void setLineColor(int color) {
+        lineColor = color;
+        postConfiguration();
+    }
+
+    /**
+     * Renders the trace incrementally by scrolling an offscreen bitmap, see
+     * {@link ScrollingPlotRenderer}. Only used with a fixed range from
+     * {@link #setRange(float, float)}, since auto range rescales every point.
+     */
+    public void setScrollByBlit(boolean scrollByBlit) {
+        this.scrollByBlit = scrollByBlit;
+        postConfiguration();
+    }
+
+    private void postConfiguration() {
+        if (renderThread != null) {
+            renderThread.configure(windowSize, autoRange, minValue, maxValue, lineColor,
+                    scrollByBlit);
+        }
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surface, int width, int height) {
+        renderThread = new RenderThread(surface, queue, style, metrics);
+        renderThread.start();
+        renderThread.setSize(width, height);
+        postConfiguration();
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surface, int width, int height) {
+        renderThread.setSize(width, height);
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surface) {
+        // The render thread may still be drawing, it releases the texture once it has stopped
+        renderThread.release();
+        renderThread = null;
+        return false;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surface) {
+    }
+
+    /**
+     * Owns the surface and everything drawn into it. Apart from the queue, all state is only
+     * touched on this thread; the UI thread talks to it by posting to its handler.
+     */
+    private static final class RenderThread extends HandlerThread
+            implements Choreographer.FrameCallback {
+
+        private final SurfaceTexture surfaceTexture;
+        private final SampleQueue queue;
+        private final ChartMetrics metrics;
+        private final Paint gridPaint;
+        private final Paint linePaint;
+        private Handler handler;
+        private Surface surface;
+        private Choreographer choreographer;
+        private boolean released;
+        private boolean dirty;
+        private int width;
+        private int height;
+        private boolean autoRange = true;
+        private float minValue;
+        private float maxValue;
+        // Latest samples, a ring of windowSize entries starting at windowStart
+        private float[] window = new float[DEFAULT_WINDOW_SIZE];
+        private int windowStart;
+        private int windowCount;
+        private final float[] drained = new float[1024];
+        private float[] points = new float[0];
+        private boolean scrollByBlit;
+        private final ScrollingPlotRenderer renderer = new ScrollingPlotRenderer();
+        // The renderer holds the current window, with the current geometry
+        private boolean rendererValid;
+        // Samples the renderer rasterized since the last draw
+        private int renderedSamples;
+
+        RenderThread(SurfaceTexture surfaceTexture, SampleQueue queue, ChartStyle style,
+                     ChartMetrics metrics) {
+            super("LiveLineView");
+            this.surfaceTexture = surfaceTexture;
+            this.queue = queue;
+            this.metrics = metrics;
+            gridPaint = new Paint(style.gridPaint);
+            linePaint = new Paint(style.linePaint);
+        }
+
+        @Override
+        public synchronized void start() {
+            super.start();
+            handler = new Handler(getLooper());
+        }
+
+        @Override
+        protected void onLooperPrepared() {
+            surface = new Surface(surfaceTexture);
+            choreographer = Choreographer.getInstance();
+            choreographer.postFrameCallback(this);
+        }
+
+        void setSize(final int width, final int height) {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    RenderThread.this.width = width;
+                    RenderThread.this.height = height;
+                    dirty = true;
+                    rendererValid = false;
+                }
+            });
+        }
+
+        void configure(final int windowSize, final boolean autoRange, final float minValue,
+                       final float maxValue, final int lineColor, final boolean scrollByBlit) {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    resizeWindow(windowSize);
+                    RenderThread.this.autoRange = autoRange;
+                    RenderThread.this.minValue = minValue;
+                    RenderThread.this.maxValue = maxValue;
+                    linePaint.setColor(lineColor);
+                    RenderThread.this.scrollByBlit = scrollByBlit;
+                    dirty = true;
+                    rendererValid = false;
+                }
+            });
+        }
+
+        void release() {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    released = true;
+                    choreographer.removeFrameCallback(RenderThread.this);
+                    renderer.release();
+                    surface.release();
+                    surfaceTexture.release();
+                    quit();
+                }
+            });
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (released) return;
+            boolean drained;
+            long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+            try {
+                drained = drain();
+            } finally {
+                metrics.end(ChartMetricsListener.PHASE_DATA, start);
+            }
+            if (drained || dirty) {
+                start = metrics.begin(ChartMetricsListener.PHASE_DRAW);
+                try {
+                    draw();
+                } finally {
+                    metrics.end(ChartMetricsListener.PHASE_DRAW, start);
+                }
+                dirty = false;
+            }
+            choreographer.postFrameCallback(this);
+        }
+
+        // Moves everything queued into the window, older samples fall off the left
+        private boolean drain() {
+            boolean changed = false;
+            int count;
+            while ((count = queue.drain(drained, drained.length)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    append(drained[i]);
+                }
+                if (rendererValid) {
+                    renderer.append(drained, 0, count, linePaint);
+                    renderedSamples += count;
+                }
+                changed = true;
+            }
+            return changed;
+        }
+
+        private void append(float sample) {
+            if (windowCount < window.length) {
+                window[(windowStart + windowCount++) % window.length] = sample;
+            } else {
+                window[windowStart] = sample;
+                windowStart = (windowStart + 1) % window.length;
+            }
+        }
+
+        // Keeps the latest samples that still fit
+        private void resizeWindow(int size) {
+            if (size == window.length) return;
+            float[] resized = new float[size];
+            int keep = Math.min(windowCount, size);
+            for (int i = 0; i < keep; i++) {
+                resized[i] = window[(windowStart + windowCount - keep + i) % window.length];
+            }
+            window = resized;
+            windowStart = 0;
+            windowCount = keep;
+        }
+
+        private void draw() {
+            if (width <= 0 || height <= 0) return;
+            Canvas canvas = surface.lockCanvas(null);
+            try {
+                canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                for (int i = 0; i <= GRID_LINES; i++) {
+                    float y = (height - 1) * i / (float) GRID_LINES;
+                    canvas.drawLine(0, y, width, y, gridPaint);
+                }
+                if (scrollByBlit && !autoRange) {
+                    if (rendererValid) {
+                        metrics.cacheAccess(1, 0);
+                    } else {
+                        rebuildRenderer();
+                        metrics.cacheAccess(0, 1);
+                    }
+                    renderer.draw(canvas);
+                    metrics.pointsDrawn(Math.min(renderedSamples, windowCount), windowCount);
+                } else {
+                    drawTrace(canvas);
+                    metrics.pointsDrawn(windowCount, windowCount);
+                }
+                renderedSamples = 0;
+            } finally {
+                surface.unlockCanvasAndPost(canvas);
+            }
+        }
+
+        // Redraws the whole window into the renderer, it is kept up to date while draining after
+        private void rebuildRenderer() {
+            renderer.reset(width, height, width / (float) (window.length - 1), minValue, maxValue,
+                    linePaint.getStrokeWidth() / 2);
+            int firstPart = Math.min(windowCount, window.length - windowStart);
+            renderer.append(window, windowStart, firstPart, linePaint);
+            renderer.append(window, 0, windowCount - firstPart, linePaint);
+            rendererValid = true;
+            renderedSamples = windowCount;
+        }
+
+        private void drawTrace(Canvas canvas) {
+            if (windowCount < 2) return;
+
+            float min = minValue;
+            float max = maxValue;
+            if (autoRange) {
+                min = Float.POSITIVE_INFINITY;
+                max = Float.NEGATIVE_INFINITY;
+                for (int i = 0; i < windowCount; i++) {
+                    float value = window[(windowStart + i) % window.length];
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            float range = max > min ? max - min : 1;
+            // The newest sample sits on the right edge
+            float step = width / (float) (window.length - 1);
+            float left = width - step * (windowCount - 1);
+            float inset = linePaint.getStrokeWidth() / 2;
+            float scale = (height - inset * 2) / range;
+
+            if (points.length < (windowCount - 1) * 4) {
+                points = new float[(window.length - 1) * 4];
+            }
+            float previousX = left;
+            float previousY = height - inset - (window[windowStart] - min) * scale;
+            int p = 0;
+            for (int i = 1; i < windowCount; i++) {
+                float x = left + step * i;
+                float y = height - inset - (window[(windowStart + i) % window.length] - min) * scale;
+                points[p++] = previousX;
+                points[p++] = previousY;
+                points[p++] = x;
+                points[p++] = y;
+                previousX = x;
+                previousY = y;
+            }
+            canvas.drawLines(points, 0, p, linePaint);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads a series file written by {@link MappedSeriesWriter} through memory mapping. The file is
+ * mapped a window of whole blocks at a time and only a few windows are kept, so the pages the
+ * system loads follow what is being drawn, and the heap holds nothing but the window bookkeeping
+ * however large the file is.
+ * <p>
+ * Every series has the same number of points, one per sample. Call {@link #refresh()} to pick up
+ * samples appended since the file was opened.
+ */
+public final class MappedSeriesSource extends ChartDataSource implements Closeable {
+
+    // Bytes of whole blocks mapped at once, and how many such windows stay mapped
+    private static final long WINDOW_BYTES = 8L << 20;
+    private static final int MAX_WINDOWS = 4;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final SeriesFile format;
+    private final long blocksPerWindow;
+    private final ByteBuffer countBuffer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    private final Window[] windows = new Window[MAX_WINDOWS];
+    private long sampleCount;
+    private long useCounter;
+
+    private static final class Window {
+        long index = -1;
+        // Blocks actually mapped, the last window grows as samples are appended
+        long blocks;
+        ByteBuffer bytes;
+        FloatBuffer floats;
+        long lastUse;
+    }
+
+    public MappedSeriesSource(File path) throws IOException {
+        file = new RandomAccessFile(path, "r");
+        try {
+            channel = file.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(SeriesFile.HEADER_BYTES);
+            readFully(header, 0);
+            format = SeriesFile.read(header);
+            sampleCount = header.getLong(SeriesFile.SAMPLE_COUNT_OFFSET);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        blocksPerWindow = Math.max(1, WINDOW_BYTES / format.blockBytes);
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window();
+        }
+    }
+
+    /**
+     * Reads the sample count again and tells the observers about the samples appended since.
+     *
+     * @return True when there were new samples.
+     */
+    public boolean refresh() throws IOException {
+        countBuffer.clear();
+        readFully(countBuffer, SeriesFile.SAMPLE_COUNT_OFFSET);
+        long count = countBuffer.getLong(0);
+        if (count <= sampleCount) return false;
+
+        int from = getPointCount(0);
+        sampleCount = count;
+        int added = getPointCount(0) - from;
+        for (int s = 0; s < format.seriesCount; s++) {
+            notifyRangeInserted(s, from, added);
+        }
+        return true;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    public boolean hasTimestamps() {
+        return format.timestamps;
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return format.seriesCount;
+    }
+
+    /**
+     * @return The number of samples, capped at Integer.MAX_VALUE.
+     */
+    @Override
+    public int getPointCount(int series) {
+        return (int) Math.min(sampleCount, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public float getValue(int series, int index) {
+        long block = index / format.blockCapacity;
+        Window window = window(block);
+        return window.bytes.getFloat(position(window, block)
+                + format.valueOffset(series, index % format.blockCapacity));
+    }
+
+    @Override
+    public void copyValues(int series, int from, int to, float[] dst) {
+        int done = 0;
+        while (from < to) {
+            long block = from / format.blockCapacity;
+            int sample = from % format.blockCapacity;
+            int count = Math.min(to - from, format.blockCapacity - sample);
+            Window window = window(block);
+            window.floats.position((position(window, block) + format.valueOffset(series, sample)) / 4);
+            window.floats.get(dst, done, count);
+            from += count;
+            done += count;
+        }
+    }
+
+    /**
+     * @throws IllegalStateException When the file has no timestamps.
+     */
+    public long getTimestamp(int index) {
+        if (!format.timestamps) {
+            throw new IllegalStateException("The series file has no timestamps");
+        }
+        long block = index / format.blockCapacity;
+        Window window = window(block);
+        return window.bytes.getLong(position(window, block)
+                + format.timestampOffset(index % format.blockCapacity));
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Window window : windows) {
+            window.index = -1;
+            window.bytes = null;
+            window.floats = null;
+        }
+        file.close();
+    }
+
+    private int position(Window window, long block) {
+        return (int) ((block - window.index * blocksPerWindow) * format.blockBytes);
+    }
+
+    // Finds the window holding the block, mapping it over the least recently used one if needed
+    private Window window(long block) {
+        long index = block / blocksPerWindow;
+        Window oldest = windows[0];
+        for (Window window : windows) {
+            if (window.index == index && block < window.index * blocksPerWindow + window.blocks) {
+                window.lastUse = ++useCounter;
+                return window;
+            }
+            if (window.lastUse < oldest.lastUse) {
+                oldest = window;
+            }
+        }
+
+        long first = index * blocksPerWindow;
+        long blocks = Math.min(blocksPerWindow, format.blockCount(sampleCount) - first);
+        if (blocks <= 0) {
+            throw new IndexOutOfBoundsException("Block " + block + " is past the last sample");
+        }
+        try {
+            oldest.bytes = channel.map(FileChannel.MapMode.READ_ONLY, format.blockOffset(first),
+                    blocks * format.blockBytes).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not map the series file", e);
+        }
+        oldest.floats = oldest.bytes.asFloatBuffer();
+        oldest.index = index;
+        oldest.blocks = blocks;
+        oldest.lastUse = ++useCounter;
+        return oldest;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("The series file is truncated");
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Appends samples to a series file for {@link MappedSeriesSource}. Samples are written straight
+ * into mapped blocks, so an append is a bulk copy per column with no system call, and the file
+ * grows a window of blocks at a time.
+ * <p>
+ * Appended samples become visible to readers on {@link #commit()}, which publishes the new sample
+ * count. {@link #sync()} also forces them to the storage device. A window of blocks is forced
+ * when appending moves past it, since a mapping that is let go can't be forced later. Not
+ * thread-safe, use one writer per file.
+ */
+public final class MappedSeriesWriter implements Closeable {
+
+    public static final int DEFAULT_BLOCK_CAPACITY = 4096;
+
+    // Bytes of whole blocks mapped and added to the file at once
+    private static final long WINDOW_BYTES = 1L << 20;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final SeriesFile format;
+    private final MappedByteBuffer header;
+    private final long blocksPerWindow;
+    private long sampleCount;
+    // The window being appended to, starting at block windowFirst
+    private long windowFirst = -1;
+    private MappedByteBuffer window;
+    private FloatBuffer windowFloats;
+    private LongBuffer windowLongs;
+
+    private MappedSeriesWriter(RandomAccessFile file, SeriesFile format, boolean create)
+            throws IOException {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.format = format;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, SeriesFile.HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (create) {
+            format.write(header, 0);
+        }
+        sampleCount = header.getLong(SeriesFile.SAMPLE_COUNT_OFFSET);
+        blocksPerWindow = Math.max(1, WINDOW_BYTES / format.blockBytes);
+    }
+
+    /**
+     * Creates a new, empty series file, replacing any file at the path.
+     *
+     * @param blockCapacity Samples per block, e.g. {@link #DEFAULT_BLOCK_CAPACITY}.
+     * @param timestamps    Whether every sample carries a timestamp.
+     */
+    public static MappedSeriesWriter create(File path, int seriesCount, int blockCapacity,
+                                            boolean timestamps) throws IOException {
+        SeriesFile format = new SeriesFile(seriesCount, blockCapacity, timestamps);
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            file.setLength(0);
+            return new MappedSeriesWriter(file, format, true);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing series file to append after its last committed sample.
+     */
+    public static MappedSeriesWriter open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            ByteBuffer header = ByteBuffer.allocate(SeriesFile.HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (file.getChannel().read(header, header.position()) < 0) {
+                    throw new IOException("The series file is truncated");
+                }
+            }
+            return new MappedSeriesWriter(file, SeriesFile.read(header), false);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends one sample.
+     *
+     * @param timestamp Ignored when the file has no timestamps.
+     * @param values    One value per series.
+     */
+    public void append(long timestamp, float[] values) throws IOException {
+        int sample = prepare();
+        int position = blockPosition();
+        if (format.timestamps) {
+            window.putLong(position + format.timestampOffset(sample), timestamp);
+        }
+        for (int s = 0; s < format.seriesCount; s++) {
+            window.putFloat(position + format.valueOffset(s, sample), values[s]);
+        }
+        sampleCount++;
+    }
+
+    /**
+     * Appends count samples, column by column.
+     *
+     * @param timestamps One per sample, or null when the file has no timestamps.
+     * @param values     Row-major, values[s * count + i] is series s of sample i.
+     */
+    public void append(long[] timestamps, float[] values, int count) throws IOException {
+        if (values.length < format.seriesCount * count) {
+            throw new IllegalArgumentException("values.length " + values.length + " is less than "
+                    + format.seriesCount + " series times " + count + " samples");
+        }
+        int done = 0;
+        while (done < count) {
+            int sample = prepare();
+            int position = blockPosition();
+            int n = Math.min(count - done, format.blockCapacity - sample);
+            if (format.timestamps) {
+                windowLongs.position((position + format.timestampOffset(sample)) / 8);
+                windowLongs.put(timestamps, done, n);
+            }
+            for (int s = 0; s < format.seriesCount; s++) {
+                windowFloats.position((position + format.valueOffset(s, sample)) / 4);
+                windowFloats.put(values, s * count + done, n);
+            }
+            sampleCount += n;
+            done += n;
+        }
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Makes the samples appended so far visible to readers.
+     */
+    public void commit() {
+        header.putLong(SeriesFile.SAMPLE_COUNT_OFFSET, sampleCount);
+    }
+
+    /**
+     * Commits and writes everything through to the storage device.
+     */
+    public void sync() throws IOException {
+        // The samples reach the device before the count that makes them valid. Forcing the
+        // channel isn't enough, it needn't flush what was written through a mapping.
+        if (window != null) {
+            window.force();
+        }
+        commit();
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            window = null;
+            windowFloats = null;
+            windowLongs = null;
+            file.close();
+        }
+    }
+
+    // Maps the window the next sample goes to, and returns its index within its block
+    private int prepare() throws IOException {
+        long block = sampleCount / format.blockCapacity;
+        if (window == null || block >= windowFirst + blocksPerWindow) {
+            if (window != null) {
+                window.force();
+            }
+            windowFirst = block;
+            // Mapping past the end of the file grows it
+            window = channel.map(FileChannel.MapMode.READ_WRITE, format.blockOffset(block),
+                    blocksPerWindow * format.blockBytes);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowFloats = window.asFloatBuffer();
+            windowLongs = window.asLongBuffer();
+        }
+        return (int) (sampleCount % format.blockCapacity);
+    }
+
+    // Offset of the current block within the window
+    private int blockPosition() {
+        return (int) ((sampleCount / format.blockCapacity - windowFirst) * format.blockBytes);
+    }
+}
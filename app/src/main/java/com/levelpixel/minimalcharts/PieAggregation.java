@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps the largest slices of a pie and folds the rest into a single "Other" slice, so the draw
+ * cost is bounded no matter how many categories come in.
+ * <p>
+ * The largest slices are picked with a size-K min-heap in O(n log K) rather than a full sort.
+ */
+public final class PieAggregation {
+
+    private final ArrayList<PieHelper> pies;
+    private final ArrayList<PieHelper> folded;
+    private final int otherIndex;
+
+    PieAggregation(ArrayList<PieHelper> pies, ArrayList<PieHelper> folded, int otherIndex) {
+        this.pies = pies;
+        this.folded = folded;
+        this.otherIndex = otherIndex;
+    }
+
+    /**
+     * @param helpers        The slices to aggregate, not modified.
+     * @param topK           How many of the largest slices to keep, 0 for no limit.
+     * @param minSweepDegree Slices narrower than this are folded too, 0 to keep them.
+     * @param otherTitle     Title of the "Other" slice.
+     * @param otherColor     Color of the "Other" slice, 0 for the default palette.
+     */
+    public static PieAggregation aggregate(ArrayList<PieHelper> helpers, int topK,
+                                           float minSweepDegree, String otherTitle,
+                                           int otherColor) {
+        int n = helpers.size();
+        boolean[] keep = new boolean[n];
+        if (topK > 0 && topK < n) {
+            int[] heap = selectLargest(helpers, topK);
+            for (int index : heap) {
+                keep[index] = true;
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                keep[i] = true;
+            }
+        }
+
+        ArrayList<PieHelper> pies = new ArrayList<>();
+        ArrayList<PieHelper> folded = new ArrayList<>();
+        float otherSweep = 0;
+        for (int i = 0; i < n; i++) {
+            PieHelper pie = helpers.get(i);
+            if (keep[i] && pie.getSweep() >= minSweepDegree) {
+                pies.add(pie);
+            } else {
+                folded.add(pie);
+                otherSweep += pie.getSweep();
+            }
+        }
+
+        int otherIndex = PieView.NO_SELECTED_INDEX;
+        if (!folded.isEmpty()) {
+            otherIndex = pies.size();
+            pies.add(new PieHelper(otherSweep * 100 / 360, otherTitle, otherColor));
+        }
+        return new PieAggregation(pies, folded, otherIndex);
+    }
+
+    // Indices of the k widest slices, kept in a min-heap so the narrowest kept one is on top
+    private static int[] selectLargest(ArrayList<PieHelper> helpers, int k) {
+        int[] heap = new int[k];
+        float[] keys = new float[k];
+        int size = 0;
+        for (int i = 0; i < helpers.size(); i++) {
+            float sweep = helpers.get(i).getSweep();
+            if (size < k) {
+                heap[size] = i;
+                keys[size] = sweep;
+                siftUp(heap, keys, size++);
+            } else if (sweep > keys[0]) {
+                heap[0] = i;
+                keys[0] = sweep;
+                siftDown(heap, keys, size);
+            }
+        }
+        return heap;
+    }
+
+    private static void siftUp(int[] heap, float[] keys, int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[parent] <= keys[position]) return;
+            swap(heap, keys, parent, position);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, float[] keys, int size) {
+        int position = 0;
+        while (true) {
+            int smallest = position;
+            int left = position * 2 + 1;
+            int right = left + 1;
+            if (left < size && keys[left] < keys[smallest]) smallest = left;
+            if (right < size && keys[right] < keys[smallest]) smallest = right;
+            if (smallest == position) return;
+            swap(heap, keys, smallest, position);
+            position = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, float[] keys, int a, int b) {
+        int index = heap[a];
+        heap[a] = heap[b];
+        heap[b] = index;
+        float key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+    }
+
+    /**
+     * @return The kept slices in their original order, followed by "Other" if anything was folded.
+     */
+    public ArrayList<PieHelper> getPies() {
+        return pies;
+    }
+
+    /**
+     * @return The slices folded into "Other", in their original order.
+     */
+    public ArrayList<PieHelper> getFoldedPies() {
+        return folded;
+    }
+
+    /**
+     * @return Index of "Other" in {@link #getPies()}, or {@link PieView#NO_SELECTED_INDEX}.
+     */
+    public int getOtherIndex() {
+        return otherIndex;
+    }
+}
@@ -12,6 +12,7 @@
 
 package com.levelpixel.minimalcharts;
 
+import com.levelpixel.minimalcharts.core.Motion;
 
 public class PieHelper {
 
@@ -84,11 +85,25 @@ public class PieHelper {
     }
 
     void update() {
-        this.startDegree = updateSelf(startDegree, targetStartDegree, velocity);
-        this.endDegree = updateSelf(endDegree, targetEndDegree, velocity);
+        this.startDegree = Motion.step(startDegree, targetStartDegree, velocity);
+        this.endDegree = Motion.step(endDegree, targetEndDegree, velocity);
         this.sweepDegree = endDegree - startDegree;
     }
 
+    void snap() {
+        this.startDegree = targetStartDegree;
+        this.endDegree = targetEndDegree;
+        this.sweepDegree = endDegree - startDegree;
+    }
+
+    float getTargetStartDegree() {
+        return targetStartDegree;
+    }
+
+    float getTargetEndDegree() {
+        return targetEndDegree;
+    }
+
     String getPercentStr() {
         float percent = sweepDegree / 360 * 100;
         return (int) percent + "%";
@@ -114,15 +129,4 @@ public class PieHelper {
         return endDegree;
     }
 
-    private float updateSelf(float origin, float target, int velocity) {
-        if (origin < target) {
-            origin += velocity;
-        } else if (origin > target) {
-            origin -= velocity;
-        }
-        if (Math.abs(target - origin) < velocity) {
-            origin = target;
-        }
-        return origin;
-    }
 }
@@ -17,21 +17,30 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Point;
+import android.graphics.Rect;
 import android.graphics.RectF;
+import android.os.Parcelable;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
 import android.view.View;
 
+import com.levelpixel.minimalcharts.core.FastTrig;
+import com.levelpixel.minimalcharts.core.KeyedDiff;
+import com.levelpixel.minimalcharts.core.PieHitTester;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 
 
 public class PieView extends View {
 
     public static final int NO_SELECTED_INDEX = -1;
-    private final int[] DEFAULT_COLOR_LIST = {
-            Color.parseColor("#33B5E5"), Color.parseColor("#AA66CC"), Color.parseColor("#99CC00"),
-            Color.parseColor("#FFBB33"), Color.parseColor("#FF4444")
-    };
+    /**
+     * Key of the "Other" slice in keyed updates, not to be used for any other slice.
+     */
+    public static final long OTHER_KEY = Long.MIN_VALUE;
+    private static final int OTHER_COLOR = Color.parseColor("#BDBDBD");
+    private final int[] DEFAULT_COLOR_LIST;
     private final Paint cirPaint;
     private final Paint whiteLinePaint;
     private final Point pieCenterPoint;
@@ -46,22 +55,57 @@ public class PieView extends View {
     private final ArrayList<PieHelper> pieHelperList;
     private int selectedIndex = NO_SELECTED_INDEX;
     private boolean showPercentLabel = true;
-    private final Runnable animator = new Runnable() {
+    private boolean dragToSelect;
+    // Top-K folding of small slices into "Other", disabled while both limits are 0
+    private int aggregateTopK;
+    private float aggregateMinSweep;
+    private String otherTitle = "Other";
+    private PieAggregation aggregation;
+    // Keys of the drawn slices from the last keyed update, null after any other update
+    private long[] pieKeys;
+    private final PieHitTester hitTester = new PieHitTester();
+    private ChartStateCache stateCache;
+    // Per-slice geometry, recomputed only when a slice's angles change. Boundary b is where
+    // slice b starts, boundary count + b where it ends.
+    private float[] boundaryAngle = new float[0];
+    private float[] boundaryX = new float[0];
+    private float[] boundaryY = new float[0];
+    private float[] selectedBoundaryX = new float[0];
+    private float[] selectedBoundaryY = new float[0];
+    private float[] labelStart = new float[0];
+    private float[] labelEnd = new float[0];
+    private float[] labelX = new float[0];
+    private float[] labelY = new float[0];
+    private String[] labelText = new String[0];
+    // Half size of a box that holds any percent label
+    private int labelExtent;
+    private final ChartMetrics metrics = new ChartMetrics(this);
+    private final ChartAnimator animator = new ChartAnimator(this, metrics, 10, new ChartAnimator.Stepper() {
         @Override
-        public void run() {
+        public boolean step(Rect dirty) {
             boolean needNewFrame = false;
             for (PieHelper pie : pieHelperList) {
+                float oldStart = pie.getStartDegree();
+                float oldEnd = pie.getEndDegree();
                 pie.update();
+                if (pie.getStartDegree() != oldStart || pie.getEndDegree() != oldEnd) {
+                    unionSlice(dirty, oldStart, oldEnd);
+                    unionSlice(dirty, pie.getStartDegree(), pie.getEndDegree());
+                }
                 if (!pie.isAtRest()) {
                     needNewFrame = true;
                 }
             }
-            if (needNewFrame) {
-                postDelayed(this, 10);
+            return needNewFrame;
+        }
+
+        @Override
+        public void snap() {
+            for (PieHelper pie : pieHelperList) {
+                pie.snap();
             }
-            invalidate();
         }
-    };
+    });
 
     public PieView(Context context) {
         this(context, null);
@@ -69,25 +113,36 @@ public class PieView extends View {
 
     public PieView(Context context, AttributeSet attrs) {
         super(context, attrs);
+        ChartStyle style = ChartStyle.obtain(context, attrs);
+        DEFAULT_COLOR_LIST = style.pieColors;
 
         pieHelperList = new ArrayList<PieHelper>();
-        cirPaint = new Paint();
-        cirPaint.setAntiAlias(true);
+        cirPaint = new Paint(style.dotPaint);
         cirPaint.setColor(Color.GRAY);
         whiteLinePaint = new Paint(cirPaint);
         whiteLinePaint.setColor(Color.WHITE);
         whiteLinePaint.setStrokeWidth(2f);
-        textPaint = new Paint();
-        textPaint.setAntiAlias(true);
-        textPaint.setColor(Color.WHITE);
-        textPaint.setTextSize(Utils.sp2px(getContext(), 13));
-        textPaint.setStrokeWidth(5);
-        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint = style.popupTextPaint;
         pieCenterPoint = new Point();
         cirRect = new RectF();
         cirSelectedRect = new RectF();
     }
 
+    /**
+     * @param listener Receives this view's timings and workload, or null to stop.
+     */
+    public void setChartMetricsListener(ChartMetricsListener listener) {
+        metrics.setListener(listener);
+    }
+
+    /**
+     * @param cache Keeps the saved state when it is too large for the instance state, or null to
+     *              drop such state.
+     */
+    public void setStateCache(ChartStateCache cache) {
+        stateCache = cache;
+    }
+
     public void showPercentLabel(boolean show) {
         showPercentLabel = show;
         postInvalidate();
@@ -97,7 +152,61 @@ public class PieView extends View {
         onPieClickListener = listener;
     }
 
+    /**
+     * When enabled the selection follows the finger while it moves over the pie, instead of
+     * toggling on tap.
+     */
+    public void setDragToSelect(boolean dragToSelect) {
+        this.dragToSelect = dragToSelect;
+    }
+
+    /**
+     * Folds small slices into one "Other" slice on every following {@link #setDate(ArrayList)}.
+     * Pass 0 for both limits to turn folding off.
+     *
+     * @param topK           How many of the largest slices to keep, 0 for no limit.
+     * @param minSweepDegree Slices narrower than this are folded too, 0 to keep them.
+     */
+    public void setAggregation(int topK, float minSweepDegree) {
+        aggregateTopK = topK;
+        aggregateMinSweep = minSweepDegree;
+    }
+
+    public void setOtherTitle(String title) {
+        otherTitle = title;
+    }
+
+    /**
+     * @return The slices folded into "Other" by the last {@link #setDate(ArrayList)}, for
+     * drill-down. Empty when nothing was folded.
+     */
+    public ArrayList<PieHelper> getFoldedPies() {
+        return aggregation != null ? aggregation.getFoldedPies() : new ArrayList<PieHelper>();
+    }
+
+    /**
+     * @return Index of the "Other" slice, or {@link #NO_SELECTED_INDEX} when nothing was folded.
+     */
+    public int getOtherIndex() {
+        return aggregation != null ? aggregation.getOtherIndex() : NO_SELECTED_INDEX;
+    }
+
     public void setDate(ArrayList<PieHelper> helperList) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyDate(helperList);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyDate(ArrayList<PieHelper> helperList) {
+        pieKeys = null;
+        showPies(aggregate(helperList));
+    }
+
+    // Grows the already aggregated slices from their start angles
+    private void showPies(ArrayList<PieHelper> helperList) {
         initPies(helperList);
         pieHelperList.clear();
         removeSelectedPie();
@@ -112,22 +221,107 @@ public class PieView extends View {
             pieHelperList.clear();
         }
 
-        removeCallbacks(animator);
-        post(animator);
+        animator.start();
 
         //        pieHelperList = helperList;
         //        postInvalidate();
     }
 
+    /**
+     * Like {@link #setDate(ArrayList)}, but slices are matched to the previous keyed update by key.
+     * Slices that kept their key sweep from their current angles to the new ones instead of
+     * growing again, new slices grow from their start. The selection follows its slice.
+     *
+     * @param keys Stable key of each slice, unique within one update. The "Other" slice uses
+     *             {@link #OTHER_KEY}.
+     */
+    public void setKeyedDate(long[] keys, ArrayList<PieHelper> helperList) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+        try {
+            applyKeyedDate(keys, helperList);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DATA, start);
+        }
+    }
+
+    private void applyKeyedDate(long[] keys, ArrayList<PieHelper> helperList) {
+        if (keys.length != helperList.size()) {
+            throw new IllegalArgumentException(
+                    "keys.length " + keys.length + " != helperList.size() " + helperList.size());
+        }
+        ArrayList<PieHelper> pies = aggregate(helperList);
+        long[] newKeys = aggregation != null ? aggregatedKeys(keys, helperList, pies) : keys.clone();
+        if (pieKeys == null) {
+            showPies(pies);
+            pieKeys = newKeys;
+            return;
+        }
+
+        initPies(pies);
+        KeyedDiff diff = KeyedDiff.compute(pieKeys, pieKeys.length, newKeys, newKeys.length);
+        ArrayList<PieHelper> previous = new ArrayList<>(pieHelperList);
+        pieHelperList.clear();
+        int newSelectedIndex = NO_SELECTED_INDEX;
+        for (int i = 0; i < pies.size(); i++) {
+            PieHelper target = pies.get(i);
+            int old = diff.getOldIndex(i);
+            if (old == KeyedDiff.INSERTED) {
+                pieHelperList.add(new PieHelper(target.getStartDegree(), target.getStartDegree(), target));
+            } else {
+                pieHelperList.add(previous.get(old).setTarget(target));
+                if (old == selectedIndex) newSelectedIndex = i;
+            }
+        }
+        pieKeys = newKeys;
+        if (newSelectedIndex == NO_SELECTED_INDEX) {
+            if (selectedIndex != NO_SELECTED_INDEX) removeSelectedPie();
+        } else if (newSelectedIndex != selectedIndex) {
+            selectedIndex = newSelectedIndex;
+            if (onPieClickListener != null) onPieClickListener.onPieClick(selectedIndex);
+        }
+
+        animator.start();
+    }
+
+    private ArrayList<PieHelper> aggregate(ArrayList<PieHelper> helperList) {
+        aggregation = null;
+        if (helperList != null && (aggregateTopK > 0 || aggregateMinSweep > 0)) {
+            aggregation = PieAggregation.aggregate(helperList, aggregateTopK, aggregateMinSweep,
+                    otherTitle, OTHER_COLOR);
+            helperList = aggregation.getPies();
+        }
+        return helperList;
+    }
+
+    // Kept slices come out of the aggregation in input order, followed by "Other"
+    private static long[] aggregatedKeys(long[] keys, ArrayList<PieHelper> helperList,
+                                         ArrayList<PieHelper> pies) {
+        long[] aggregated = new long[pies.size()];
+        int next = 0;
+        for (int i = 0; i < helperList.size() && next < pies.size(); i++) {
+            if (helperList.get(i) == pies.get(next)) {
+                aggregated[next++] = keys[i];
+            }
+        }
+        for (; next < pies.size(); next++) {
+            aggregated[next] = OTHER_KEY;
+        }
+        return aggregated;
+    }
+
     /**
      * Set startDegree and endDegree for each PieHelper
      */
     private void initPies(ArrayList<PieHelper> helperList) {
         float totalAngel = 270;
-        for (PieHelper pie : helperList) {
+        float[] sweeps = new float[helperList.size()];
+        for (int i = 0; i < sweeps.length; i++) {
+            PieHelper pie = helperList.get(i);
             pie.setDegree(totalAngel, totalAngel + pie.getSweep());
             totalAngel += pie.getSweep();
+            sweeps[i] = pie.getSweep();
         }
+        hitTester.setSlices(270, sweeps, sweeps.length);
     }
 
     public void selectedPie(int index) {
@@ -144,52 +338,142 @@ public class PieView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DRAW);
+        try {
+            drawPies(canvas);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DRAW, start);
+        }
+    }
+
+    private void drawPies(Canvas canvas) {
         if (pieHelperList.isEmpty()) {
             return;
         }
 
-        int index = 0;
-        for (PieHelper pieHelper : pieHelperList) {
-            boolean selected = (selectedIndex == index);
-            RectF rect = selected ? cirSelectedRect : cirRect;
+        int count = pieHelperList.size();
+        int rebuilt = updateGeometry(count);
+        for (int index = 0; index < count; index++) {
+            PieHelper pieHelper = pieHelperList.get(index);
+            RectF rect = (selectedIndex == index) ? cirSelectedRect : cirRect;
             if (pieHelper.isColorSetted()) {
                 cirPaint.setColor(pieHelper.getColor());
             } else {
                 cirPaint.setColor(DEFAULT_COLOR_LIST[index % 5]);
             }
             canvas.drawArc(rect, pieHelper.getStartDegree(), pieHelper.getSweep(), true, cirPaint);
-            drawPercentText(canvas, pieHelper);
+        }
 
-            drawLineBesideCir(canvas, pieHelper.getStartDegree(), selected);
-            drawLineBesideCir(canvas, pieHelper.getEndDegree(), selected);
-            index++;
+        if (showPercentLabel) {
+            for (int index = 0; index < count; index++) {
+                canvas.drawText(labelText[index], labelX[index], labelY[index], textPaint);
+            }
         }
+
+        // Neighbouring slices at rest share a boundary, draw it once. It is long when either
+        // slice next to it is selected. While slices grow or move their ends come apart from the
+        // next start and are drawn on their own.
+        for (int b = 0; b < count; b++) {
+            int previous = b > 0 ? b - 1 : count - 1;
+            boolean selected = selectedIndex == b
+                    || (selectedIndex == previous && sharesEnd(previous, count));
+            drawBoundary(canvas, b, selected);
+        }
+        for (int i = 0; i < count; i++) {
+            if (!sharesEnd(i, count)) {
+                drawBoundary(canvas, count + i, selectedIndex == i);
+            }
+        }
+
+        // Slices folded into "Other" are data that was not drawn
+        int total = count;
+        if (aggregation != null && aggregation.getOtherIndex() != NO_SELECTED_INDEX) {
+            total += aggregation.getFoldedPies().size() - 1;
+        }
+        metrics.pointsDrawn(count, total);
+        metrics.cacheAccess(count - rebuilt, rebuilt);
     }
 
-    private void drawLineBesideCir(Canvas canvas, float angel, boolean selectedCir) {
-        int sth2 = selectedCir ? mViewHeight / 2
-                : pieRadius; // Sorry I'm really don't know how to name the variable..
-        int sth = 1;                                       // And it's
-        if (angel % 360 > 180 && angel % 360 < 360) {
-            sth = -1;
+    // Whether the slice ends where the next one starts, a lap later for the last slice
+    private boolean sharesEnd(int i, int count) {
+        float next = i + 1 < count ? labelStart[i + 1] : labelStart[0] + 360;
+        return Math.abs(labelEnd[i] - next) < 0.01f;
+    }
+
+    private void drawBoundary(Canvas canvas, int b, boolean selected) {
+        canvas.drawLine(pieCenterPoint.x, pieCenterPoint.y,
+                selected ? selectedBoundaryX[b] : boundaryX[b],
+                selected ? selectedBoundaryY[b] : boundaryY[b], whiteLinePaint);
+    }
+
+    // Covers a slice with its boundaries and label. The selected radius is used whenever a slice
+    // is selected, since its neighbours' boundaries are drawn long too.
+    private void unionSlice(Rect dirty, float start, float end) {
+        RectF rect = selectedIndex == NO_SELECTED_INDEX ? cirRect : cirSelectedRect;
+        Utils.unionWedge(dirty, rect, start, end - start, whiteLinePaint.getStrokeWidth() + 1);
+        if (showPercentLabel) {
+            float angle = (start + end) / 2;
+            int x = (int) (mViewHeight / 2 + FastTrig.cos(angle) * pieRadius / 2);
+            int y = (int) (mViewHeight / 2 + FastTrig.sin(angle) * pieRadius / 2);
+            dirty.union(x - labelExtent, y - labelExtent, x + labelExtent, y + labelExtent);
         }
-        float lineToX = (float) (mViewHeight / 2 + Math.cos(Math.toRadians(-angel)) * sth2);
-        float lineToY =
-                (float) (mViewHeight / 2 + sth * Math.abs(Math.sin(Math.toRadians(-angel))) * sth2);
-        canvas.drawLine(pieCenterPoint.x, pieCenterPoint.y, lineToX, lineToY, whiteLinePaint);
     }
 
-    private void drawPercentText(Canvas canvas, PieHelper pieHelper) {
-        if (!showPercentLabel) return;
-        float angel = (pieHelper.getStartDegree() + pieHelper.getEndDegree()) / 2;
-        int sth = 1;
-        if (angel % 360 > 180 && angel % 360 < 360) {
-            sth = -1;
+    // Refresh the cached boundary and label positions of the slices whose angles moved, returns
+    // how many slices that was
+    private int updateGeometry(int count) {
+        ensureGeometryCapacity(count);
+        int rebuilt = 0;
+        for (int i = 0; i < count; i++) {
+            PieHelper pie = pieHelperList.get(i);
+            updateBoundary(i, pie.getStartDegree());
+            updateBoundary(count + i, pie.getEndDegree());
+            if (pie.getStartDegree() != labelStart[i] || pie.getEndDegree() != labelEnd[i]) {
+                labelStart[i] = pie.getStartDegree();
+                labelEnd[i] = pie.getEndDegree();
+                float angle = (labelStart[i] + labelEnd[i]) / 2;
+                labelX[i] = mViewHeight / 2 + FastTrig.cos(angle) * pieRadius / 2;
+                labelY[i] = mViewHeight / 2 + FastTrig.sin(angle) * pieRadius / 2;
+                labelText[i] = pie.getPercentStr();
+                rebuilt++;
+            }
         }
-        float x = (float) (mViewHeight / 2 + Math.cos(Math.toRadians(-angel)) * pieRadius / 2);
-        float y = (float) (mViewHeight / 2
-                + sth * Math.abs(Math.sin(Math.toRadians(-angel))) * pieRadius / 2);
-        canvas.drawText(pieHelper.getPercentStr(), x, y, textPaint);
+        return rebuilt;
+    }
+
+    private void updateBoundary(int b, float angle) {
+        if (boundaryAngle[b] == angle) return;
+        boundaryAngle[b] = angle;
+        float cos = FastTrig.cos(angle);
+        float sin = FastTrig.sin(angle);
+        int center = mViewHeight / 2;
+        boundaryX[b] = center + cos * pieRadius;
+        boundaryY[b] = center + sin * pieRadius;
+        selectedBoundaryX[b] = center + cos * center;
+        selectedBoundaryY[b] = center + sin * center;
+    }
+
+    private void ensureGeometryCapacity(int count) {
+        if (labelText.length < count) {
+            labelStart = new float[count];
+            labelEnd = new float[count];
+            labelX = new float[count];
+            labelY = new float[count];
+            labelText = new String[count];
+            boundaryAngle = new float[2 * count];
+            boundaryX = new float[2 * count];
+            boundaryY = new float[2 * count];
+            selectedBoundaryX = new float[2 * count];
+            selectedBoundaryY = new float[2 * count];
+            invalidateGeometry();
+            labelExtent = (int) Math.ceil(Math.max(textPaint.measureText("100%"), textPaint.getTextSize()));
+        }
+    }
+
+    // Forces every slice to be recomputed on the next draw, e.g. after the size changed
+    private void invalidateGeometry() {
+        Arrays.fill(boundaryAngle, Float.NaN);
+        Arrays.fill(labelStart, Float.NaN);
     }
 
     private void drawText(Canvas canvas, PieHelper pieHelper) {
@@ -207,6 +491,20 @@ public class PieView extends View {
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        if (dragToSelect) {
+            int action = event.getActionMasked();
+            if (action == MotionEvent.ACTION_DOWN) {
+                getParent().requestDisallowInterceptTouchEvent(true);
+            }
+            if (action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_MOVE) {
+                int index = findPointAt((int) event.getX(), (int) event.getY());
+                if (index != selectedIndex) {
+                    selectedPie(index);
+                }
+            }
+            return true;
+        }
+
         if (event.getAction() == MotionEvent.ACTION_UP) {
             int clickedIndex = findPointAt((int) event.getX(), (int) event.getY());
             if (clickedIndex == selectedIndex) {
@@ -227,30 +525,144 @@ public class PieView extends View {
      * find pie index where point is
      */
     private int findPointAt(int x, int y) {
-        double degree = Math.atan2(x - pieCenterPoint.x, y - pieCenterPoint.y) * 180 / Math.PI;
-        degree = -(degree - 180) + 270;
-        int index = 0;
-        for (PieHelper pieHelper : pieHelperList) {
-            if (degree >= pieHelper.getStartDegree() && degree <= pieHelper.getEndDegree()) {
-                return index;
+        float dx = x - pieCenterPoint.x;
+        float dy = y - pieCenterPoint.y;
+        // The selected slice is drawn larger, so it reaches further out than the others
+        float selectedRadius = cirSelectedRect.width() / 2;
+        int index = hitTester.findSlice(dx, dy, 0, Math.max(pieRadius, selectedRadius));
+        if (index != selectedIndex && dx * dx + dy * dy > pieRadius * pieRadius) {
+            return NO_SELECTED_INDEX;
+        }
+        return index;
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        return ChartState.save(this, super.onSaveInstanceState(), saveSnapshot(), stateCache);
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof ChartState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        ChartState chartState = (ChartState) state;
+        super.onRestoreInstanceState(chartState.getSuperState());
+        Snapshot snapshot = chartState.getSnapshot(stateCache);
+        if (snapshot != null) {
+            restoreSnapshot(snapshot);
+        }
+    }
+
+    // The slices at their target angles after folding, the folded ones for drill-down, and the
+    // selection
+    private Snapshot saveSnapshot() {
+        if (pieHelperList.isEmpty()) return null;
+        Snapshot snapshot = new Snapshot();
+        snapshot.putInt(pieHelperList.size());
+        for (PieHelper pie : pieHelperList) {
+            snapshot.putFloat(pie.getTargetStartDegree());
+            snapshot.putFloat(pie.getTargetEndDegree());
+            snapshot.putString(pie.getTitle());
+            snapshot.putInt(pie.getColor());
+        }
+        snapshot.putLongs(pieKeys);
+        snapshot.putInt(selectedIndex);
+        snapshot.putBoolean(aggregation != null);
+        if (aggregation != null) {
+            snapshot.putInt(aggregation.getOtherIndex());
+            ArrayList<PieHelper> folded = aggregation.getFoldedPies();
+            snapshot.putInt(folded.size());
+            for (PieHelper pie : folded) {
+                snapshot.putFloat(pie.getSweep());
+                snapshot.putString(pie.getTitle());
+                snapshot.putInt(pie.getColor());
             }
-            index++;
         }
-        return NO_SELECTED_INDEX;
+        return snapshot;
+    }
+
+    // The slices come back at rest, their geometry is filled in on the first draw as usual
+    private void restoreSnapshot(Snapshot snapshot) {
+        animator.cancel();
+        int count = snapshot.getInt();
+        ArrayList<PieHelper> targets = new ArrayList<>(count);
+        float[] sweeps = new float[count];
+        pieHelperList.clear();
+        for (int i = 0; i < count; i++) {
+            float start = snapshot.getFloat();
+            float end = snapshot.getFloat();
+            PieHelper target = new PieHelper((end - start) * 100 / 360, snapshot.getString(),
+                    snapshot.getInt());
+            target.setDegree(start, end);
+            targets.add(target);
+            sweeps[i] = end - start;
+            pieHelperList.add(new PieHelper(start, end, target));
+        }
+        hitTester.setSlices(270, sweeps, count);
+        pieKeys = snapshot.getLongs();
+        selectedIndex = snapshot.getInt();
+        aggregation = null;
+        if (snapshot.getBoolean()) {
+            int otherIndex = snapshot.getInt();
+            int foldedCount = snapshot.getInt();
+            ArrayList<PieHelper> folded = new ArrayList<>(foldedCount);
+            for (int i = 0; i < foldedCount; i++) {
+                folded.add(new PieHelper(snapshot.getFloat() * 100 / 360, snapshot.getString(),
+                        snapshot.getInt()));
+            }
+            aggregation = new PieAggregation(targets, folded, otherIndex);
+        }
+        invalidate();
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        animator.onVisibilityChanged();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        animator.onDetachedFromWindow();
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // Also called from the View constructor, before the animator exists
+        if (animator != null) {
+            animator.onVisibilityChanged();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        animator.onVisibilityChanged();
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        mViewWidth = measureWidth(widthMeasureSpec);
-        mViewHeight = measureHeight(heightMeasureSpec);
-        margin = mViewWidth / 16;
-        pieRadius = (mViewWidth) / 2 - margin;
-        pieCenterPoint.set(pieRadius + margin, pieRadius + margin);
-        cirRect.set(pieCenterPoint.x - pieRadius, pieCenterPoint.y - pieRadius,
-                pieCenterPoint.x + pieRadius, pieCenterPoint.y + pieRadius);
-        cirSelectedRect.set(2, //minor margin for bigger circle
-                2, mViewWidth - 2, mViewHeight - 2);
-        setMeasuredDimension(mViewWidth, mViewHeight);
+        long start = metrics.begin(ChartMetricsListener.PHASE_LAYOUT);
+        try {
+            mViewWidth = measureWidth(widthMeasureSpec);
+            mViewHeight = measureHeight(heightMeasureSpec);
+            margin = mViewWidth / 16;
+            pieRadius = (mViewWidth) / 2 - margin;
+            pieCenterPoint.set(pieRadius + margin, pieRadius + margin);
+            cirRect.set(pieCenterPoint.x - pieRadius, pieCenterPoint.y - pieRadius,
+                    pieCenterPoint.x + pieRadius, pieCenterPoint.y + pieRadius);
+            cirSelectedRect.set(2, //minor margin for bigger circle
+                    2, mViewWidth - 2, mViewHeight - 2);
+            invalidateGeometry();
+            labelExtent = (int) Math.ceil(Math.max(textPaint.measureText("100%"), textPaint.getTextSize()));
+            setMeasuredDimension(mViewWidth, mViewHeight);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_LAYOUT, start);
+        }
     }
 
     private int measureWidth(int measureSpec) {
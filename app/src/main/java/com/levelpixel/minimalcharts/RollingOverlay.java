@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import com.levelpixel.minimalcharts.core.RollingExtremes;
+import com.levelpixel.minimalcharts.core.RollingMoments;
+import com.levelpixel.minimalcharts.core.RollingQuantile;
+
+import java.util.Arrays;
+
+/**
+ * A rolling statistic of one series of a {@link LineView}, drawn as a line or as a shaded band
+ * behind the data. Every point gets the statistic of the window of points ending at it, the
+ * first points of a series use the shorter window available.
+ * <p>
+ * The statistic is updated in O(1) amortized per point as points are added, and the result of
+ * every point is kept, a float per point for a line and two for a band. Add an overlay to one
+ * view only.
+ */
+public final class RollingOverlay {
+
+    private static final int MEAN = 0;
+    private static final int DEVIATION_BAND = 1;
+    private static final int MIN_MAX_BAND = 2;
+    private static final int QUANTILE = 3;
+    private static final int QUANTILE_BAND = 4;
+
+    private final int type;
+    private final int series;
+    private final float deviations;
+    private RollingMoments moments;
+    private RollingExtremes extremes;
+    private RollingQuantile high;
+    private RollingQuantile low;
+    private int color;
+    private boolean hasColor;
+    // Drawn values of every point added so far, lows stays empty for a line
+    private float[] highs = new float[0];
+    private float[] lows = new float[0];
+    private int count;
+
+    private RollingOverlay(int type, int series, float deviations) {
+        this.type = type;
+        this.series = series;
+        this.deviations = deviations;
+    }
+
+    /**
+     * Rolling mean, as a line.
+     */
+    public static RollingOverlay mean(int series, int window) {
+        RollingOverlay overlay = new RollingOverlay(MEAN, series, 0);
+        overlay.moments = new RollingMoments(window);
+        return overlay;
+    }
+
+    /**
+     * Band around the rolling mean, e.g. 2 deviations for a Bollinger band.
+     *
+     * @param deviations Sample standard deviations the band reaches on each side of the mean.
+     */
+    public static RollingOverlay deviationBand(int series, int window, float deviations) {
+        RollingOverlay overlay = new RollingOverlay(DEVIATION_BAND, series, deviations);
+        overlay.moments = new RollingMoments(window);
+        return overlay;
+    }
+
+    /**
+     * Band between the rolling minimum and maximum.
+     */
+    public static RollingOverlay minMaxBand(int series, int window) {
+        RollingOverlay overlay = new RollingOverlay(MIN_MAX_BAND, series, 0);
+        overlay.extremes = new RollingExtremes(window);
+        return overlay;
+    }
+
+    /**
+     * Approximate rolling quantile, as a line, see {@link RollingQuantile} for how approximate.
+     *
+     * @param window   At least 2, estimates are only close for windows of tens of points or more.
+     * @param quantile In [0, 1], e.g. 0.5 for the rolling median.
+     */
+    public static RollingOverlay quantile(int series, int window, float quantile) {
+        RollingOverlay overlay = new RollingOverlay(QUANTILE, series, 0);
+        overlay.high = new RollingQuantile(window, quantile);
+        return overlay;
+    }
+
+    /**
+     * Band between two approximate rolling quantiles, e.g. 0.05 and 0.95.
+     *
+     * @param window At least 2, estimates are only close for windows of tens of points or more.
+     */
+    public static RollingOverlay quantileBand(int series, int window, float lowQuantile,
+                                              float highQuantile) {
+        RollingOverlay overlay = new RollingOverlay(QUANTILE_BAND, series, 0);
+        overlay.low = new RollingQuantile(window, lowQuantile);
+        overlay.high = new RollingQuantile(window, highQuantile);
+        return overlay;
+    }
+
+    /**
+     * @param color Drawn as is, bands usually want a translucent one. By default the series' line
+     *              color is used, at a quarter of its opacity for a band.
+     */
+    public void setColor(int color) {
+        this.color = color;
+        hasColor = true;
+    }
+
+    public int getSeries() {
+        return series;
+    }
+
+    /**
+     * @return Points the statistic has been computed for.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    boolean isBand() {
+        return type != MEAN && type != QUANTILE;
+    }
+
+    boolean hasColor() {
+        return hasColor;
+    }
+
+    int getColor() {
+        return color;
+    }
+
+    /**
+     * @return The value of a line, or the top of a band.
+     */
+    float getHigh(int index) {
+        return highs[index];
+    }
+
+    float getLow(int index) {
+        return lows[index];
+    }
+
+    void reset() {
+        count = 0;
+        if (moments != null) moments.reset();
+        if (extremes != null) extremes.reset();
+        if (high != null) high.reset();
+        if (low != null) low.reset();
+    }
+
+    void add(float value) {
+        if (count == highs.length) {
+            int capacity = Math.max(16, count + (count >> 1));
+            highs = Arrays.copyOf(highs, capacity);
+            if (isBand()) {
+                lows = Arrays.copyOf(lows, capacity);
+            }
+        }
+        switch (type) {
+            case MEAN:
+                moments.add(value);
+                highs[count] = (float) moments.getMean();
+                break;
+            case DEVIATION_BAND:
+                moments.add(value);
+                double spread = deviations * moments.getStandardDeviation();
+                highs[count] = (float) (moments.getMean() + spread);
+                lows[count] = (float) (moments.getMean() - spread);
+                break;
+            case MIN_MAX_BAND:
+                extremes.add(value);
+                highs[count] = extremes.getMax();
+                lows[count] = extremes.getMin();
+                break;
+            case QUANTILE:
+                high.add(value);
+                highs[count] = (float) high.get();
+                break;
+            default:
+                high.add(value);
+                low.add(value);
+                highs[count] = (float) high.get();
+                lows[count] = (float) low.get();
+                break;
+        }
+        count++;
+    }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.drawable.NinePatchDrawable;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.levelpixel.minimalcharts.core.DensityGrid;
+import com.levelpixel.minimalcharts.core.Histogram;
+
+/**
+ * Scatter chart for millions of (x, y) points, drawn as a density raster: the points are counted
+ * per pixel and every pixel is colored along a ramp by how many points fell into it.
+ * <p>
+ * Counting and coloring run off the UI thread, see {@link DensityGrid}, once per data, range or
+ * size change, and their result is kept in a bitmap. Drawing a frame only draws that bitmap,
+ * however many points there are. A tap selects the busiest pixel near it, looked up in the kept
+ * counts.
+ */
+public class ScatterView extends View {
+
+    private static final int GRID_LINES = 4;
+    // Counts up to this are colored from a table, which covers nearly every pixel
+    private static final int COLOR_TABLE_SIZE = 1024;
+    // Of the popup drawable, as in LineView
+    private static final int POPUP_TRIANGLE_HEIGHT = 12;
+
+    private final ChartStyle style;
+    private final ChartMetrics metrics = new ChartMetrics(this);
+    private final Paint selectionPaint;
+    private final Paint popupTextPaint;
+    private final Rect popupRect = new Rect();
+    private final Rect textRect = new Rect();
+    private NinePatchDrawable popup;
+    // The points, owned by the app and only read
+    private float[] xs;
+    private float[] ys;
+    private int count;
+    private boolean fixedRange;
+    private float minX;
+    private float maxX;
+    private float minY;
+    private float maxY;
+    private boolean logScale = true;
+    private ColorRamp ramp;
+    // Incremented for every raster request so that stale results are dropped
+    private int rasterGeneration;
+    // A recount is on its way, the kept counts are not to be colored again meanwhile
+    private boolean countsPending;
+    // The last raster, with the counts and data range it was made from
+    private DensityGrid grid;
+    private Bitmap raster;
+    private final float[] rasterRange = new float[4];
+    private final RectF plotRect = new RectF();
+    private int selectedCell = -1;
+    private OnScatterClickListener onScatterClickListener;
+
+    public ScatterView(Context context) {
+        this(context, null);
+    }
+
+    public ScatterView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        style = ChartStyle.obtain(context, attrs);
+        int low = style.lineColors[1];
+        ramp = new ColorRamp((low & 0x00FFFFFF) | 0x60000000, low, style.lineColors[0]);
+        popupTextPaint = style.popupTextPaint;
+        selectionPaint = new Paint(style.linePaint);
+        selectionPaint.setStyle(Paint.Style.STROKE);
+        selectionPaint.setColor(style.lineColors[0]);
+    }
+
+    /**
+     * Counting and coloring are reported as {@link ChartMetricsListener#PHASE_DATA}, on a pool
+     * thread. Every draw reports the raster as one cache hit.
+     *
+     * @param listener Receives this view's timings and workload, or null to stop.
+     */
+    public void setChartMetricsListener(ChartMetricsListener listener) {
+        metrics.setListener(listener);
+    }
+
+    /**
+     * Told about the pixel a tap selected.
+     */
+    public void setOnScatterClickListener(OnScatterClickListener listener) {
+        onScatterClickListener = listener;
+    }
+
+    /**
+     * The arrays are read off the UI thread until the raster is done, and again whenever the
+     * range, colors or size change, so they must not be modified while shown.
+     *
+     * @param xs X of each point.
+     * @param ys Y of each point.
+     */
+    public void setData(float[] xs, float[] ys) {
+        setData(xs, ys, Math.min(xs.length, ys.length));
+    }
+
+    /**
+     * @param count Points to show, xs[0, count) and ys[0, count).
+     */
+    public void setData(float[] xs, float[] ys, int count) {
+        if (count < 0 || count > xs.length || count > ys.length) {
+            throw new IllegalArgumentException("count " + count + " for " + xs.length + " xs and "
+                    + ys.length + " ys");
+        }
+        this.xs = xs;
+        this.ys = ys;
+        this.count = count;
+        requestRaster(true);
+    }
+
+    /**
+     * Fixes the data range shown across the view, points outside it are left out.
+     */
+    public void setRange(float minX, float maxX, float minY, float maxY) {
+        fixedRange = true;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        requestRaster(true);
+    }
+
+    /**
+     * Fits the range to the points, the default.
+     */
+    public void setAutoRange() {
+        fixedRange = false;
+        requestRaster(true);
+    }
+
+    /**
+     * @param logScale Whether colors follow the logarithm of the count, the default, so sparse
+     *                 pixels stay visible next to dense ones, or the count itself.
+     */
+    public void setLogScale(boolean logScale) {
+        this.logScale = logScale;
+        requestRaster(false);
+    }
+
+    /**
+     * @param colors Colors from the sparsest to the densest pixel, at least two. Pixels without
+     *               points are left transparent.
+     */
+    public void setColors(int... colors) {
+        ramp = new ColorRamp(colors);
+        requestRaster(false);
+    }
+
+    // Counts again only when asked to or when the size changed, otherwise only colors again
+    private void requestRaster(boolean recount) {
+        final int generation = ++rasterGeneration;
+        selectedCell = -1;
+        final int width = (int) plotRect.width();
+        final int height = (int) plotRect.height();
+        if (xs == null || width <= 0 || height <= 0) {
+            countsPending = false;
+            grid = null;
+            raster = null;
+            invalidate();
+            return;
+        }
+        final float[] xs = this.xs;
+        final float[] ys = this.ys;
+        final int count = this.count;
+        final boolean fixedRange = this.fixedRange;
+        final float[] range = {minX, maxX, minY, maxY};
+        final boolean logScale = this.logScale;
+        final ColorRamp ramp = this.ramp;
+        final DensityGrid counted = !recount && !countsPending && grid != null
+                && grid.getWidth() == width && grid.getHeight() == height ? grid : null;
+        countsPending = counted == null;
+        if (counted != null) {
+            System.arraycopy(rasterRange, 0, range, 0, range.length);
+        }
+        Histogram.pool().execute(new Runnable() {
+            @Override
+            public void run() {
+                long start = metrics.begin(ChartMetricsListener.PHASE_DATA);
+                try {
+                    DensityGrid result = counted;
+                    if (result == null) {
+                        if (!fixedRange) {
+                            DensityGrid.extent(xs, ys, count, range);
+                        }
+                        // No finite point
+                        if (!(range[0] <= range[1] && range[2] <= range[3])) {
+                            postRaster(generation, null, null, range);
+                            return;
+                        }
+                        result = DensityGrid.compute(xs, ys, count, range[0], range[1], range[2],
+                                range[3], width, height);
+                    }
+                    postRaster(generation, result, colorize(result, ramp, logScale), range);
+                } finally {
+                    metrics.end(ChartMetricsListener.PHASE_DATA, start);
+                }
+            }
+        });
+    }
+
+    // Called on a pool thread, hands the result over to the UI thread
+    private void postRaster(final int generation, final DensityGrid result, final Bitmap bitmap,
+                            final float[] range) {
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != rasterGeneration) return;
+
+                countsPending = false;
+                grid = result;
+                raster = bitmap;
+                System.arraycopy(range, 0, rasterRange, 0, rasterRange.length);
+                invalidate();
+            }
+        });
+    }
+
+    private static Bitmap colorize(DensityGrid grid, ColorRamp ramp, boolean logScale) {
+        int max = grid.getMaxCount();
+        int[] table = new int[Math.min(max, COLOR_TABLE_SIZE - 1) + 1];
+        for (int count = 1; count < table.length; count++) {
+            table[count] = colorOf(count, max, ramp, logScale);
+        }
+        int[] pixels = new int[grid.getWidth() * grid.getHeight()];
+        for (int cell = 0; cell < pixels.length; cell++) {
+            int count = grid.getCount(cell);
+            pixels[cell] = count < table.length ? table[count]
+                    : colorOf(count, max, ramp, logScale);
+        }
+        return Bitmap.createBitmap(pixels, grid.getWidth(), grid.getHeight(),
+                Bitmap.Config.ARGB_8888);
+    }
+
+    private static int colorOf(int count, int max, ColorRamp ramp, boolean logScale) {
+        if (max <= 1) return ramp.colorAt(1);
+        float fraction = logScale ? (float) (Math.log(count) / Math.log(max))
+                : count / (float) max;
+        return ramp.colorAt(fraction);
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        plotRect.set(getPaddingLeft(), getPaddingTop(), w - getPaddingRight(),
+                h - getPaddingBottom());
+        requestRaster(true);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        long start = metrics.begin(ChartMetricsListener.PHASE_DRAW);
+        try {
+            drawGrid(canvas);
+            if (raster != null) {
+                // Stretched until a raster of the new size is ready
+                canvas.drawBitmap(raster, null, plotRect, null);
+                metrics.cacheAccess(1, 0);
+            }
+            if (selectedCell >= 0 && grid != null) {
+                drawSelection(canvas);
+            }
+            metrics.pointsDrawn(raster != null ? count : 0, count);
+        } finally {
+            metrics.end(ChartMetricsListener.PHASE_DRAW, start);
+        }
+    }
+
+    private void drawGrid(Canvas canvas) {
+        Paint paint = style.gridPaint;
+        for (int i = 0; i <= GRID_LINES; i++) {
+            float x = plotRect.left + (plotRect.width() - 1) * i / GRID_LINES;
+            float y = plotRect.top + (plotRect.height() - 1) * i / GRID_LINES;
+            canvas.drawLine(x, plotRect.top, x, plotRect.bottom, paint);
+            canvas.drawLine(plotRect.left, y, plotRect.right, y, paint);
+        }
+    }
+
+    // A ring around the selected pixel and its count in a popup above it
+    private void drawSelection(Canvas canvas) {
+        float cellWidth = plotRect.width() / grid.getWidth();
+        float cellHeight = plotRect.height() / grid.getHeight();
+        int x = (int) (plotRect.left + (selectedCell % grid.getWidth() + 0.5f) * cellWidth);
+        int y = (int) (plotRect.top + (selectedCell / grid.getWidth() + 0.5f) * cellHeight);
+        canvas.drawCircle(x, y, style.dotOuterRadius, selectionPaint);
+
+        String text = String.valueOf(grid.getCount(selectedCell));
+        popupTextPaint.getTextBounds(text, 0, text.length(), textRect);
+        y -= style.popupDotOffset;
+        int sidePadding = text.length() == 1 ? style.popupSidePaddingSingular
+                : style.popupSidePadding;
+        popupRect.set(x - textRect.width() / 2 - sidePadding, y - textRect.height()
+                        - POPUP_TRIANGLE_HEIGHT - style.popupTopPadding * 2 - style.popupBottomMargin,
+                x + textRect.width() / 2 + sidePadding,
+                y + style.popupTopPadding - style.popupBottomMargin + style.popupBottomPadding);
+        if (popup == null) {
+            popup = (NinePatchDrawable) getResources().getDrawable(R.drawable.popup);
+            popup.setColorFilter(new PorterDuffColorFilter(style.lineColors[0],
+                    PorterDuff.Mode.MULTIPLY));
+        }
+        popup.setBounds(popupRect);
+        popup.draw(canvas);
+        canvas.drawText(text, x, y - POPUP_TRIANGLE_HEIGHT - style.popupBottomMargin,
+                popupTextPaint);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (grid == null) {
+            return super.onTouchEvent(event);
+        }
+        if (event.getAction() == MotionEvent.ACTION_UP) {
+            int cell = findCellAt(event.getX(), event.getY(), style.dotOuterRadius * 2);
+            selectedCell = cell;
+            invalidate();
+            if (cell >= 0 && onScatterClickListener != null) {
+                int column = cell % grid.getWidth();
+                int row = cell / grid.getWidth();
+                float x = rasterRange[0]
+                        + (column + 0.5f) / grid.getWidth() * (rasterRange[1] - rasterRange[0]);
+                float y = rasterRange[3]
+                        - (row + 0.5f) / grid.getHeight() * (rasterRange[3] - rasterRange[2]);
+                onScatterClickListener.onScatterClick(grid.getCount(cell), x, y);
+            }
+        }
+        return true;
+    }
+
+    // The busiest cell within the radius of the touch, the nearest one among equals, or -1
+    private int findCellAt(float touchX, float touchY, int radius) {
+        int width = grid.getWidth();
+        int height = grid.getHeight();
+        int column = (int) Math.floor((touchX - plotRect.left) * width / plotRect.width());
+        int row = (int) Math.floor((touchY - plotRect.top) * height / plotRect.height());
+        int found = -1;
+        int foundCount = 0;
+        int foundDistance = Integer.MAX_VALUE;
+        for (int r = Math.max(0, row - radius); r <= Math.min(height - 1, row + radius); r++) {
+            for (int c = Math.max(0, column - radius); c <= Math.min(width - 1, column + radius); c++) {
+                int cellCount = grid.getCount(c, r);
+                int distance = (c - column) * (c - column) + (r - row) * (r - row);
+                if (cellCount == 0 || distance > radius * radius) continue;
+                if (cellCount > foundCount || (cellCount == foundCount && distance < foundDistance)) {
+                    found = r * width + c;
+                    foundCount = cellCount;
+                    foundDistance = distance;
+                }
+            }
+        }
+        return found;
+    }
+
+    public interface OnScatterClickListener {
+        /**
+         * @param count Points in the selected pixel.
+         * @param x     Center of the pixel, in data units.
+         * @param y     Center of the pixel, in data units.
+         */
+        void onScatterClick(int count, float x, float y);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+/**
+ * Oscilloscope-style incremental renderer for a trace that scrolls left as samples arrive.
+ * <p>
+ * The plotted trace lives in an offscreen bitmap. New samples shift it left by whole pixels,
+ * blitting it into a second bitmap that then takes its place, and only the segments in the newly
+ * exposed strip on the right are rasterized. Per-frame raster work is proportional to the new
+ * samples rather than the window. Chrome such as grid lines is drawn by the caller underneath.
+ * <p>
+ * The value range must stay fixed between {@link #reset} calls, a new range moves every point.
+ */
+final class ScrollingPlotRenderer {
+
+    private Bitmap front;
+    private Bitmap back;
+    private final Canvas canvas = new Canvas();
+    private int width;
+    private int height;
+    private float step;
+    private float minValue;
+    private float scale;
+    private float inset;
+    // The newest sample sits at x = width - 1 - lag, with lag in [0, 1)
+    private float lag;
+    private float lastY;
+    private boolean hasLast;
+    private float[] points = new float[0];
+
+    /**
+     * Clears the plot and sets up its geometry, the bitmaps are only reallocated on a size change.
+     *
+     * @param step  Horizontal distance between two samples in pixels.
+     * @param inset Kept free at the top and bottom, e.g. half the stroke width.
+     */
+    void reset(int width, int height, float step, float minValue, float maxValue, float inset) {
+        if (front == null || front.getWidth() != width || front.getHeight() != height) {
+            release();
+            front = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            back = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        } else {
+            front.eraseColor(Color.TRANSPARENT);
+        }
+        this.width = width;
+        this.height = height;
+        this.step = step;
+        this.minValue = minValue;
+        this.inset = inset;
+        scale = (height - inset * 2) / (maxValue > minValue ? maxValue - minValue : 1);
+        lag = 0;
+        hasLast = false;
+    }
+
+    /**
+     * Scrolls the plot left by the width of the samples and draws them on the right.
+     */
+    void append(float[] samples, int offset, int count, Paint paint) {
+        if (front == null || count == 0) return;
+        if (!hasLast) {
+            lastY = toY(samples[offset]);
+            hasLast = true;
+            offset++;
+            count--;
+            if (count == 0) return;
+        }
+
+        // Whole pixels to scroll so the newest sample lands within a pixel of the right edge
+        float advance = count * step;
+        int shift = (int) Math.ceil(advance - lag);
+        lag = lag + shift - advance;
+        if (shift > 0) {
+            back.eraseColor(Color.TRANSPARENT);
+            if (shift < width) {
+                canvas.setBitmap(back);
+                canvas.drawBitmap(front, -shift, 0, null);
+            }
+            Bitmap swap = front;
+            front = back;
+            back = swap;
+        }
+
+        // Segments left of the bitmap are skipped, only the exposed strip is rasterized
+        float newestX = width - 1 - lag;
+        int first = Math.max(0, count - (int) Math.ceil(width / step) - 1);
+        if (points.length < (count - first) * 4) {
+            points = new float[(count - first) * 4];
+        }
+        float previousX = newestX - (count - first) * step;
+        float previousY = first == 0 ? lastY : toY(samples[offset + first - 1]);
+        int p = 0;
+        for (int i = first; i < count; i++) {
+            float x = newestX - (count - 1 - i) * step;
+            float y = toY(samples[offset + i]);
+            points[p++] = previousX;
+            points[p++] = previousY;
+            points[p++] = x;
+            points[p++] = y;
+            previousX = x;
+            previousY = y;
+        }
+        canvas.setBitmap(front);
+        canvas.drawLines(points, 0, p, paint);
+        canvas.setBitmap(null);
+        lastY = previousY;
+    }
+
+    void draw(Canvas target) {
+        if (front != null) {
+            target.drawBitmap(front, 0, 0, null);
+        }
+    }
+
+    void release() {
+        if (front != null) {
+            front.recycle();
+            back.recycle();
+            front = null;
+            back = null;
+        }
+    }
+
+    private float toY(float value) {
+        return height - inset - (value - minValue) * scale;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the series files read by {@link MappedSeriesSource} and written by
+ * {@link MappedSeriesWriter}. Everything is little-endian.
+ * <p>
+ * A 64 byte header is followed by blocks of blockCapacity samples each. A block holds one column
+ * after the other: the timestamps as longs when the file has them, then the values of every
+ * series as floats. Samples are appended to the last block, and the file only ever grows by
+ * whole blocks, so a column can be read in one bulk copy. Only the first sampleCount samples are
+ * valid, the writer updates the count after the samples themselves.
+ * <pre>
+ *  0  int   magic "MCS1"
+ *  4  int   version
+ *  8  int   seriesCount
+ * 12  int   blockCapacity
+ * 16  int   flags, 1 for timestamps
+ * 24  long  sampleCount
+ * </pre>
+ */
+final class SeriesFile {
+
+    static final int HEADER_BYTES = 64;
+    static final int SAMPLE_COUNT_OFFSET = 24;
+    private static final int MAGIC = 0x3153434D;
+    private static final int VERSION = 1;
+    private static final int FLAG_TIMESTAMPS = 1;
+
+    final int seriesCount;
+    final int blockCapacity;
+    final boolean timestamps;
+    final long blockBytes;
+
+    SeriesFile(int seriesCount, int blockCapacity, boolean timestamps) {
+        if (seriesCount < 1 || blockCapacity < 1) {
+            throw new IllegalArgumentException("seriesCount " + seriesCount + " and blockCapacity "
+                    + blockCapacity + " must be positive");
+        }
+        this.seriesCount = seriesCount;
+        this.blockCapacity = blockCapacity;
+        this.timestamps = timestamps;
+        this.blockBytes = (long) blockCapacity * ((timestamps ? 8 : 0) + 4L * seriesCount);
+        // Blocks are mapped whole
+        if (blockBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A block of " + blockBytes + " bytes is too large");
+        }
+        // Keeps every timestamp column 8 byte aligned
+        if (timestamps && blockCapacity % 2 != 0) {
+            throw new IllegalArgumentException("blockCapacity " + blockCapacity
+                    + " must be even when samples have timestamps");
+        }
+    }
+
+    /**
+     * @param header The first {@link #HEADER_BYTES} of the file.
+     */
+    static SeriesFile read(ByteBuffer header) throws IOException {
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not a series file of version " + VERSION);
+        }
+        try {
+            return new SeriesFile(header.getInt(8), header.getInt(12),
+                    (header.getInt(16) & FLAG_TIMESTAMPS) != 0);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt series file header", e);
+        }
+    }
+
+    void write(ByteBuffer header, long sampleCount) {
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, seriesCount);
+        header.putInt(12, blockCapacity);
+        header.putInt(16, timestamps ? FLAG_TIMESTAMPS : 0);
+        header.putLong(SAMPLE_COUNT_OFFSET, sampleCount);
+    }
+
+    long blockOffset(long block) {
+        return HEADER_BYTES + block * blockBytes;
+    }
+
+    long blockCount(long sampleCount) {
+        return (sampleCount + blockCapacity - 1) / blockCapacity;
+    }
+
+    /**
+     * @return Offset of a sample's value from the start of its block.
+     */
+    int valueOffset(int series, int sample) {
+        return (timestamps ? blockCapacity * 8 : 0) + (series * blockCapacity + sample) * 4;
+    }
+
+    /**
+     * @return Offset of a sample's timestamp from the start of its block.
+     */
+    int timestampOffset(int sample) {
+        return sample * 8;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Growable binary buffer the chart views write their saved state into, read back in the same
+ * order. Arrays are copied in bulk and a null array is stored as length -1.
+ */
+final class Snapshot {
+
+    // Snapshots of another version are not restored
+    private static final int VERSION = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private ByteBuffer buffer;
+
+    Snapshot() {
+        buffer = ByteBuffer.allocate(256);
+        buffer.putInt(VERSION);
+    }
+
+    private Snapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return The snapshot, or null when the bytes are of another version.
+     */
+    static Snapshot read(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            return buffer.getInt() == VERSION ? new Snapshot(buffer) : null;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    void putInt(int value) {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    void putFloat(float value) {
+        ensure(4);
+        buffer.putFloat(value);
+    }
+
+    void putBoolean(boolean value) {
+        ensure(1);
+        buffer.put((byte) (value ? 1 : 0));
+    }
+
+    void putString(String value) {
+        if (value == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        putInt(bytes.length);
+        ensure(bytes.length);
+        buffer.put(bytes);
+    }
+
+    void putStrings(List<String> values) {
+        putInt(values == null ? -1 : values.size());
+        if (values == null) return;
+        for (int i = 0; i < values.size(); i++) {
+            putString(values.get(i));
+        }
+    }
+
+    void putFloats(float[] values) {
+        putFloats(values, values == null ? 0 : values.length);
+    }
+
+    /**
+     * Stores values[0, count).
+     */
+    void putFloats(float[] values, int count) {
+        putInt(values == null ? -1 : count);
+        if (values == null) return;
+        ensure(count * 4);
+        buffer.asFloatBuffer().put(values, 0, count);
+        buffer.position(buffer.position() + count * 4);
+    }
+
+    void putInts(int[] values) {
+        putInt(values == null ? -1 : values.length);
+        if (values == null) return;
+        ensure(values.length * 4);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * 4);
+    }
+
+    void putLongs(long[] values) {
+        putInt(values == null ? -1 : values.length);
+        if (values == null) return;
+        ensure(values.length * 8);
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + values.length * 8);
+    }
+
+    int getInt() {
+        return buffer.getInt();
+    }
+
+    long getLong() {
+        return buffer.getLong();
+    }
+
+    float getFloat() {
+        return buffer.getFloat();
+    }
+
+    boolean getBoolean() {
+        return buffer.get() != 0;
+    }
+
+    String getString() {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        String value = new String(buffer.array(), buffer.position(), length, UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    ArrayList<String> getStrings() {
+        int count = buffer.getInt();
+        if (count < 0) return null;
+        ArrayList<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(getString());
+        }
+        return values;
+    }
+
+    float[] getFloats() {
+        int count = buffer.getInt();
+        if (count < 0) return null;
+        float[] values = new float[count];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+
+    int[] getInts() {
+        int count = buffer.getInt();
+        if (count < 0) return null;
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+
+    long[] getLongs() {
+        int count = buffer.getInt();
+        if (count < 0) return null;
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + count * 8);
+        return values;
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes) return;
+        long needed = (long) buffer.position() + bytes;
+        ByteBuffer grown = ByteBuffer.allocate((int) Math.min(Integer.MAX_VALUE,
+                Math.max(needed, buffer.capacity() * 2L)));
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+}
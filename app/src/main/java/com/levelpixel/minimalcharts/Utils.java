@@ -1,4 +1,3 @@
-
 /*
  * Copyright © 2025 Tanvir Ahamed
  *  All rights reserved.
@@ -13,16 +12,85 @@
 package com.levelpixel.minimalcharts;
 
 import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.DisplayMetrics;
+import android.view.View;
+
+import com.levelpixel.minimalcharts.core.FastTrig;
 
 public class Utils {
 
     public static int dip2px(Context context, float dipValue) {
-        final float scale = context.getResources().getDisplayMetrics().density;
-        return (int) (dipValue * scale + 0.5f);
+        return dip2px(context.getResources().getDisplayMetrics(), dipValue);
     }
 
     public static int sp2px(Context context, float spValue) {
-        final float fontScale = context.getResources().getDisplayMetrics().scaledDensity;
-        return (int) (spValue * fontScale + 0.5f);
+        return sp2px(context.getResources().getDisplayMetrics(), spValue);
+    }
+
+    /**
+     * Same as {@link #dip2px(Context, float)} for callers that already resolved the metrics once.
+     */
+    public static int dip2px(DisplayMetrics metrics, float dipValue) {
+        return (int) (dipValue * metrics.density + 0.5f);
+    }
+
+    /**
+     * Same as {@link #sp2px(Context, float)} for callers that already resolved the metrics once.
+     */
+    public static int sp2px(DisplayMetrics metrics, float spValue) {
+        return (int) (spValue * metrics.scaledDensity + 0.5f);
+    }
+
+    /**
+     * Grows dirty to cover a wedge drawn by {@link android.graphics.Canvas#drawArc} with its
+     * center, plus the given padding for anti-aliasing and strokes.
+     */
+    static void unionWedge(Rect dirty, RectF oval, float startDegree, float sweepDegree,
+                           float padding) {
+        if (sweepDegree < 0) {
+            startDegree += sweepDegree;
+            sweepDegree = -sweepDegree;
+        }
+        float endDegree = startDegree + Math.min(sweepDegree, 360);
+        float cx = oval.centerX();
+        float cy = oval.centerY();
+        float rx = oval.width() / 2;
+        float ry = oval.height() / 2;
+        float startX = cx + FastTrig.cos(startDegree) * rx;
+        float startY = cy + FastTrig.sin(startDegree) * ry;
+        float endX = cx + FastTrig.cos(endDegree) * rx;
+        float endY = cy + FastTrig.sin(endDegree) * ry;
+        float left = Math.min(cx, Math.min(startX, endX));
+        float top = Math.min(cy, Math.min(startY, endY));
+        float right = Math.max(cx, Math.max(startX, endX));
+        float bottom = Math.max(cy, Math.max(startY, endY));
+        // The oval's extremes at 0°, 90°, 180° and 270° that the arc passes
+        for (float axis = (float) Math.ceil(startDegree / 90) * 90; axis <= endDegree; axis += 90) {
+            int quadrant = ((int) (axis / 90) % 4 + 4) % 4;
+            if (quadrant == 0) right = oval.right;
+            else if (quadrant == 1) bottom = oval.bottom;
+            else if (quadrant == 2) left = oval.left;
+            else top = oval.top;
+        }
+        dirty.union((int) Math.floor(left - padding), (int) Math.floor(top - padding),
+                (int) Math.ceil(right + padding), (int) Math.ceil(bottom + padding));
+    }
+
+    /**
+     * The part of the view that is both inside the canvas clip and on screen. A hardware canvas
+     * records the whole view, and a scrolling parent moves that recording without drawing it
+     * again, so a view that culls to these bounds must also be invalidated when scrolling
+     * uncovers what it left out, see {@link android.view.ViewTreeObserver.OnScrollChangedListener}.
+     *
+     * @param bounds  Receives the bounds, in the view's own coordinates.
+     * @param visible Scratch rect for the on-screen part.
+     * @return False when nothing of the view is drawn on screen.
+     */
+    static boolean getVisibleClipBounds(View view, Canvas canvas, Rect bounds, Rect visible) {
+        return canvas.getClipBounds(bounds) && view.getLocalVisibleRect(visible)
+                && bounds.intersect(visible);
     }
 }
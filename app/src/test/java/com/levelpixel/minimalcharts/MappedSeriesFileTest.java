@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes series files with {@link MappedSeriesWriter} and reads them back through
+ * {@link MappedSeriesSource}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class MappedSeriesFileTest {
+
+    private static final int SERIES = 3;
+    // A block of 400 kB, so a 1 MB writer window holds two of them
+    private static final int BLOCK_CAPACITY = 20_000;
+    private static final int WINDOW_SAMPLES = 2 * BLOCK_CAPACITY;
+    private static final long FIRST_TIMESTAMP = 1_700_000_000_000L;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void samplesAppendedAcrossBlocksAndWindowsReadBack() throws IOException {
+        File path = folder.newFile();
+        int singles = BLOCK_CAPACITY + 5;
+        int count = 2 * WINDOW_SAMPLES + 3;
+        try (MappedSeriesWriter writer = MappedSeriesWriter.create(path, SERIES, BLOCK_CAPACITY,
+                true)) {
+            for (int i = 0; i < singles; i++) {
+                writer.append(timestamp(i), row(i));
+            }
+            writer.commit();
+            // Chunks that start mid-block and run over block and window boundaries
+            appendBulk(writer, singles, count, 7_777);
+            writer.commit();
+            assertEquals(count, writer.getSampleCount());
+        }
+
+        try (MappedSeriesSource source = new MappedSeriesSource(path)) {
+            assertEquals(count, source.getSampleCount());
+            assertEquals(SERIES, source.getSeriesCount());
+            assertTrue(source.hasTimestamps());
+            assertSamples(source, 0, count);
+        }
+    }
+
+    @Test
+    public void refreshReportsTheCommittedSamples() throws IOException {
+        File path = folder.newFile();
+        try (MappedSeriesWriter writer = MappedSeriesWriter.create(path, SERIES, BLOCK_CAPACITY,
+                true);
+             MappedSeriesSource source = open(writer, path, BLOCK_CAPACITY / 2)) {
+            RecordingObserver observer = new RecordingObserver();
+            source.registerObserver(observer);
+            // Maps the last block while it is still partly filled
+            assertSamples(source, 0, BLOCK_CAPACITY / 2);
+
+            appendBulk(writer, BLOCK_CAPACITY / 2, WINDOW_SAMPLES + 10, 5_000);
+            assertFalse("uncommitted samples", source.refresh());
+            assertEquals(BLOCK_CAPACITY / 2, source.getPointCount(0));
+
+            writer.commit();
+            assertTrue(source.refresh());
+            assertEquals(WINDOW_SAMPLES + 10, source.getPointCount(0));
+            List<String> expected = new ArrayList<>();
+            int added = WINDOW_SAMPLES + 10 - BLOCK_CAPACITY / 2;
+            for (int s = 0; s < SERIES; s++) {
+                expected.add(range(s, BLOCK_CAPACITY / 2, added));
+            }
+            assertEquals(expected, observer.inserted);
+            assertSamples(source, 0, WINDOW_SAMPLES + 10);
+
+            observer.inserted.clear();
+            writer.append(timestamp(WINDOW_SAMPLES + 10), row(WINDOW_SAMPLES + 10));
+            writer.commit();
+            assertTrue(source.refresh());
+            assertEquals(range(SERIES - 1, WINDOW_SAMPLES + 10, 1),
+                    observer.inserted.get(SERIES - 1));
+            assertSamples(source, WINDOW_SAMPLES + 10, WINDOW_SAMPLES + 11);
+            assertFalse("nothing new", source.refresh());
+        }
+    }
+
+    @Test
+    public void openAppendsAfterTheLastCommittedSample() throws IOException {
+        File path = folder.newFile();
+        int first = BLOCK_CAPACITY + BLOCK_CAPACITY / 2;
+        try (MappedSeriesWriter writer = MappedSeriesWriter.create(path, SERIES, BLOCK_CAPACITY,
+                true)) {
+            appendBulk(writer, 0, first, first);
+        }
+
+        int count = first + BLOCK_CAPACITY;
+        try (MappedSeriesWriter writer = MappedSeriesWriter.open(path)) {
+            assertEquals(first, writer.getSampleCount());
+            writer.append(timestamp(first), row(first));
+            appendBulk(writer, first + 1, count, 3_000);
+        }
+
+        try (MappedSeriesSource source = new MappedSeriesSource(path)) {
+            assertEquals(count, source.getSampleCount());
+            assertSamples(source, 0, count);
+        }
+    }
+
+    @Test
+    public void filesWithoutTimestampsAllowAnOddBlockCapacity() throws IOException {
+        File path = folder.newFile();
+        try (MappedSeriesWriter writer = MappedSeriesWriter.create(path, 1, 7, false)) {
+            for (int i = 0; i < 20; i++) {
+                writer.append(0, new float[]{i});
+            }
+        }
+
+        try (MappedSeriesSource source = new MappedSeriesSource(path)) {
+            assertFalse(source.hasTimestamps());
+            float[] values = new float[20];
+            source.copyValues(0, 0, 20, values);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, values[i], 0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timestampsNeedAnEvenBlockCapacity() throws IOException {
+        MappedSeriesWriter.create(folder.newFile(), SERIES, 7, true);
+    }
+
+    @Test(expected = IOException.class)
+    public void sourceRejectsAFileThatIsNotASeriesFile() throws IOException {
+        File path = folder.newFile();
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.setLength(SeriesFile.HEADER_BYTES);
+        }
+        new MappedSeriesSource(path).close();
+    }
+
+    // Appends and commits the first samples, then opens a source on them
+    private static MappedSeriesSource open(MappedSeriesWriter writer, File path, int count)
+            throws IOException {
+        appendBulk(writer, 0, count, count);
+        writer.commit();
+        return new MappedSeriesSource(path);
+    }
+
+    // Appends samples from to to, chunk samples at a time
+    private static void appendBulk(MappedSeriesWriter writer, int from, int to, int chunk)
+            throws IOException {
+        for (int start = from; start < to; start += chunk) {
+            int n = Math.min(chunk, to - start);
+            long[] timestamps = new long[n];
+            float[] values = new float[SERIES * n];
+            for (int i = 0; i < n; i++) {
+                timestamps[i] = timestamp(start + i);
+                for (int s = 0; s < SERIES; s++) {
+                    values[s * n + i] = value(s, start + i);
+                }
+            }
+            writer.append(timestamps, values, n);
+        }
+    }
+
+    private static void assertSamples(MappedSeriesSource source, int from, int to) {
+        float[] values = new float[to - from];
+        for (int s = 0; s < SERIES; s++) {
+            source.copyValues(s, from, to, values);
+            for (int i = from; i < to; i++) {
+                assertEquals("series " + s + " sample " + i, value(s, i), values[i - from], 0);
+            }
+            assertEquals(value(s, to - 1), source.getValue(s, to - 1), 0);
+        }
+        for (int i = from; i < to; i++) {
+            assertEquals("sample " + i, timestamp(i), source.getTimestamp(i));
+        }
+    }
+
+    private static float[] row(int sample) {
+        float[] values = new float[SERIES];
+        for (int s = 0; s < SERIES; s++) {
+            values[s] = value(s, sample);
+        }
+        return values;
+    }
+
+    // Exact as floats for every sample written here
+    private static float value(int series, int sample) {
+        return sample * SERIES + series + 0.5f;
+    }
+
+    private static long timestamp(int sample) {
+        return FIRST_TIMESTAMP + sample * 1000L;
+    }
+
+    private static String range(int series, int from, int count) {
+        return series + ":" + from + "+" + count;
+    }
+
+    private static final class RecordingObserver extends ChartDataSource.Observer {
+        final List<String> inserted = new ArrayList<>();
+
+        @Override
+        public void onRangeInserted(int series, int from, int count) {
+            inserted.add(range(series, from, count));
+        }
+    }
+}
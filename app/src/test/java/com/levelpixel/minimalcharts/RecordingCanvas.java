@@ -0,0 +1,303 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.NinePatch;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * Canvas that draws nothing and only counts what it is asked to draw, by operation type, plus
+ * the number of straight segments those operations stroke. State calls (save, clip, transform)
+ * go to a real canvas over a bitmap of the given size, so views that cull to the clip bounds
+ * behave as they do on screen.
+ * <p>
+ * Recording a draw does not allocate, except for counting the segments of a path, which needs
+ * the path approximated into a new array. Turn that off with {@link #setCountPathSegments} when
+ * the canvas is used to measure allocations.
+ * <p>
+ * Lines, circles and rects also add their coordinates to a sum, which tells two frames apart
+ * when they draw the same shapes in different places.
+ */
+final class RecordingCanvas extends Canvas {
+
+    enum Op {
+        LINE, LINES, POINT, RECT, ROUND_RECT, OVAL, CIRCLE, ARC, PATH, TEXT, BITMAP, PATCH, COLOR
+    }
+
+    private static final float PATH_TOLERANCE = 0.5f;
+
+    private final int[] counts = new int[Op.values().length];
+    private long pathSegments;
+    private double coordinateSum;
+    private long colorSum;
+    private Bitmap lastBitmap;
+    private float lastCircleX;
+    private float lastCircleY;
+    private boolean countPathSegments = true;
+
+    RecordingCanvas(int width, int height) {
+        super(Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8));
+    }
+
+    void setCountPathSegments(boolean countPathSegments) {
+        this.countPathSegments = countPathSegments;
+    }
+
+    void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        pathSegments = 0;
+        coordinateSum = 0;
+        colorSum = 0;
+        lastBitmap = null;
+    }
+
+    int getCount(Op op) {
+        return counts[op.ordinal()];
+    }
+
+    /**
+     * @return All draw operations of any type.
+     */
+    int getDrawCount() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * @return Straight segments stroked by lines and paths, with curves flattened.
+     */
+    long getPathSegments() {
+        return pathSegments;
+    }
+
+    /**
+     * @return The sum of the coordinates of the lines, circles, rects and arcs drawn, arcs with
+     * their angles.
+     */
+    double getCoordinateSum() {
+        return coordinateSum;
+    }
+
+    /**
+     * @return The sum of the paint colors, alpha included, arcs were drawn with.
+     */
+    long getColorSum() {
+        return colorSum;
+    }
+
+    /**
+     * @return The last bitmap drawn at a position, to compare its pixels.
+     */
+    Bitmap getLastBitmap() {
+        return lastBitmap;
+    }
+
+    /**
+     * @return The center of the last circle drawn, e.g. to tap a dot there.
+     */
+    float getLastCircleX() {
+        return lastCircleX;
+    }
+
+    float getLastCircleY() {
+        return lastCircleY;
+    }
+
+    private void record(Op op) {
+        counts[op.ordinal()]++;
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        record(Op.LINE);
+        pathSegments++;
+        coordinateSum += startX + startY + stopX + stopY;
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, Paint paint) {
+        record(Op.LINES);
+        pathSegments += count / 4;
+        for (int i = offset; i < offset + count; i++) {
+            coordinateSum += pts[i];
+        }
+    }
+
+    @Override
+    public void drawLines(float[] pts, Paint paint) {
+        drawLines(pts, 0, pts.length, paint);
+    }
+
+    @Override
+    public void drawPoint(float x, float y, Paint paint) {
+        record(Op.POINT);
+    }
+
+    @Override
+    public void drawPoints(float[] pts, int offset, int count, Paint paint) {
+        record(Op.POINT);
+    }
+
+    @Override
+    public void drawPoints(float[] pts, Paint paint) {
+        record(Op.POINT);
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        record(Op.RECT);
+        coordinateSum += left + top + right + bottom;
+    }
+
+    @Override
+    public void drawRect(RectF rect, Paint paint) {
+        record(Op.RECT);
+        coordinateSum += rect.left + rect.top + rect.right + rect.bottom;
+    }
+
+    @Override
+    public void drawRect(Rect r, Paint paint) {
+        record(Op.RECT);
+        coordinateSum += r.left + r.top + r.right + r.bottom;
+    }
+
+    @Override
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+        record(Op.ROUND_RECT);
+    }
+
+    @Override
+    public void drawRoundRect(float left, float top, float right, float bottom, float rx, float ry,
+                              Paint paint) {
+        record(Op.ROUND_RECT);
+    }
+
+    @Override
+    public void drawOval(RectF oval, Paint paint) {
+        record(Op.OVAL);
+    }
+
+    @Override
+    public void drawOval(float left, float top, float right, float bottom, Paint paint) {
+        record(Op.OVAL);
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        record(Op.CIRCLE);
+        coordinateSum += cx + cy + radius;
+        lastCircleX = cx;
+        lastCircleY = cy;
+    }
+
+    @Override
+    public void drawArc(RectF oval, float startAngle, float sweepAngle, boolean useCenter,
+                        Paint paint) {
+        drawArc(oval.left, oval.top, oval.right, oval.bottom, startAngle, sweepAngle, useCenter,
+                paint);
+    }
+
+    @Override
+    public void drawArc(float left, float top, float right, float bottom, float startAngle,
+                        float sweepAngle, boolean useCenter, Paint paint) {
+        record(Op.ARC);
+        coordinateSum += left + top + right + bottom + startAngle + sweepAngle;
+        colorSum += paint.getColor() & 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        record(Op.PATH);
+        if (countPathSegments) {
+            // Three floats per point: fraction along the path, x and y
+            int points = path.approximate(PATH_TOLERANCE).length / 3;
+            pathSegments += Math.max(0, points - 1);
+        }
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        record(Op.TEXT);
+    }
+
+    @Override
+    public void drawText(String text, int start, int end, float x, float y, Paint paint) {
+        record(Op.TEXT);
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        record(Op.TEXT);
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+        record(Op.TEXT);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        record(Op.BITMAP);
+        lastBitmap = bitmap;
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        record(Op.BITMAP);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        record(Op.BITMAP);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+        record(Op.BITMAP);
+    }
+
+    @Override
+    public void drawPatch(NinePatch patch, Rect dst, Paint paint) {
+        record(Op.PATCH);
+    }
+
+    @Override
+    public void drawPatch(NinePatch patch, RectF dst, Paint paint) {
+        record(Op.PATCH);
+    }
+
+    @Override
+    public void drawColor(int color) {
+        record(Op.COLOR);
+    }
+
+    @Override
+    public void drawColor(int color, PorterDuff.Mode mode) {
+        record(Op.COLOR);
+    }
+
+    @Override
+    public void drawPaint(Paint paint) {
+        record(Op.COLOR);
+    }
+}
@@ -0,0 +1,929 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Activity;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.HorizontalScrollView;
+
+import com.levelpixel.minimalcharts.core.Histogram;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders each chart type with a representative dataset into a {@link RecordingCanvas} and
+ * fails when a frame issues more draw operations than budgeted, or allocates at all once warmed
+ * up. Raise a budget only together with the change that needs it.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+public class RenderBudgetTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int MEASURED_FRAMES = 100;
+
+    /**
+     * Draws one frame of the view under test, straight through its onDraw so only the chart's
+     * own work is measured.
+     */
+    private interface Frame {
+        void draw(Canvas canvas);
+    }
+
+    private static final Frame EMPTY_FRAME = new Frame() {
+        @Override
+        public void draw(Canvas canvas) {
+        }
+    };
+
+    @Test
+    public void lineViewWith10kPoints() {
+        int points = 10_000;
+        final LineView view = host(new LineView(activity()));
+        ArrayList<String> labels = new ArrayList<>(points);
+        ArrayList<ArrayList<Integer>> lines = new ArrayList<>();
+        ArrayList<Integer> line = new ArrayList<>(points);
+        Random random = new Random(1);
+        for (int i = 0; i < points; i++) {
+            labels.add(String.valueOf(i));
+            line.add(random.nextInt(1000));
+        }
+        lines.add(line);
+        view.setBottomTextList(labels);
+        view.setDataList(lines);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        RecordingCanvas canvas = record(view, frame);
+        // Nothing is culled yet: a segment, two circles, a grid line and a label per point
+        assertBudget("draw calls", canvas.getDrawCount(), 5 * points + 100);
+        assertBudget("path segments", canvas.getPathSegments(), 2 * points + 200);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerFrame(view, frame));
+    }
+
+    @Test
+    public void lineViewWithPopupsAndASelectedDot() {
+        int points = 200;
+        final LineView view = host(new LineView(activity()));
+        ArrayList<String> labels = new ArrayList<>(points);
+        ArrayList<ArrayList<Integer>> lines = new ArrayList<>();
+        ArrayList<Integer> line = new ArrayList<>(points);
+        Random random = new Random(10);
+        for (int i = 0; i < points; i++) {
+            labels.add(String.valueOf(i));
+            line.add(random.nextInt(1000));
+        }
+        lines.add(line);
+        view.setShowPopup(LineView.SHOW_POPUPS_All);
+        view.setBottomTextList(labels);
+        view.setDataList(lines);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+        RecordingCanvas canvas = record(view, frame);
+        tap(view, canvas.getLastCircleX(), canvas.getLastCircleY());
+        settle();
+
+        canvas = record(view, frame);
+        assertEquals("popups", points + 1, canvas.getCount(RecordingCanvas.Op.PATCH));
+        // As without popups, plus a patch and a label per popup
+        assertBudget("draw calls", canvas.getDrawCount(), 7 * points + 100);
+        // Each popup moves the drawable, except the selection's, which is drawn over its dot's
+        assertEquals("bytes allocated per frame", 0,
+                allocatedBytesPerFrame(view, frame, movingDrawable(points)));
+    }
+
+    @Test
+    public void chartBarViewWith1kBars() {
+        int bars = 1_000;
+        final ChartBarView view = host(new ChartBarView(activity()));
+        float[] values = new float[bars];
+        Random random = new Random(2);
+        for (int i = 0; i < bars; i++) {
+            values[i] = random.nextFloat() * 100;
+        }
+        view.setData(values, 100);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        RecordingCanvas canvas = record(view, frame);
+        // Only the bars inside the clip are drawn, about 26 fit; a background and a value rect each
+        assertBudget("draw calls", canvas.getDrawCount(), 2 * 30);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerCullingFrame(view, frame));
+    }
+
+    @Test
+    public void chartBarViewWithStackedSeriesInDefaultColors() {
+        int bars = 100;
+        int series = 3;
+        final ChartBarView view = host(new ChartBarView(activity()));
+        float[] values = new float[bars * series];
+        Random random = new Random(3);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextFloat() * 30;
+        }
+        view.setSeriesData(values, series, 100, ChartBarView.SERIES_STACKED);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        RecordingCanvas first = new RecordingCanvas(view.getWidth(), view.getHeight());
+        frame.draw(first);
+        // The series paints are built with the data, not on the first frame
+        assertTrue("drawing posted a redraw", shadowOf(Looper.getMainLooper()).isIdle());
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerCullingFrame(view, frame));
+    }
+
+    @Test
+    public void lineViewFromDataSourceWith1mPoints() {
+        int points = 1_000_000;
+        final LineView view = host(new LineView(activity()));
+        CountingSource source = new CountingSource(1, points, 4);
+        view.setPointSpacing(0.5f);
+        view.setDataSource(source, 1000);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        source.valuesRead = 0;
+        RecordingCanvas canvas = record(view, frame);
+        // Two points per pixel column inside the view's width are read and reduced to at most a
+        // span and a join per column, drawn in batches of 512 lines
+        assertBudget("values read", source.valuesRead, 2 * WIDTH + 4);
+        assertBudget("draw calls", canvas.getDrawCount(), 2 * WIDTH / 512 + 30);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerCullingFrame(view, frame));
+    }
+
+    @Test
+    public void rollingOverlaysFromDataSourceWith1mPoints() {
+        int points = 1_000_000;
+        int appended = 1_000;
+        final LineView view = host(new LineView(activity()));
+        CountingSource source = new CountingSource(1, points, 5);
+        source.pointCount = points - appended;
+        view.setPointSpacing(0.5f);
+        view.addRollingOverlay(RollingOverlay.mean(0, 1_000));
+        view.addRollingOverlay(RollingOverlay.minMaxBand(0, 1_000));
+        view.addRollingOverlay(RollingOverlay.quantileBand(0, 1_000, 0.05f, 0.95f));
+        view.setDataSource(source, 1000);
+        settle();
+
+        source.valuesRead = 0;
+        source.append(appended);
+        // Every overlay reads only the appended points
+        assertBudget("values read per append", source.valuesRead, 3 * appended);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        RecordingCanvas canvas = record(view, frame);
+        // The line as without overlays, and one path per overlay
+        assertBudget("draw calls", canvas.getDrawCount(), 2 * WIDTH / 512 + 30 + 3);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerCullingFrame(view, frame));
+    }
+
+    @Test
+    public void chartBarViewFromDataSourceWith1mBars() {
+        int bars = 1_000_000;
+        final ChartBarView view = host(new ChartBarView(activity()));
+        CountingSource source = new CountingSource(2, bars, 5);
+        view.setDataSource(source, 200, ChartBarView.SERIES_STACKED);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        source.valuesRead = 0;
+        RecordingCanvas canvas = record(view, frame);
+        // Only the bars inside the clip are read, a background and two stacked rects each
+        assertBudget("values read", source.valuesRead, 2 * 30);
+        assertBudget("draw calls", canvas.getDrawCount(), 3 * 30);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerCullingFrame(view, frame));
+    }
+
+    @Test
+    public void pieViewWith12Slices() {
+        int slices = 12;
+        final PieView view = host(new PieView(activity()));
+        ArrayList<PieHelper> pies = new ArrayList<>();
+        for (int i = 0; i < slices; i++) {
+            pies.add(new PieHelper(100f / slices));
+        }
+        view.showPercentLabel(true);
+        view.setDate(pies);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        RecordingCanvas canvas = record(view, frame);
+        // An arc, a divider and a label per slice
+        assertBudget("draw calls", canvas.getDrawCount(), 3 * slices + 5);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerFrame(view, frame));
+    }
+
+    @Test
+    public void pieViewDrawsBothEdgesOfGrowingSlices() {
+        int slices = 6;
+        final PieView view = host(new PieView(activity()));
+        ArrayList<PieHelper> pies = new ArrayList<>();
+        for (int i = 0; i < slices; i++) {
+            pies.add(new PieHelper(100f / slices));
+        }
+        view.setDate(pies);
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+        // Layout and a few frames of the entry animation
+        shadowOf(Looper.getMainLooper()).idleFor(50, TimeUnit.MILLISECONDS);
+        RecordingCanvas growing = record(view, frame);
+        settle();
+        RecordingCanvas settled = record(view, frame);
+
+        assertEquals("edges while growing", 2 * slices, growing.getCount(RecordingCanvas.Op.LINE));
+        assertEquals("shared edges at rest", slices, settled.getCount(RecordingCanvas.Op.LINE));
+    }
+
+    @Test
+    public void clockPieViewWith5kIntervals() {
+        int intervals = 5_000;
+        final ClockPieView view = host(new ClockPieView(activity()));
+        long[] starts = new long[intervals];
+        long[] ends = new long[intervals];
+        Random random = new Random(3);
+        long day = TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < intervals; i++) {
+            starts[i] = i * day + random.nextInt((int) day);
+            ends[i] = starts[i] + random.nextInt((int) TimeUnit.HOURS.toMillis(3));
+        }
+        view.setOverlapMode(ClockPieView.OVERLAP_MERGE);
+        view.setData(starts, ends, TimeZone.getTimeZone("UTC"));
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        RecordingCanvas canvas = record(view, frame);
+        // Merging leaves one arc per gap-free stretch of the day, plus the dial's ticks and labels
+        assertBudget("draw calls", canvas.getDrawCount(), 40);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerFrame(view, frame));
+    }
+
+    @Test
+    public void restoredLineViewDrawsItsFinalFrameFirst() {
+        int points = 1_000;
+        final LineView view = host(new LineView(activity()));
+        ArrayList<String> labels = new ArrayList<>(points);
+        ArrayList<ArrayList<Integer>> lines = new ArrayList<>();
+        ArrayList<Integer> line = new ArrayList<>(points);
+        Random random = new Random(3);
+        for (int i = 0; i < points; i++) {
+            labels.add(String.valueOf(i));
+            line.add(random.nextInt(1000));
+        }
+        lines.add(line);
+        view.setBottomTextList(labels);
+        view.setDataList(lines);
+        settle();
+        RecordingCanvas settled = record(view, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        });
+
+        final LineView restored = host(new LineView(activity()));
+        restored.onRestoreInstanceState(parceled(view.onSaveInstanceState()));
+        layOut(restored);
+        RecordingCanvas first = record(restored, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                restored.onDraw(canvas);
+            }
+        });
+
+        assertSameFrame(settled, first);
+    }
+
+    @Test
+    public void restoredStackedChartBarViewDrawsItsFinalFrameFirst() {
+        int bars = 20;
+        int series = 3;
+        final ChartBarView view = host(new ChartBarView(activity()));
+        float[] values = new float[bars * series];
+        Random random = new Random(12);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextFloat() * 30;
+        }
+        view.setSeriesData(values, series, 100, ChartBarView.SERIES_STACKED);
+        settle();
+        RecordingCanvas settled = record(view, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        });
+
+        // A new process, so nothing has built the default series colors yet
+        final ChartBarView restored = host(new ChartBarView(activity()));
+        restored.onRestoreInstanceState(parceled(view.onSaveInstanceState()));
+        layOut(restored);
+        RecordingCanvas first = record(restored, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                restored.onDraw(canvas);
+            }
+        });
+
+        assertSameFrame(settled, first);
+    }
+
+    @Test
+    public void restoredKeyedChartBarViewKeepsItsKeys() {
+        int bars = 20;
+        long[] keys = new long[bars];
+        float[] values = new float[bars];
+        Random random = new Random(13);
+        for (int i = 0; i < bars; i++) {
+            keys[i] = 100 + i;
+            values[i] = random.nextFloat() * 100;
+        }
+        final ChartBarView view = host(new ChartBarView(activity()));
+        view.setBottomTextList(labels(bars));
+        view.setKeyedData(keys, values, 100);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+        RecordingCanvas settled = record(view, frame);
+
+        final ChartBarView restored = host(new ChartBarView(activity()));
+        restored.onRestoreInstanceState(parceled(view.onSaveInstanceState()));
+        layOut(restored);
+        Frame restoredFrame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                restored.onDraw(canvas);
+            }
+        };
+        assertSameFrame(settled, record(restored, restoredFrame));
+
+        // Drop the first bar and change one value: kept bars animate from where they are in both
+        long[] nextKeys = Arrays.copyOfRange(keys, 1, bars);
+        float[] nextValues = Arrays.copyOfRange(values, 1, bars);
+        nextValues[5] = 50;
+        view.setKeyedData(nextKeys, nextValues, 100);
+        restored.setKeyedData(nextKeys, nextValues, 100);
+        shadowOf(Looper.getMainLooper()).idleFor(50, TimeUnit.MILLISECONDS);
+        assertSameFrame(record(view, frame), record(restored, restoredFrame));
+    }
+
+    @Test
+    public void restoredPieViewKeepsFoldedSlicesSelectionAndKeys() {
+        int slices = 12;
+        long[] keys = new long[slices];
+        ArrayList<PieHelper> pies = new ArrayList<>();
+        for (int i = 0; i < slices; i++) {
+            keys[i] = 200 + i;
+            pies.add(new PieHelper(2 + i * 2, 0xFF000000 | (i * 0x151515)));
+        }
+        final PieView view = host(new PieView(activity()));
+        view.setAggregation(5, 0);
+        view.setKeyedDate(keys, pies);
+        view.selectedPie(1);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+        RecordingCanvas settled = record(view, frame);
+
+        final PieView restored = host(new PieView(activity()));
+        restored.setAggregation(5, 0);
+        restored.onRestoreInstanceState(parceled(view.onSaveInstanceState()));
+        layOut(restored);
+        Frame restoredFrame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                restored.onDraw(canvas);
+            }
+        };
+        assertSameFrame(settled, record(restored, restoredFrame));
+        assertEquals("other slice", view.getOtherIndex(), restored.getOtherIndex());
+        assertEquals("folded slices", view.getFoldedPies().size(),
+                restored.getFoldedPies().size());
+        for (int i = 0; i < view.getFoldedPies().size(); i++) {
+            assertEquals("folded sweep", view.getFoldedPies().get(i).getSweep(),
+                    restored.getFoldedPies().get(i).getSweep(), 0.01f);
+        }
+
+        // A keyed update sweeps the kept slices from their restored angles, the selection follows
+        ArrayList<PieHelper> next = new ArrayList<>();
+        ArrayList<PieHelper> restoredNext = new ArrayList<>();
+        for (int i = 0; i < slices; i++) {
+            next.add(new PieHelper(24 - i * 2, 0xFF000000 | (i * 0x151515)));
+            restoredNext.add(new PieHelper(24 - i * 2, 0xFF000000 | (i * 0x151515)));
+        }
+        view.setKeyedDate(keys, next);
+        restored.setKeyedDate(keys, restoredNext);
+        shadowOf(Looper.getMainLooper()).idleFor(50, TimeUnit.MILLISECONDS);
+        assertSameFrame(record(view, frame), record(restored, restoredFrame));
+    }
+
+    @Test
+    public void restoredClockPieViewKeepsDepthShadingAndIntervals() {
+        int intervals = 200;
+        long[] starts = new long[intervals];
+        long[] ends = new long[intervals];
+        Random random = new Random(14);
+        long day = TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < intervals; i++) {
+            starts[i] = i * day + random.nextInt((int) day);
+            ends[i] = starts[i] + random.nextInt((int) TimeUnit.HOURS.toMillis(6));
+        }
+        final ClockPieView view = host(new ClockPieView(activity()));
+        view.setOverlapMode(ClockPieView.OVERLAP_DEPTH);
+        view.setData(starts, ends, TimeZone.getTimeZone("UTC"));
+        settle();
+        RecordingCanvas settled = record(view, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        });
+
+        final ClockPieView restored = host(new ClockPieView(activity()));
+        restored.setOverlapMode(ClockPieView.OVERLAP_DEPTH);
+        restored.onRestoreInstanceState(parceled(view.onSaveInstanceState()));
+        layOut(restored);
+        RecordingCanvas first = record(restored, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                restored.onDraw(canvas);
+            }
+        });
+        assertSameFrame(settled, first);
+
+        // Taps are answered from the restored intervals
+        final int[][] found = new int[2][];
+        view.setOnClockPieClickListener(new ClockPieView.OnClockPieClickListener() {
+            @Override
+            public void onClockPieClick(int[] pieIndices) {
+                found[0] = pieIndices;
+            }
+        });
+        restored.setOnClockPieClickListener(new ClockPieView.OnClockPieClickListener() {
+            @Override
+            public void onClockPieClick(int[] pieIndices) {
+                found[1] = pieIndices;
+            }
+        });
+        float x = view.getWidth() / 2f + HEIGHT / 8f;
+        float y = view.getHeight() / 2f + HEIGHT / 8f;
+        tap(view, x, y);
+        tap(restored, x, y);
+        assertTrue("tapped pies", found[0] != null && found[0].length > 0);
+        assertEquals(Arrays.toString(found[0]), Arrays.toString(found[1]));
+    }
+
+    @Test
+    public void restoredClockPieViewKeepsHeatmapCounts() {
+        int events = 500;
+        long[] starts = new long[events];
+        long[] ends = new long[events];
+        Random random = new Random(15);
+        long day = TimeUnit.DAYS.toMillis(1);
+        for (int i = 0; i < events; i++) {
+            starts[i] = i * day + random.nextInt((int) day);
+            ends[i] = starts[i] + random.nextInt((int) TimeUnit.HOURS.toMillis(4));
+        }
+        final ClockPieView view = host(new ClockPieView(activity()));
+        view.setHeatmap(starts, ends, TimeZone.getTimeZone("UTC"));
+        settle();
+        RecordingCanvas settled = record(view, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        });
+
+        final ClockPieView restored = host(new ClockPieView(activity()));
+        restored.onRestoreInstanceState(parceled(view.onSaveInstanceState()));
+        layOut(restored);
+        RecordingCanvas first = record(restored, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                restored.onDraw(canvas);
+            }
+        });
+
+        assertSameFrame(settled, first);
+        assertEquals("heatmaps", 1, first.getCount(RecordingCanvas.Op.BITMAP));
+        assertTrue("same heatmap pixels", settled.getLastBitmap().sameAs(first.getLastBitmap()));
+    }
+
+    @Test
+    public void scatterViewWith1mPoints() {
+        int points = 1_000_000;
+        final ScatterView view = host(new ScatterView(activity()));
+        float[] xs = new float[points];
+        float[] ys = new float[points];
+        Random random = new Random(6);
+        for (int i = 0; i < points; i++) {
+            xs[i] = (float) random.nextGaussian();
+            ys[i] = (float) random.nextGaussian();
+        }
+        view.setData(xs, ys);
+        // Counting runs on the pool and posts the raster back to the UI thread
+        Histogram.pool().awaitQuiescence(30, TimeUnit.SECONDS);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        RecordingCanvas canvas = record(view, frame);
+        // The grid and the cached raster, however many points there are
+        assertEquals("bitmaps drawn", 1, canvas.getCount(RecordingCanvas.Op.BITMAP));
+        assertBudget("draw calls", canvas.getDrawCount(), 2 * 5 + 1);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerFrame(view, frame));
+    }
+
+    @Test
+    public void lineViewFromDataSourceScrolledInHorizontalScrollView() {
+        int points = 1_000_000;
+        final LineView view = new LineView(activity());
+        CountingSource source = new CountingSource(1, points, 7);
+        // A hundred points per pixel, about 10000 pixels wide
+        view.setPointSpacing(0.01f);
+        view.setDataSource(source, 1000);
+        HorizontalScrollView scroller = hostScrolled(view);
+        scroller.scrollTo(view.getWidth() / 2, 0);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        Rect visible = new Rect();
+        assertTrue("on screen", view.getLocalVisibleRect(visible));
+        assertTrue("scrolled", visible.left > 0 && visible.width() < view.getWidth());
+        source.valuesRead = 0;
+        // Recorded over the whole view, as a hardware canvas is
+        RecordingCanvas canvas = record(view, frame);
+        // Only the points of the pixel columns on screen are read
+        assertBudget("values read", source.valuesRead, 100 * visible.width() + 204);
+        assertBudget("draw calls", canvas.getDrawCount(), 2 * visible.width() / 512 + 30);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerCullingFrame(view, frame));
+
+        assertScrollRedraws(scroller, view, visible.width() / 2);
+    }
+
+    @Test
+    public void chartBarViewFromDataSourceScrolledInHorizontalScrollView() {
+        int bars = 400;
+        final ChartBarView view = new ChartBarView(activity());
+        CountingSource source = new CountingSource(2, bars, 8);
+        view.setDataSource(source, 200, ChartBarView.SERIES_STACKED);
+        HorizontalScrollView scroller = hostScrolled(view);
+        scroller.scrollTo(view.getWidth() / 2, 0);
+        settle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+
+        Rect visible = new Rect();
+        assertTrue("on screen", view.getLocalVisibleRect(visible));
+        assertTrue("scrolled", visible.left > 0 && visible.width() < view.getWidth());
+        int visibleBars = visible.width() * bars / view.getWidth() + 2;
+        source.valuesRead = 0;
+        // Recorded over the whole view, as a hardware canvas is
+        RecordingCanvas canvas = record(view, frame);
+        // Only the bars on screen are read, a background and two stacked rects each
+        assertBudget("values read", source.valuesRead, 2 * visibleBars);
+        assertBudget("draw calls", canvas.getDrawCount(), 3 * visibleBars);
+        assertEquals("bytes allocated per frame", 0, allocatedBytesPerCullingFrame(view, frame));
+
+        assertScrollRedraws(scroller, view, visible.width() / 2);
+    }
+
+    @Test
+    public void chartBarViewAnimatesDataSetBeforeAttaching() {
+        final ChartBarView view = new ChartBarView(activity());
+        float[] values = new float[20];
+        Random random = new Random(9);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextFloat() * 100;
+        }
+        view.setData(values, 100);
+        // Set long before the view is shown, as in onCreate or onBindViewHolder
+        shadowOf(Looper.getMainLooper()).idleFor(1, TimeUnit.SECONDS);
+        ((Activity) view.getContext()).setContentView(view,
+                new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        // Layout and the frames due now, the first frame of the animation among them
+        shadowOf(Looper.getMainLooper()).idle();
+        Frame frame = new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.onDraw(canvas);
+            }
+        };
+        RecordingCanvas first = record(view, frame);
+        settle();
+        RecordingCanvas settled = record(view, frame);
+
+        assertTrue("first frame snapped to the end",
+                first.getCoordinateSum() != settled.getCoordinateSum());
+    }
+
+    // Random values that count how many of them were read
+    private static final class CountingSource extends ChartDataSource {
+        private final float[][] values;
+        // Points of every series made visible so far
+        int pointCount;
+        long valuesRead;
+
+        CountingSource(int seriesCount, int pointCount, long seed) {
+            this.pointCount = pointCount;
+            values = new float[seriesCount][pointCount];
+            Random random = new Random(seed);
+            for (float[] series : values) {
+                for (int i = 0; i < pointCount; i++) {
+                    series[i] = random.nextFloat() * 100;
+                }
+            }
+        }
+
+        @Override
+        public int getSeriesCount() {
+            return values.length;
+        }
+
+        @Override
+        public int getPointCount(int series) {
+            return pointCount;
+        }
+
+        // Makes more of the generated points visible, as if they had just been appended
+        void append(int count) {
+            int from = pointCount;
+            pointCount += count;
+            for (int series = 0; series < values.length; series++) {
+                notifyRangeInserted(series, from, count);
+            }
+        }
+
+        @Override
+        public float getValue(int series, int index) {
+            valuesRead++;
+            return values[series][index];
+        }
+
+        @Override
+        public void copyValues(int series, int from, int to, float[] dst) {
+            valuesRead += to - from;
+            System.arraycopy(values[series], from, dst, 0, to - from);
+        }
+    }
+
+    private static Activity activity() {
+        return Robolectric.buildActivity(Activity.class).setup().get();
+    }
+
+    private static <T extends View> T host(T view) {
+        ((Activity) view.getContext()).setContentView(view,
+                new ViewGroup.LayoutParams(WIDTH, HEIGHT));
+        settle();
+        return view;
+    }
+
+    // Hosts the view at its full width inside a scroller of the usual size
+    private static HorizontalScrollView hostScrolled(View view) {
+        HorizontalScrollView scroller = new HorizontalScrollView(view.getContext());
+        scroller.addView(view, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                ViewGroup.LayoutParams.MATCH_PARENT));
+        return host(scroller);
+    }
+
+    // Scrolling moves the last drawing of the view without drawing it again, unless the view asks
+    // for a new frame because other points came into view
+    private static void assertScrollRedraws(HorizontalScrollView scroller, View view, int by) {
+        shadowOf(view).clearWasInvalidated();
+        scroller.scrollBy(by, 0);
+        assertTrue("not invalidated by the scroller", !shadowOf(view).wasInvalidated());
+        // As the view root does before drawing a frame that scrolled
+        ReflectionHelpers.callInstanceMethod(view.getViewTreeObserver(), "dispatchOnScrollChanged");
+        assertTrue("invalidated by scrolling", shadowOf(view).wasInvalidated());
+    }
+
+    private static ArrayList<String> labels(int count) {
+        ArrayList<String> labels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            labels.add(String.valueOf(i));
+        }
+        return labels;
+    }
+
+    private static void tap(View view, float x, float y) {
+        MotionEvent down = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, x, y, 0);
+        MotionEvent up = MotionEvent.obtain(0, 0, MotionEvent.ACTION_UP, x, y, 0);
+        view.onTouchEvent(down);
+        view.onTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+
+    // Written to a parcel and read back, as when the process is recreated
+    private static Parcelable parceled(Parcelable state) {
+        Parcel parcel = Parcel.obtain();
+        state.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        Parcelable read = ChartState.CREATOR.createFromParcel(parcel);
+        parcel.recycle();
+        return read;
+    }
+
+    private static void assertSameFrame(RecordingCanvas expected, RecordingCanvas actual) {
+        assertEquals("draw calls", expected.getDrawCount(), actual.getDrawCount());
+        assertEquals("coordinate sum", expected.getCoordinateSum(), actual.getCoordinateSum(),
+                0.01);
+        assertEquals("color sum", expected.getColorSum(), actual.getColorSum());
+    }
+
+    // One layout pass and no animation frames
+    private static void layOut(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    // Runs layout and lets any animation play out
+    private static void settle() {
+        shadowOf(Looper.getMainLooper()).idleFor(10, TimeUnit.SECONDS);
+    }
+
+    private static RecordingCanvas record(View view, Frame frame) {
+        RecordingCanvas canvas = new RecordingCanvas(view.getWidth(), view.getHeight());
+        frame.draw(canvas);
+        return canvas;
+    }
+
+    // Robolectric's shadow of View.getGlobalVisibleRect allocates on every call, and views that cull
+    // to the part of them on screen ask for it once a frame. A device's doesn't allocate.
+    private static long allocatedBytesPerCullingFrame(final View view, Frame frame) {
+        final Rect visible = new Rect();
+        return allocatedBytesPerFrame(view, frame, new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                view.getLocalVisibleRect(visible);
+            }
+        });
+    }
+
+    // Robolectric's shadow of Drawable.invalidateSelf allocates too, and a drawable invalidates
+    // itself whenever its bounds move, e.g. for every popup drawn
+    private static Frame movingDrawable(final int moves) {
+        final ColorDrawable drawable = new ColorDrawable();
+        drawable.setBounds(0, 0, 1, 1);
+        return new Frame() {
+            @Override
+            public void draw(Canvas canvas) {
+                for (int i = 0; i < moves; i++) {
+                    drawable.setBounds(0, 0, 3 - drawable.getBounds().right, 1);
+                }
+            }
+        };
+    }
+
+    private static long allocatedBytesPerFrame(View view, Frame frame) {
+        return allocatedBytesPerFrame(view, frame, EMPTY_FRAME);
+    }
+
+    // Less what the baseline frame allocates by itself
+    private static long allocatedBytesPerFrame(View view, Frame frame, Frame baseline) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        RecordingCanvas canvas = new RecordingCanvas(view.getWidth(), view.getHeight());
+        canvas.setCountPathSegments(false);
+        // Warms up the measuring as well as the frame, its first readings include one-off setup
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            allocatedBytes(threads, frame, canvas);
+            allocatedBytes(threads, baseline, canvas);
+        }
+        // The JIT and Robolectric's interception allocate while code paths are still being
+        // compiled, which can take a while. Allocations the frame itself makes show up in every
+        // round, so the quietest round counts.
+        long bytes = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            // Less what the measuring loop costs by itself
+            bytes = Math.min(bytes, allocatedBytes(threads, frame, canvas)
+                    - allocatedBytes(threads, baseline, canvas));
+        }
+        return Math.max(0, bytes / MEASURED_FRAMES);
+    }
+
+    private static long allocatedBytes(com.sun.management.ThreadMXBean threads, Frame frame,
+                                       Canvas canvas) {
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            frame.draw(canvas);
+        }
+        return threads.getThreadAllocatedBytes(thread) - before;
+    }
+
+    private static void assertBudget(String what, long actual, long budget) {
+        assertTrue(what + ": " + actual + " over the budget of " + budget, actual <= budget);
+    }
+}
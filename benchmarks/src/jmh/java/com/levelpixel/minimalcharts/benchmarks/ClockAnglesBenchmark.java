@@ -0,0 +1,81 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.ClockAngles;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of times to clock angles, from wall-clock fields and from epoch millis spread over a
+ * year of a zone with DST.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClockAnglesBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private int[] hours;
+    private int[] minutes;
+    private long[] startMillis;
+    private long[] endMillis;
+    private float[] starts;
+    private float[] ends;
+    private final TimeZone zone = TimeZone.getTimeZone("Europe/Berlin");
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        hours = new int[size];
+        minutes = new int[size];
+        startMillis = new long[size];
+        endMillis = new long[size];
+        long year = 365L * 24 * 60 * 60 * 1000;
+        long first = 1_700_000_000_000L;
+        for (int i = 0; i < size; i++) {
+            hours[i] = random.nextInt(24);
+            minutes[i] = random.nextInt(60);
+            // Sorted like a real history, so consecutive intervals mostly share a day
+            startMillis[i] = first + year * i / size;
+            endMillis[i] = startMillis[i] + random.nextInt(4 * 60 * 60 * 1000);
+        }
+        starts = new float[size];
+        ends = new float[size];
+    }
+
+    @Benchmark
+    public float[] angleOf() {
+        for (int i = 0; i < size; i++) {
+            starts[i] = ClockAngles.angleOf(hours[i], minutes[i], 0);
+        }
+        return starts;
+    }
+
+    @Benchmark
+    public float[] fromEpochMillis() {
+        ClockAngles.fromEpochMillis(startMillis, endMillis, size, zone, starts, ends);
+        return ends;
+    }
+}
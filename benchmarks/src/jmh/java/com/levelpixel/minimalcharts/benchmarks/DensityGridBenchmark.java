@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.DensityGrid;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting normally distributed points into a grid the size of a 1080 x 720 plot, as a scatter
+ * chart does once per data change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DensityGridBenchmark {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private float[] xs;
+    private float[] ys;
+    private final float[] extent = new float[4];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        xs = new float[size];
+        ys = new float[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = (float) random.nextGaussian();
+            ys[i] = (float) random.nextGaussian();
+        }
+        DensityGrid.extent(xs, ys, size, extent);
+    }
+
+    @Benchmark
+    public float[] extent() {
+        DensityGrid.extent(xs, ys, size, extent);
+        return extent;
+    }
+
+    @Benchmark
+    public DensityGrid count() {
+        return DensityGrid.compute(xs, ys, size, extent[0], extent[1], extent[2], extent[3],
+                WIDTH, HEIGHT);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.Histogram;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binning normally distributed samples with a fixed bin width and with the automatic
+ * Freedman–Diaconis width.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistogramBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private double[] samples;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        samples = new double[size];
+        for (int i = 0; i < size; i++) {
+            samples[i] = random.nextGaussian() * 100;
+        }
+    }
+
+    @Benchmark
+    public Histogram fixedWidth() {
+        return Histogram.compute(samples, Histogram.BinSpec.fixedWidth(5));
+    }
+
+    @Benchmark
+    public Histogram auto() {
+        return Histogram.compute(samples, Histogram.BinSpec.auto());
+    }
+}
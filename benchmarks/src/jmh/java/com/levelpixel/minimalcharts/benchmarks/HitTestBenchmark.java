@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.PieHitTester;
+import com.levelpixel.minimalcharts.core.PointHitTester;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Touch lookups against a pie of size slices and a line of size points, 1024 touches per
+ * operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HitTestBenchmark {
+
+    private static final int TOUCHES = 1024;
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private final PieHitTester pie = new PieHitTester();
+    private int[] xs;
+    private float[] ys;
+    private final float[] touchDx = new float[TOUCHES];
+    private final float[] touchDy = new float[TOUCHES];
+    private final int[] touchX = new int[TOUCHES];
+    private final int[] touchY = new int[TOUCHES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        float[] sweeps = new float[size];
+        for (int i = 0; i < size; i++) {
+            sweeps[i] = 360f / size;
+        }
+        pie.setSlices(270, sweeps, size);
+
+        xs = new int[size];
+        ys = new float[size];
+        for (int i = 0; i < size; i++) {
+            xs[i] = i * 4;
+            ys[i] = random.nextFloat() * 600;
+        }
+        for (int t = 0; t < TOUCHES; t++) {
+            touchDx[t] = random.nextFloat() * 400 - 200;
+            touchDy[t] = random.nextFloat() * 400 - 200;
+            int point = random.nextInt(size);
+            touchX[t] = xs[point] + 1;
+            touchY[t] = (int) ys[point] + 1;
+        }
+    }
+
+    @Benchmark
+    public int pieSlice() {
+        int sum = 0;
+        for (int t = 0; t < TOUCHES; t++) {
+            sum += pie.findSlice(touchDx[t], touchDy[t], 0, 200);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int linePoint() {
+        int sum = 0;
+        for (int t = 0; t < TOUCHES; t++) {
+            sum += PointHitTester.find(xs, ys, size, touchX[t], touchY[t], 8);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.KeyedDiff;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffing an update that appended one key, which stays on the linear prefix path, a sliding window
+ * that advanced by one key and a shuffled update, which both go through the hash and LCS path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeyedDiffBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private long[] oldKeys;
+    private long[] appendedKeys;
+    private long[] slidKeys;
+    private long[] shuffledKeys;
+
+    @Setup
+    public void setUp() {
+        oldKeys = new long[size];
+        appendedKeys = new long[size + 1];
+        slidKeys = new long[size];
+        shuffledKeys = new long[size];
+        for (int i = 0; i < size; i++) {
+            oldKeys[i] = i;
+            appendedKeys[i] = i;
+            slidKeys[i] = i + 1;
+            shuffledKeys[i] = i;
+        }
+        appendedKeys[size] = size;
+        Random random = new Random(42);
+        for (int i = size - 2; i > 1; i--) {
+            int j = 1 + random.nextInt(i);
+            long key = shuffledKeys[i];
+            shuffledKeys[i] = shuffledKeys[j];
+            shuffledKeys[j] = key;
+        }
+    }
+
+    @Benchmark
+    public KeyedDiff appended() {
+        return KeyedDiff.compute(oldKeys, size, appendedKeys, size + 1);
+    }
+
+    @Benchmark
+    public KeyedDiff slidingWindow() {
+        return KeyedDiff.compute(oldKeys, size, slidKeys, size);
+    }
+
+    @Benchmark
+    public KeyedDiff shuffled() {
+        return KeyedDiff.compute(oldKeys, size, shuffledKeys, size);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.Motion;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One animation frame over every element, the per-frame cost of Dot.update, PieHelper.update and
+ * the ClockPieView arrays. Targets alternate so the elements never come to rest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MotionBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private float[] current;
+    private float[] up;
+    private float[] down;
+    private boolean rising;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        current = new float[size];
+        up = new float[size];
+        down = new float[size];
+        for (int i = 0; i < size; i++) {
+            current[i] = random.nextFloat() * 500;
+            up[i] = 1000 + random.nextFloat() * 500;
+            down[i] = -random.nextFloat() * 500;
+        }
+    }
+
+    @Benchmark
+    public boolean step() {
+        rising = !rising;
+        return Motion.step(current, rising ? up : down, size, 5);
+    }
+}
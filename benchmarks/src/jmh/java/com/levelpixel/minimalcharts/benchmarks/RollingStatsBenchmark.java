@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.RollingExtremes;
+import com.levelpixel.minimalcharts.core.RollingMoments;
+import com.levelpixel.minimalcharts.core.RollingQuantile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming a million samples through each rolling statistic. The time should not grow with the
+ * window, every statistic costs O(1) amortized per sample.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RollingStatsBenchmark {
+
+    private static final int SAMPLES = 1_000_000;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int window;
+
+    private float[] samples;
+    private RollingMoments moments;
+    private RollingExtremes extremes;
+    private RollingQuantile quantile;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        samples = new float[SAMPLES];
+        // A random walk, so the extremes keep changing
+        float value = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            value += (float) random.nextGaussian();
+            samples[i] = value;
+        }
+        moments = new RollingMoments(window);
+        extremes = new RollingExtremes(window);
+        quantile = new RollingQuantile(window, 0.95);
+    }
+
+    @Benchmark
+    public double moments() {
+        moments.reset();
+        for (float sample : samples) {
+            moments.add(sample);
+        }
+        return moments.getVariance();
+    }
+
+    @Benchmark
+    public float extremes() {
+        extremes.reset();
+        for (float sample : samples) {
+            extremes.add(sample);
+        }
+        return extremes.getMax();
+    }
+
+    @Benchmark
+    public double quantile() {
+        quantile.reset();
+        for (float sample : samples) {
+            quantile.add(sample);
+        }
+        return quantile.get();
+    }
+}
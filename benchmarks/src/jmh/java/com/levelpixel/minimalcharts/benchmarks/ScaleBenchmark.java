@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.benchmarks;
+
+import com.levelpixel.minimalcharts.core.Scale;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extent scan and y-projection of a whole line, as done once per data change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScaleBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private float[] values;
+    private float[] projected;
+    private final float[] extent = new float[2];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new float[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextFloat() * 1000;
+        }
+        projected = new float[size];
+    }
+
+    @Benchmark
+    public float[] extent() {
+        Scale.extent(values, 0, size, extent);
+        return extent;
+    }
+
+    @Benchmark
+    public float[] project() {
+        Scale.project(values, size, Scale.gridCount(1000, 4), 20, 600, projected);
+        return projected;
+    }
+}
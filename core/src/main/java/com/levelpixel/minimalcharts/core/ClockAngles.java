@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.TimeZone;
+
+/**
+ * Conversions from times of day to the ClockPie angle convention: 270° is midnight and one day
+ * spans 360°.
+ */
+public final class ClockAngles {
+
+    private ClockAngles() {
+    }
+
+    public static float angleOf(int hour, int minute, int second) {
+        return 270 + hour * 15 + minute * 15 / 60f + second * 15 / 3600f;
+    }
+
+    /**
+     * Converts many epoch-millis intervals to start and end angles in one pass, without any
+     * calendar object per interval. Zone offsets are looked up once per day. The angles are the
+     * wall-clock start and end, with the end moved past the start.
+     *
+     * @param zone     Time zone whose wall clock the dial shows.
+     * @param outStart Receives the start angle of each interval.
+     * @param outEnd   Receives the end angle of each interval.
+     */
+    public static void fromEpochMillis(long[] startMillis, long[] endMillis, int count,
+                                       TimeZone zone, float[] outStart, float[] outEnd) {
+        ZoneOffsetCache offsets = new ZoneOffsetCache(zone);
+        float degreesPerMilli = 360f / ZoneOffsetCache.MILLIS_PER_DAY;
+        for (int i = 0; i < count; i++) {
+            float start = 270 + offsets.getMillisOfDay(startMillis[i]) * degreesPerMilli;
+            float end = 270 + offsets.getMillisOfDay(endMillis[i]) * degreesPerMilli;
+            while (end < start) {
+                end += 360;
+            }
+            outStart[i] = start;
+            outEnd[i] = end;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.TimeZone;
+
+/**
+ * Counts, for every minute of the day, how many events were active during it.
+ * <p>
+ * Each event adds +1 at its first minute and -1 after its last one in a difference array, and a
+ * prefix sum turns that into per-minute counts, so accumulating costs O(events + 1440) no matter
+ * how long the events are.
+ */
+public final class ClockHeatmap {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final long MILLIS_PER_MINUTE = 60 * 1000;
+
+    private final int[] counts = new int[MINUTES_PER_DAY];
+    private int maxCount;
+
+    /**
+     * Replaces the counts with the given events. A minute counts as active when an event covers
+     * any part of it; events spanning several days count once for each day. Both ends are read off
+     * the wall clock of their own instant, and an event that sees the clocks change is split where
+     * they do, so it covers the minutes the clock actually showed.
+     *
+     * @param startMillis Epoch millis each event starts at.
+     * @param endMillis   Epoch millis each event ends at.
+     * @param zone        Time zone whose wall clock the minutes refer to.
+     */
+    public void accumulate(long[] startMillis, long[] endMillis, int count, TimeZone zone) {
+        // One extra slot so the -1 after the last minute of the day needs no check
+        int[] diff = new int[MINUTES_PER_DAY + 1];
+        int fullDays = 0;
+        ZoneOffsetCache offsets = new ZoneOffsetCache(zone);
+        for (int i = 0; i < count; i++) {
+            fullDays += add(diff, offsets, startMillis[i], endMillis[i]);
+        }
+
+        int running = fullDays;
+        maxCount = 0;
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            running += diff[minute];
+            counts[minute] = running;
+            maxCount = Math.max(maxCount, running);
+        }
+    }
+
+    /**
+     * Adds the event to the difference array.
+     *
+     * @return How many full days the event covers, they are not in the array.
+     */
+    private static int add(int[] diff, ZoneOffsetCache offsets, long startMillis, long endMillis) {
+        if (endMillis <= startMillis) return 0;
+        int startOffset = offsets.getOffset(startMillis);
+        // The end is exclusive, its wall clock is the one shown just before it
+        int endOffset = offsets.getOffset(endMillis - 1);
+        if (startOffset != endOffset) {
+            // Bisect for the first instant past the start's offset, then add both sides
+            long low = startMillis;
+            long high = endMillis - 1;
+            while (high - low > 1) {
+                long mid = low + (high - low) / 2;
+                if (offsets.getOffset(mid) == startOffset) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return add(diff, offsets, startMillis, high) + add(diff, offsets, high, endMillis);
+        }
+
+        long startMinute = ZoneOffsetCache.floorDiv(startMillis + startOffset, MILLIS_PER_MINUTE);
+        long endMinute = -ZoneOffsetCache.floorDiv(-(endMillis + endOffset), MILLIS_PER_MINUTE);
+        long minutes = endMinute - startMinute;
+        int fullDays = (int) (minutes / MINUTES_PER_DAY);
+        int remainder = (int) (minutes % MINUTES_PER_DAY);
+        int first = (int) (startMinute
+                - ZoneOffsetCache.floorDiv(startMinute, MINUTES_PER_DAY) * MINUTES_PER_DAY);
+        int last = first + remainder;
+        diff[first]++;
+        if (last <= MINUTES_PER_DAY) {
+            diff[last]--;
+        } else {
+            // Wraps past midnight
+            diff[MINUTES_PER_DAY]--;
+            diff[0]++;
+            diff[last - MINUTES_PER_DAY]--;
+        }
+        return fullDays;
+    }
+
+    /**
+     * Replaces the counts with ones taken from {@link #getCount(int)} earlier.
+     *
+     * @param counts One count per minute of the day.
+     */
+    public void setCounts(int[] counts) {
+        if (counts.length != MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Expected " + MINUTES_PER_DAY + " counts, got "
+                    + counts.length);
+        }
+        maxCount = 0;
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            this.counts[minute] = counts[minute];
+            maxCount = Math.max(maxCount, counts[minute]);
+        }
+    }
+
+    /**
+     * @param minute Minute of the day, 0 is midnight.
+     */
+    public int getCount(int minute) {
+        return counts[minute];
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.Arrays;
+
+/**
+ * Centered interval tree answering "which intervals cover this angle" in O(log n + k).
+ * <p>
+ * Each node keeps the pieces that contain its center twice, sorted by start and by end, so a
+ * query only ever walks pieces that match plus one path from the root. Nodes are stored in flat
+ * arrays to keep the tree compact for thousands of intervals.
+ */
+public final class ClockIntervalTree {
+
+    private final ClockIntervals intervals;
+    // Node n covers byStart/byEnd[nodeOffset[n], nodeOffset[n] + nodeSize[n])
+    private final float[] nodeCenter;
+    private final int[] nodeLeft;
+    private final int[] nodeRight;
+    private final int[] nodeOffset;
+    private final int[] nodeSize;
+    // Piece indices, sorted by ascending start and by descending end within each node
+    private final int[] byStart;
+    private final int[] byEnd;
+    private int nodeCount;
+    private int pieceCount;
+    private final int root;
+    // Marks input intervals already reported by the current query
+    private final int[] reportedIn;
+    private int query;
+
+    public ClockIntervalTree(ClockIntervals intervals) {
+        this.intervals = intervals;
+        int size = intervals.size;
+        nodeCenter = new float[size];
+        nodeLeft = new int[size];
+        nodeRight = new int[size];
+        nodeOffset = new int[size];
+        nodeSize = new int[size];
+        byStart = new int[size];
+        byEnd = new int[size];
+        int sources = 0;
+        for (int i = 0; i < size; i++) {
+            sources = Math.max(sources, intervals.sources[i] + 1);
+        }
+        reportedIn = new int[sources];
+
+        // Pieces come sorted by start, which the per-node lists rely on
+        int[] pieces = new int[size];
+        for (int i = 0; i < size; i++) {
+            pieces[i] = i;
+        }
+        root = build(pieces, size);
+    }
+
+    private int build(int[] pieces, int count) {
+        if (count == 0) return -1;
+
+        float[] starts = intervals.starts;
+        float[] ends = intervals.ends;
+        // The middle start splits the pieces into two halves of similar size
+        float center = starts[pieces[count / 2]];
+        int[] left = new int[count];
+        int[] right = new int[count];
+        int leftCount = 0;
+        int rightCount = 0;
+        int node = nodeCount++;
+        nodeOffset[node] = pieceCount;
+        for (int i = 0; i < count; i++) {
+            int piece = pieces[i];
+            if (ends[piece] <= center) {
+                left[leftCount++] = piece;
+            } else if (starts[piece] > center) {
+                right[rightCount++] = piece;
+            } else {
+                byStart[pieceCount++] = piece;
+            }
+        }
+        nodeSize[node] = pieceCount - nodeOffset[node];
+        nodeCenter[node] = center;
+
+        // Same pieces ordered by descending end, via packed (inverted end bits, piece) keys
+        long[] keys = new long[nodeSize[node]];
+        for (int i = 0; i < keys.length; i++) {
+            int piece = byStart[nodeOffset[node] + i];
+            keys[i] = ((long) ~Float.floatToIntBits(ends[piece]) << 32) | piece;
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < keys.length; i++) {
+            byEnd[nodeOffset[node] + i] = (int) keys[i];
+        }
+
+        nodeLeft[node] = build(left, leftCount);
+        nodeRight[node] = build(right, rightCount);
+        return node;
+    }
+
+    /**
+     * Finds the intervals covering the angle.
+     *
+     * @param angle Any angle in the ClockPie convention, it is normalized first.
+     * @param out   Receives the indices of the covering input intervals, must be large enough to
+     *              hold every input interval.
+     * @return How many indices were written to out.
+     */
+    public int query(float angle, int[] out) {
+        float t = ClockIntervals.normalize(angle);
+        float[] starts = intervals.starts;
+        float[] ends = intervals.ends;
+        query++;
+        int found = 0;
+        int node = root;
+        while (node >= 0) {
+            int from = nodeOffset[node];
+            int to = from + nodeSize[node];
+            if (t < nodeCenter[node]) {
+                for (int i = from; i < to && starts[byStart[i]] <= t; i++) {
+                    found = report(byStart[i], out, found);
+                }
+                node = nodeLeft[node];
+            } else {
+                for (int i = from; i < to && ends[byEnd[i]] > t; i++) {
+                    found = report(byEnd[i], out, found);
+                }
+                node = nodeRight[node];
+            }
+        }
+        return found;
+    }
+
+    private int report(int piece, int[] out, int found) {
+        int source = intervals.sources[piece];
+        // A full-day interval is split into two pieces that can both touch the query angle
+        if (reportedIn[source] == query) return found;
+        reportedIn[source] = query;
+        out[found] = source;
+        return found + 1;
+    }
+}
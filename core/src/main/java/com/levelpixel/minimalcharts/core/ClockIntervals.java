@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.Arrays;
+
+/**
+ * Sweep-line helpers for clock intervals given as start and end angles.
+ * <p>
+ * Angles use the ClockPie convention: 270° is midnight and one day spans 360°. Intervals
+ * are normalized onto one lap, [270, 630), and the ones that cross midnight are split in two, so
+ * overlaps are found no matter which lap an angle was expressed in. All intervals are half-open.
+ */
+public final class ClockIntervals {
+
+    /**
+     * Angle of midnight, where a lap starts.
+     */
+    public static final float LAP_START = 270;
+    /**
+     * Angle of the next midnight, where a lap ends.
+     */
+    public static final float LAP_END = LAP_START + 360;
+
+    // Normalized pieces of the input, at most two per interval
+    final float[] starts;
+    final float[] ends;
+    // Index of the input interval each piece came from
+    final int[] sources;
+    final int size;
+
+    private ClockIntervals(float[] starts, float[] ends, int[] sources, int size) {
+        this.starts = starts;
+        this.ends = ends;
+        this.sources = sources;
+        this.size = size;
+    }
+
+    /**
+     * Normalizes the intervals onto one lap and sorts the pieces by start.
+     *
+     * @param starts Start angle of each interval.
+     * @param ends   End angle of each interval, intervals longer than a day cover the whole lap.
+     */
+    public static ClockIntervals of(float[] starts, float[] ends, int count) {
+        float[] pieceStarts = new float[count * 2];
+        float[] pieceEnds = new float[count * 2];
+        int[] pieceSources = new int[count * 2];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            float sweep = Math.min(360, ends[i] - starts[i]);
+            if (!(sweep > 0)) continue;
+
+            float start = normalize(starts[i]);
+            float end = start + sweep;
+            pieceStarts[size] = start;
+            pieceEnds[size] = Math.min(end, LAP_END);
+            pieceSources[size++] = i;
+            if (end > LAP_END) {
+                pieceStarts[size] = LAP_START;
+                pieceEnds[size] = end - 360;
+                pieceSources[size++] = i;
+            }
+        }
+
+        // Sort by start through packed (start bits, piece) keys. The angles are positive, so their
+        // IEEE bits order the same way the floats do.
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) Float.floatToIntBits(pieceStarts[i]) << 32) | i;
+        }
+        Arrays.sort(keys);
+        float[] sortedStarts = new float[size];
+        float[] sortedEnds = new float[size];
+        int[] sortedSources = new int[size];
+        for (int i = 0; i < size; i++) {
+            int piece = (int) keys[i];
+            sortedStarts[i] = pieceStarts[piece];
+            sortedEnds[i] = pieceEnds[piece];
+            sortedSources[i] = pieceSources[piece];
+        }
+        return new ClockIntervals(sortedStarts, sortedEnds, sortedSources, size);
+    }
+
+    /**
+     * @return The angle moved onto [{@link #LAP_START}, {@link #LAP_END}).
+     */
+    public static float normalize(float angle) {
+        float offset = (angle - LAP_START) % 360;
+        if (offset < 0) offset += 360;
+        return LAP_START + offset;
+    }
+
+    /**
+     * Merges overlapping and touching intervals into the minimal set of disjoint ranges.
+     *
+     * @return Flat [start0, end0, start1, end1, ...] array of the merged ranges, in order.
+     */
+    public float[] merge() {
+        float[] merged = new float[size * 2];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (count > 0 && starts[i] <= merged[count - 1]) {
+                merged[count - 1] = Math.max(merged[count - 1], ends[i]);
+            } else {
+                merged[count++] = starts[i];
+                merged[count++] = ends[i];
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+
+    /**
+     * Splits the covered part of the lap into disjoint segments, each with the number of
+     * intervals overlapping it. Neighbouring segments of equal depth are joined.
+     *
+     * @return Flat [start0, end0, depth0, start1, end1, depth1, ...] array, in order.
+     */
+    public float[] mergeWithDepth() {
+        // Every piece contributes a +1 event at its start and a -1 event at its end
+        float[] endsSorted = Arrays.copyOf(ends, size);
+        Arrays.sort(endsSorted);
+
+        float[] segments = new float[size * 6];
+        int count = 0;
+        int depth = 0;
+        int s = 0;
+        int e = 0;
+        float position = 0;
+        while (s < size || e < size) {
+            float nextStart = s < size ? starts[s] : Float.POSITIVE_INFINITY;
+            float nextEnd = e < size ? endsSorted[e] : Float.POSITIVE_INFINITY;
+            float next = Math.min(nextStart, nextEnd);
+            if (depth > 0 && next > position) {
+                if (count > 0 && segments[count - 1] == depth && segments[count - 2] == position) {
+                    segments[count - 2] = next;
+                } else {
+                    segments[count++] = position;
+                    segments[count++] = next;
+                    segments[count++] = depth;
+                }
+            }
+            // Apply every event at this position before emitting the next segment
+            while (s < size && starts[s] == next) {
+                depth++;
+                s++;
+            }
+            while (e < size && endsSorted[e] == next) {
+                depth--;
+                e++;
+            }
+            position = next;
+        }
+        return Arrays.copyOf(segments, count);
+    }
+}
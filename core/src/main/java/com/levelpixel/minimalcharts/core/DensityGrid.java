@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts how many (x, y) points fall into each cell of a grid laid over a data range, e.g. one
+ * cell per pixel of a scatter plot. Counting is split across the {@link Histogram#pool()}: each
+ * partition counts into its own {@code int[]} grid and the grids are added up pairwise, so no
+ * cell is ever shared between threads. There are at most as many partitions as the pool has
+ * threads, and no more than fit in {@link #GRID_BUDGET_BYTES} since every one of them costs a
+ * whole grid. A grid too large for two copies is counted on the calling thread.
+ * <p>
+ * Cells are stored row by row from the top, the row with the largest y first, the way a bitmap
+ * is laid out.
+ */
+public final class DensityGrid {
+
+    // Below this many points a partition is counted on the calling thread
+    private static final int MIN_PARTITION_SIZE = 1 << 16;
+    // Memory all partition grids of one compute() may hold at once
+    private static final long GRID_BUDGET_BYTES = 32L << 20;
+
+    private final int width;
+    private final int height;
+    private final int[] counts;
+    private final int maxCount;
+
+    private DensityGrid(int width, int height, int[] counts) {
+        this.width = width;
+        this.height = height;
+        this.counts = counts;
+        int max = 0;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        this.maxCount = max;
+    }
+
+    /**
+     * Points outside the range, or with a NaN coordinate, are not counted. The largest x and y
+     * still fall into the last column and the top row.
+     *
+     * @param count Points to count, xs[0, count) and ys[0, count).
+     */
+    public static DensityGrid compute(float[] xs, float[] ys, int count, float minX, float maxX,
+                                      float minY, float maxY, int width, int height) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Grid size " + width + "x" + height);
+        }
+        ForkJoinPool pool = Histogram.pool();
+        long gridBytes = (long) width * height * 4;
+        long partitions = Math.min(pool.getParallelism(), Math.max(1, GRID_BUDGET_BYTES / gridBytes));
+        partitions = Math.max(1, Math.min(partitions, count / MIN_PARTITION_SIZE));
+        CountTask task = new CountTask(xs, ys, count, (int) partitions, 0, (int) partitions, minX,
+                maxX, minY, maxY, width, height);
+        int[] counts = partitions == 1 ? task.count() : pool.invoke(task);
+        return new DensityGrid(width, height, counts);
+    }
+
+    /**
+     * Finds the finite extent of the points.
+     *
+     * @param out Receives min x, max x, min y and max y, or infinities when no point is finite.
+     */
+    public static void extent(float[] xs, float[] ys, int count, float[] out) {
+        float minX = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float minY = Float.POSITIVE_INFINITY;
+        float maxY = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            float x = xs[i];
+            float y = ys[i];
+            // x - x is NaN for NaN and infinite coordinates, those points are skipped
+            if (x - x != 0 || y - y != 0) continue;
+            if (x < minX) minX = x;
+            if (x > maxX) maxX = x;
+            if (y < minY) minY = y;
+            if (y > maxY) maxY = y;
+        }
+        out[0] = minX;
+        out[1] = maxX;
+        out[2] = minY;
+        out[3] = maxY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param column From the left, in [0, width).
+     * @param row    From the top, in [0, height).
+     */
+    public int getCount(int column, int row) {
+        return counts[row * width + column];
+    }
+
+    /**
+     * @return The count of cell i, in row-major order from the top left.
+     */
+    public int getCount(int cell) {
+        return counts[cell];
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    private static final class CountTask extends RecursiveTask<int[]> {
+        private final float[] xs;
+        private final float[] ys;
+        private final int count;
+        private final int partitions;
+        // Partitions [first, last) of the points, so there is exactly one grid per partition
+        private final int first;
+        private final int last;
+        private final float minX;
+        private final float maxX;
+        private final float minY;
+        private final float maxY;
+        private final int width;
+        private final int height;
+
+        CountTask(float[] xs, float[] ys, int count, int partitions, int first, int last,
+                  float minX, float maxX, float minY, float maxY, int width, int height) {
+            this.xs = xs;
+            this.ys = ys;
+            this.count = count;
+            this.partitions = partitions;
+            this.first = first;
+            this.last = last;
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (last - first <= 1) {
+                return count();
+            }
+            int mid = (first + last) >>> 1;
+            CountTask left = new CountTask(xs, ys, count, partitions, first, mid, minX, maxX,
+                    minY, maxY, width, height);
+            left.fork();
+            int[] right = new CountTask(xs, ys, count, partitions, mid, last, minX, maxX, minY,
+                    maxY, width, height).compute();
+            int[] result = left.join();
+            for (int i = 0; i < result.length; i++) {
+                result[i] += right[i];
+            }
+            return result;
+        }
+
+        int[] count() {
+            int from = (int) ((long) count * first / partitions);
+            int to = (int) ((long) count * last / partitions);
+            int[] counts = new int[width * height];
+            // A zero extent puts every point of the range into the first column or bottom row
+            float scaleX = maxX > minX ? width / (maxX - minX) : 0;
+            float scaleY = maxY > minY ? height / (maxY - minY) : 0;
+            int lastColumn = width - 1;
+            int lastRow = height - 1;
+            for (int i = from; i < to; i++) {
+                float x = xs[i];
+                float y = ys[i];
+                // Also false for NaN
+                if (!(x >= minX && x <= maxX && y >= minY && y <= maxY)) continue;
+                int column = Math.min(lastColumn, (int) ((x - minX) * scaleX));
+                int row = lastRow - Math.min(lastRow, (int) ((y - minY) * scaleY));
+                counts[row * width + column]++;
+            }
+            return counts;
+        }
+    }
+}
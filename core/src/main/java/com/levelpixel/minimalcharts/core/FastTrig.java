@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Sine and cosine of angles in degrees from a quarter-degree lookup table with linear
+ * interpolation. The error stays below 3e-6, far under a pixel for any realistic radius.
+ */
+public final class FastTrig {
+
+    private static final int STEPS_PER_DEGREE = 4;
+    private static final int TABLE_SIZE = 360 * STEPS_PER_DEGREE;
+    // One extra entry so interpolation never has to wrap
+    private static final float[] SIN = new float[TABLE_SIZE + 1];
+
+    static {
+        for (int i = 0; i <= TABLE_SIZE; i++) {
+            SIN[i] = (float) Math.sin(Math.toRadians(i / (double) STEPS_PER_DEGREE));
+        }
+    }
+
+    private FastTrig() {
+    }
+
+    public static float sin(float degrees) {
+        float position = (degrees % 360) * STEPS_PER_DEGREE;
+        if (position < 0) {
+            position += TABLE_SIZE;
+        }
+        int index = (int) position;
+        if (index >= TABLE_SIZE) {
+            // Rounding of tiny negative angles can land exactly on the end of the table
+            index -= TABLE_SIZE;
+            position -= TABLE_SIZE;
+        }
+        float fraction = position - index;
+        return SIN[index] + (SIN[index + 1] - SIN[index]) * fraction;
+    }
+
+    public static float cos(float degrees) {
+        return sin(degrees + 90);
+    }
+}
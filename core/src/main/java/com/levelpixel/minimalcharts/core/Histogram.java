@@ -0,0 +1,274 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bins raw samples into equal-width buckets. Counting is split across a fork/join pool, each
+ * partition counts into its own {@code int[]} and the partial counts are merged at the end.
+ * <p>
+ * Computing a histogram can take a while for millions of samples, so it should not be done on
+ * the UI thread; ChartBarView.setHistogram does that for you.
+ */
+public final class Histogram {
+
+    /**
+     * Upper bound for the number of bins, wider bins are used when the spec asks for more.
+     */
+    public static final int MAX_BINS = 4096;
+
+    // Samples used to estimate the interquartile range for Freedman–Diaconis
+    private static final int IQR_SAMPLE_SIZE = 1 << 16;
+    // Below this many samples a partition is counted on the calling thread
+    private static final int MIN_PARTITION_SIZE = 1 << 15;
+
+    private final double min;
+    private final double binWidth;
+    private final int[] counts;
+    private final int maxCount;
+
+    private Histogram(double min, double binWidth, int[] counts) {
+        this.min = min;
+        this.binWidth = binWidth;
+        this.counts = counts;
+        int max = 0;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        this.maxCount = max;
+    }
+
+    public static Histogram compute(double[] samples, BinSpec spec) {
+        return compute(samples, null, samples.length, spec);
+    }
+
+    public static Histogram compute(float[] samples, BinSpec spec) {
+        return compute(null, samples, samples.length, spec);
+    }
+
+    private static Histogram compute(double[] doubles, float[] floats, int length, BinSpec spec) {
+        ForkJoinPool pool = PoolHolder.POOL;
+        int partitionSize = Math.max(MIN_PARTITION_SIZE, length / (pool.getParallelism() * 4));
+
+        double[] range = pool.invoke(new RangeTask(doubles, floats, 0, length, partitionSize));
+        double min = range[0];
+        double max = range[1];
+        if (min > max) {
+            // No finite samples
+            return new Histogram(0, 1, new int[0]);
+        }
+
+        double extent = max - min;
+        double width = spec.width > 0 ? spec.width : freedmanDiaconisWidth(doubles, floats, length);
+        if (!(width > 0)) {
+            width = extent > 0 ? extent / (Math.ceil(Math.log(length) / Math.log(2)) + 1) : 1;
+        }
+        int binCount = (int) Math.min(MAX_BINS, Math.floor(extent / width) + 1);
+        if (binCount == MAX_BINS) {
+            width = Math.max(width, extent / MAX_BINS);
+        }
+
+        int[] counts = pool.invoke(
+                new CountTask(doubles, floats, 0, length, partitionSize, min, width, binCount));
+        return new Histogram(min, width, counts);
+    }
+
+    /**
+     * Freedman–Diaconis bin width, 2 × IQR / ∛n. The quartiles are estimated from an evenly
+     * strided subset so large inputs don't have to be copied and sorted.
+     */
+    private static double freedmanDiaconisWidth(double[] doubles, float[] floats, int length) {
+        int step = Math.max(1, length / IQR_SAMPLE_SIZE);
+        double[] subset = new double[(length + step - 1) / step];
+        int size = 0;
+        for (int i = 0; i < length; i += step) {
+            double v = doubles != null ? doubles[i] : floats[i];
+            if (v - v == 0) {
+                subset[size++] = v;
+            }
+        }
+        if (size < 4) return 0;
+
+        Arrays.sort(subset, 0, size);
+        double iqr = subset[(size * 3) / 4] - subset[size / 4];
+        return 2 * iqr / Math.cbrt(length);
+    }
+
+    public int getBinCount() {
+        return counts.length;
+    }
+
+    public int getCount(int bin) {
+        return counts[bin];
+    }
+
+    public int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * @return The inclusive lower edge of the bin.
+     */
+    public double getBinStart(int bin) {
+        return min + bin * binWidth;
+    }
+
+    public double getBinWidth() {
+        return binWidth;
+    }
+
+    /**
+     * Describes how samples are split into bins.
+     */
+    public static final class BinSpec {
+        final double width;
+
+        private BinSpec(double width) {
+            this.width = width;
+        }
+
+        /**
+         * @param width Width of every bin, in sample units.
+         */
+        public static BinSpec fixedWidth(double width) {
+            if (!(width > 0)) {
+                throw new IllegalArgumentException("Bin width must be positive: " + width);
+            }
+            return new BinSpec(width);
+        }
+
+        /**
+         * Picks the bin width from the data with the Freedman–Diaconis rule.
+         */
+        public static BinSpec auto() {
+            return new BinSpec(0);
+        }
+    }
+
+    /**
+     * @return The pool histograms are counted on, also fit for running {@link #compute} itself.
+     */
+    public static ForkJoinPool pool() {
+        return PoolHolder.POOL;
+    }
+
+    // Lazily created; ForkJoinPool.commonPool() needs API 24
+    private static final class PoolHolder {
+        static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    private static final class RangeTask extends RecursiveTask<double[]> {
+        private final double[] doubles;
+        private final float[] floats;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+
+        RangeTask(double[] doubles, float[] floats, int from, int to, int partitionSize) {
+            this.doubles = doubles;
+            this.floats = floats;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= partitionSize) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    double v = doubles != null ? doubles[i] : floats[i];
+                    // v - v is NaN for NaN and infinite samples, those are skipped
+                    if (v - v != 0) continue;
+                    if (v < min) min = v;
+                    if (v > max) max = v;
+                }
+                return new double[]{min, max};
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask left = new RangeTask(doubles, floats, from, mid, partitionSize);
+            left.fork();
+            double[] right = new RangeTask(doubles, floats, mid, to, partitionSize).compute();
+            double[] result = left.join();
+            result[0] = Math.min(result[0], right[0]);
+            result[1] = Math.max(result[1], right[1]);
+            return result;
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<int[]> {
+        private final double[] doubles;
+        private final float[] floats;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+        private final double min;
+        private final double width;
+        private final int binCount;
+
+        CountTask(double[] doubles, float[] floats, int from, int to, int partitionSize,
+                  double min, double width, int binCount) {
+            this.doubles = doubles;
+            this.floats = floats;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+            this.min = min;
+            this.width = width;
+            this.binCount = binCount;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= partitionSize) {
+                return count();
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(doubles, floats, from, mid, partitionSize, min, width,
+                    binCount);
+            left.fork();
+            int[] right = new CountTask(doubles, floats, mid, to, partitionSize, min, width,
+                    binCount).compute();
+            int[] result = left.join();
+            for (int i = 0; i < binCount; i++) {
+                result[i] += right[i];
+            }
+            return result;
+        }
+
+        private int[] count() {
+            int[] counts = new int[binCount];
+            double scale = 1 / width;
+            int lastBin = binCount - 1;
+            if (doubles != null) {
+                for (int i = from; i < to; i++) {
+                    double v = doubles[i];
+                    if (v - v == 0) {
+                        counts[Math.min(lastBin, (int) ((v - min) * scale))]++;
+                    }
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    float v = floats[i];
+                    if (v - v == 0) {
+                        counts[Math.min(lastBin, (int) ((v - min) * scale))]++;
+                    }
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Matches the elements of a new dataset to the previous one by caller-supplied keys, so a view can
+ * keep the animation state of everything that was already there.
+ * <p>
+ * The common prefix and suffix are matched in linear time, which covers appends, prepends and
+ * in-place value updates. Whatever is left in the middle is matched through a hash of the old
+ * keys. Keys are expected to be unique, so the longest common subsequence of the two middles is
+ * the longest increasing run of matched old indices, found in O(k log k); matched elements off
+ * that run are reported as moved. A key repeated in the new data only matches once, later copies
+ * count as inserted.
+ */
+public final class KeyedDiff {
+
+    /**
+     * Old index of an element that has no counterpart in the old data.
+     */
+    public static final int INSERTED = -1;
+
+    // Old index of each new element, or INSERTED
+    private final int[] oldIndices;
+    private final boolean[] moved;
+    private final int removedCount;
+
+    private KeyedDiff(int[] oldIndices, boolean[] moved, int removedCount) {
+        this.oldIndices = oldIndices;
+        this.moved = moved;
+        this.removedCount = removedCount;
+    }
+
+    /**
+     * @param oldKeys  Keys of the previous data, in order.
+     * @param newKeys  Keys of the new data, in order.
+     */
+    public static KeyedDiff compute(long[] oldKeys, int oldCount, long[] newKeys, int newCount) {
+        int[] oldIndices = new int[newCount];
+        boolean[] moved = new boolean[newCount];
+        int limit = Math.min(oldCount, newCount);
+        int prefix = 0;
+        while (prefix < limit && oldKeys[prefix] == newKeys[prefix]) {
+            oldIndices[prefix] = prefix;
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && oldKeys[oldCount - 1 - suffix] == newKeys[newCount - 1 - suffix]) {
+            oldIndices[newCount - 1 - suffix] = oldCount - 1 - suffix;
+            suffix++;
+        }
+
+        int matched = prefix + suffix;
+        int oldEnd = oldCount - suffix;
+        int newEnd = newCount - suffix;
+        if (prefix == oldEnd) {
+            for (int j = prefix; j < newEnd; j++) {
+                oldIndices[j] = INSERTED;
+            }
+        } else if (prefix < newEnd) {
+            matched += matchMiddle(oldKeys, newKeys, prefix, oldEnd, newEnd, oldIndices, moved);
+        }
+        return new KeyedDiff(oldIndices, moved, oldCount - matched);
+    }
+
+    private static int matchMiddle(long[] oldKeys, long[] newKeys, int start, int oldEnd,
+                                   int newEnd, int[] oldIndices, boolean[] moved) {
+        // Open-addressed table of old key -> old index, sized to at most half full
+        int capacity = Integer.highestOneBit(Math.max(1, oldEnd - start) * 2) * 2;
+        int shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        long[] tableKeys = new long[capacity];
+        int[] tableIndices = new int[capacity];
+        for (int i = start; i < oldEnd; i++) {
+            int slot = slot(oldKeys[i], shift);
+            while (tableIndices[slot] != 0 && tableKeys[slot] != oldKeys[i]) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (tableIndices[slot] == 0) {
+                tableKeys[slot] = oldKeys[i];
+                tableIndices[slot] = i + 1;
+            }
+        }
+
+        boolean[] used = new boolean[oldEnd - start];
+        int matched = 0;
+        for (int j = start; j < newEnd; j++) {
+            int slot = slot(newKeys[j], shift);
+            int index = INSERTED;
+            while (tableIndices[slot] != 0) {
+                if (tableKeys[slot] == newKeys[j]) {
+                    index = tableIndices[slot] - 1;
+                    break;
+                }
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (index != INSERTED && used[index - start]) {
+                index = INSERTED;
+            }
+            if (index != INSERTED) {
+                used[index - start] = true;
+                moved[j] = true;
+                matched++;
+            }
+            oldIndices[j] = index;
+        }
+        markStable(oldIndices, start, newEnd, moved);
+        return matched;
+    }
+
+    private static int slot(long key, int shift) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    // Clears the moved flag along the longest increasing run of old indices, by patience sorting
+    private static void markStable(int[] oldIndices, int start, int end, boolean[] moved) {
+        int n = end - start;
+        // tails[l] is the new index ending the best run of length l + 1 found so far
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int j = start; j < end; j++) {
+            int index = oldIndices[j];
+            if (index == INSERTED) continue;
+
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (oldIndices[tails[mid]] < index) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[j - start] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = j;
+            if (low == length) length++;
+        }
+        for (int j = length > 0 ? tails[length - 1] : -1; j >= 0; j = previous[j - start]) {
+            moved[j] = false;
+        }
+    }
+
+    /**
+     * @return Index in the old data of the new element, or {@link #INSERTED}.
+     */
+    public int getOldIndex(int newIndex) {
+        return oldIndices[newIndex];
+    }
+
+    /**
+     * @return Whether the new element existed before but changed its order relative to the others.
+     */
+    public boolean isMoved(int newIndex) {
+        return moved[newIndex];
+    }
+
+    /**
+     * @return How many old elements have no counterpart in the new data.
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * The constant-velocity step the chart animations advance by on every frame.
+ */
+public final class Motion {
+
+    private Motion() {
+    }
+
+    /**
+     * @param velocity Distance covered per frame, the value lands on the target once it is closer
+     *                 than that.
+     * @return The value one frame closer to the target.
+     */
+    public static float step(float current, float target, float velocity) {
+        if (current < target) {
+            current += velocity;
+        } else if (current > target) {
+            current -= velocity;
+        }
+        if (Math.abs(target - current) < velocity) {
+            current = target;
+        }
+        return current;
+    }
+
+    /**
+     * Steps every value towards its target in place.
+     *
+     * @return True while any value is still short of its target.
+     */
+    public static boolean step(float[] current, float[] target, int count, float velocity) {
+        boolean moving = false;
+        for (int i = 0; i < count; i++) {
+            current[i] = step(current[i], target[i], velocity);
+            if (current[i] != target[i]) {
+                moving = true;
+            }
+        }
+        return moving;
+    }
+}
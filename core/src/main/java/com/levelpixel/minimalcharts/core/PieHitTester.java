@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Finds the slice under a point in O(log n). The cumulative slice ends are prepared once when the
+ * data is set, a lookup normalizes the touch angle once and binary searches them.
+ * <p>
+ * Angles follow Canvas.drawArc: degrees clockwise from 3 o'clock.
+ */
+public final class PieHitTester {
+
+    public static final int NO_SLICE = -1;
+
+    // Where the first slice starts
+    private float origin;
+    // End of slice i, relative to origin and ascending
+    private float[] cumulativeEnd = new float[0];
+    private int count;
+
+    /**
+     * @param originDegree Start angle of the first slice.
+     * @param sweeps       Sweep of each slice in degrees, in drawing order.
+     */
+    public void setSlices(float originDegree, float[] sweeps, int count) {
+        if (cumulativeEnd.length < count) {
+            cumulativeEnd = new float[count];
+        }
+        origin = originDegree;
+        float total = 0;
+        for (int i = 0; i < count; i++) {
+            total += Math.max(0, sweeps[i]);
+            cumulativeEnd[i] = total;
+        }
+        this.count = count;
+    }
+
+    /**
+     * @param dx X distance of the point from the center.
+     * @param dy Y distance of the point from the center.
+     * @return The slice index, or {@link #NO_SLICE} when the point falls in a gap of a pie that
+     * doesn't add up to 360°.
+     */
+    public int findSlice(float dx, float dy) {
+        if (count == 0) return NO_SLICE;
+
+        float angle = (float) Math.toDegrees(Math.atan2(dy, dx)) - origin;
+        angle %= 360;
+        if (angle < 0) angle += 360;
+
+        // First slice whose end lies past the angle
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeEnd[mid] > angle) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return cumulativeEnd[low] > angle ? low : NO_SLICE;
+    }
+
+    /**
+     * Like {@link #findSlice(float, float)}, but also rejects points outside the ring between the
+     * two radii.
+     */
+    public int findSlice(float dx, float dy, float innerRadius, float outerRadius) {
+        float distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared < innerRadius * innerRadius
+                || distanceSquared > outerRadius * outerRadius) {
+            return NO_SLICE;
+        }
+        return findSlice(dx, dy);
+    }
+}
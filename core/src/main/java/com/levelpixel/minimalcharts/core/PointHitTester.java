@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Finds the point of a series under a touch. The points are sorted by x, so only those whose x is
+ * close enough are looked at, found by binary search.
+ */
+public final class PointHitTester {
+
+    public static final int NO_POINT = -1;
+
+    private PointHitTester() {
+    }
+
+    /**
+     * @param xs       X of each point, ascending.
+     * @param ys       Y of each point.
+     * @param halfSize Half the side of the square around a point that counts as a hit.
+     * @return Index of the first point whose square contains (x, y), or {@link #NO_POINT}.
+     */
+    public static int find(int[] xs, float[] ys, int count, int x, int y, int halfSize) {
+        // First point that isn't left of the touch
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] + halfSize <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < count && xs[i] - halfSize <= x; i++) {
+            int pointY = (int) ys[i];
+            if (y >= pointY - halfSize && y < pointY + halfSize) {
+                return i;
+            }
+        }
+        return NO_POINT;
+    }
+}
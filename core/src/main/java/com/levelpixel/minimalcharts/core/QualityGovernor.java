@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Picks a quality level from recent frame durations. Level 0 is full quality, every level above it
+ * gives up one more costly feature; what each level drops is up to the chart that uses it.
+ * <p>
+ * Frames are judged a window at a time by their mean duration. One window over the budget steps
+ * the level up. Stepping back down takes several windows in a row under a fraction of the budget,
+ * so a level that only just fits is kept. When a level given back turns out too slow again right
+ * away, the next attempt waits twice as long, so a chart sitting on the edge settles instead of
+ * switching back and forth.
+ */
+public final class QualityGovernor {
+
+    private static final int DEFAULT_WINDOW = 8;
+    // Mean frame duration, as a fraction of the budget, below which quality is given back
+    private static final float RESTORE_FRACTION = 0.6f;
+    // Windows under the restore threshold in a row before quality is given back
+    private static final int RESTORE_WINDOWS = 4;
+    private static final int MAX_RESTORE_WINDOWS = RESTORE_WINDOWS * 16;
+
+    private final long budgetNanos;
+    private final long restoreNanos;
+    private final int maxLevel;
+    private final int window;
+    private int level;
+    private long windowNanos;
+    private int windowFrames;
+    private int quietWindows;
+    private int restoreWindows = RESTORE_WINDOWS;
+    private int windowsSinceRestore = MAX_RESTORE_WINDOWS;
+
+    /**
+     * @param frameBudgetNanos Longest mean frame duration the full quality is kept at.
+     * @param levelCount       Number of levels, including full quality.
+     */
+    public QualityGovernor(long frameBudgetNanos, int levelCount) {
+        this(frameBudgetNanos, levelCount, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param frameBudgetNanos Longest mean frame duration the full quality is kept at.
+     * @param levelCount       Number of levels, including full quality.
+     * @param window           Frames averaged before the level is reconsidered.
+     */
+    public QualityGovernor(long frameBudgetNanos, int levelCount, int window) {
+        if (frameBudgetNanos <= 0 || levelCount < 1 || window < 1) {
+            throw new IllegalArgumentException("budget, level count and window must be positive");
+        }
+        this.budgetNanos = frameBudgetNanos;
+        this.restoreNanos = (long) (frameBudgetNanos * RESTORE_FRACTION);
+        this.maxLevel = levelCount - 1;
+        this.window = window;
+    }
+
+    /**
+     * Records one frame.
+     *
+     * @param durationNanos How long the frame took.
+     * @return The level the next frame should be drawn at.
+     */
+    public int onFrame(long durationNanos) {
+        windowNanos += durationNanos;
+        if (++windowFrames < window) return level;
+
+        long mean = windowNanos / windowFrames;
+        windowNanos = 0;
+        windowFrames = 0;
+        if (windowsSinceRestore < MAX_RESTORE_WINDOWS) windowsSinceRestore++;
+
+        if (mean > budgetNanos) {
+            quietWindows = 0;
+            if (level < maxLevel) {
+                level++;
+                // Back off when the last restore did not hold, start afresh when it did
+                restoreWindows = windowsSinceRestore <= restoreWindows
+                        ? Math.min(restoreWindows * 2, MAX_RESTORE_WINDOWS)
+                        : RESTORE_WINDOWS;
+            }
+        } else if (mean < restoreNanos && level > 0) {
+            if (++quietWindows >= restoreWindows) {
+                level--;
+                quietWindows = 0;
+                windowsSinceRestore = 0;
+            }
+        } else {
+            quietWindows = 0;
+        }
+        return level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Goes back to full quality and forgets the frames seen so far.
+     */
+    public void reset() {
+        level = 0;
+        windowNanos = 0;
+        windowFrames = 0;
+        quietWindows = 0;
+        restoreWindows = RESTORE_WINDOWS;
+        windowsSinceRestore = MAX_RESTORE_WINDOWS;
+    }
+}
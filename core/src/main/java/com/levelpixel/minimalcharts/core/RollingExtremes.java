@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Minimum and maximum of the latest samples of a stream, updated in O(1) amortized per sample.
+ * <p>
+ * Each extreme keeps a monotonic deque of the samples that can still become it: a new sample
+ * removes the ones behind it that it beats, since they leave the window before it does, and the
+ * front is dropped once it falls out of the window. Every sample enters and leaves each deque at
+ * most once.
+ */
+public final class RollingExtremes {
+
+    private final int window;
+    private final Deque max;
+    private final Deque min;
+    // Index of the next sample
+    private long next;
+
+    /**
+     * Ring of samples with their stream index, front to back in increasing index.
+     */
+    private static final class Deque {
+        final long[] indices;
+        final float[] values;
+        int head;
+        int size;
+
+        Deque(int capacity) {
+            indices = new long[capacity];
+            values = new float[capacity];
+        }
+
+        float front() {
+            return values[head];
+        }
+
+        float back() {
+            return values[slot(size - 1)];
+        }
+
+        void push(long index, float value) {
+            int slot = slot(size++);
+            indices[slot] = index;
+            values[slot] = value;
+        }
+
+        void popBack() {
+            size--;
+        }
+
+        // Drops the samples before the first index
+        void expire(long first) {
+            while (size > 0 && indices[head] < first) {
+                head = head + 1 == indices.length ? 0 : head + 1;
+                size--;
+            }
+        }
+
+        private int slot(int position) {
+            int slot = head + position;
+            return slot >= indices.length ? slot - indices.length : slot;
+        }
+    }
+
+    /**
+     * @param window Latest samples the extremes cover.
+     */
+    public RollingExtremes(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window " + window + " < 1");
+        }
+        this.window = window;
+        max = new Deque(window);
+        min = new Deque(window);
+    }
+
+    public void add(float value) {
+        // The sample leaving the window goes first, so both deques have room for the new one
+        max.expire(next - window + 1);
+        min.expire(next - window + 1);
+        while (max.size > 0 && max.back() <= value) {
+            max.popBack();
+        }
+        while (min.size > 0 && min.back() >= value) {
+            min.popBack();
+        }
+        max.push(next, value);
+        min.push(next, value);
+        next++;
+    }
+
+    public void reset() {
+        max.head = 0;
+        max.size = 0;
+        min.head = 0;
+        min.size = 0;
+        next = 0;
+    }
+
+    /**
+     * @return Samples covered, up to the window.
+     */
+    public int getCount() {
+        return (int) Math.min(next, window);
+    }
+
+    /**
+     * @return The minimum, NaN before the first sample.
+     */
+    public float getMin() {
+        return min.size > 0 ? min.front() : Float.NaN;
+    }
+
+    /**
+     * @return The maximum, NaN before the first sample.
+     */
+    public float getMax() {
+        return max.size > 0 ? max.front() : Float.NaN;
+    }
+}
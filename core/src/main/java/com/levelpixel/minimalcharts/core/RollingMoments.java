@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Mean and variance of the latest samples of a stream, updated in O(1) per sample.
+ * <p>
+ * Samples are added with Welford's update until the window is full. From then on each new sample
+ * replaces the oldest one in a single step that moves the mean and the sum of squared deviations
+ * by their difference. Rounding errors of those steps would add up over a long stream, so both
+ * are recomputed from the window once every window of samples, which keeps the cost O(1)
+ * amortized.
+ */
+public final class RollingMoments {
+
+    private final float[] window;
+    // Slot the next sample goes to, the oldest sample once the window is full
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private double mean;
+    // Sum of the squared deviations from the mean
+    private double squares;
+
+    /**
+     * @param window Latest samples the statistics cover.
+     */
+    public RollingMoments(int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window " + window + " < 1");
+        }
+        this.window = new float[window];
+    }
+
+    public void add(float value) {
+        if (count < window.length) {
+            window[next] = value;
+            count++;
+            double delta = value - mean;
+            mean += delta / count;
+            squares += delta * (value - mean);
+        } else {
+            float oldest = window[next];
+            window[next] = value;
+            double oldMean = mean;
+            mean += (value - oldest) / (double) count;
+            squares += (value - oldest) * (value - mean + oldest - oldMean);
+            if (++sinceRecompute == window.length) {
+                recompute();
+            }
+        }
+        next = next + 1 == window.length ? 0 : next + 1;
+    }
+
+    public void reset() {
+        next = 0;
+        count = 0;
+        sinceRecompute = 0;
+        mean = 0;
+        squares = 0;
+    }
+
+    /**
+     * @return Samples covered, up to the window.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return The sample variance, 0 for fewer than two samples.
+     */
+    public double getVariance() {
+        // The sliding update can leave a tiny negative sum for a constant stream
+        return count > 1 ? Math.max(0, squares) / (count - 1) : 0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    // Two passes over the full window
+    private void recompute() {
+        sinceRecompute = 0;
+        double sum = 0;
+        for (float value : window) {
+            sum += value;
+        }
+        mean = sum / count;
+        squares = 0;
+        for (float value : window) {
+            double delta = value - mean;
+            squares += delta * delta;
+        }
+    }
+}
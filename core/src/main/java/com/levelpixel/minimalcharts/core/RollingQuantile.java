@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Approximate quantile of the latest samples of a stream, in O(1) time and space per sample.
+ * <p>
+ * Each estimate comes from the P² algorithm (Jain and Chlamtac), which follows a quantile with
+ * five markers nudged towards their ideal positions by parabolic interpolation. P² can't forget
+ * samples, so two estimators take turns: each starts over every window of samples, half a window
+ * apart, and the older one answers. The estimate therefore covers the latest half to full window
+ * of samples rather than exactly one window, which is close enough to draw a band with.
+ */
+public final class RollingQuantile {
+
+    private final int window;
+    private final P2 first;
+    private final P2 second;
+    private long count;
+
+    /**
+     * P² estimate of one quantile since the last reset.
+     */
+    private static final class P2 {
+        private final double quantile;
+        // Marker heights and positions, the first five samples are kept sorted in heights
+        private final double[] heights = new double[5];
+        private final int[] positions = new int[5];
+        private final double[] desired = new double[5];
+        private final double[] increments = new double[5];
+        private int count;
+
+        P2(double quantile) {
+            this.quantile = quantile;
+            increments[1] = quantile / 2;
+            increments[2] = quantile;
+            increments[3] = (1 + quantile) / 2;
+            increments[4] = 1;
+        }
+
+        void reset() {
+            count = 0;
+        }
+
+        void add(double value) {
+            if (count < 5) {
+                // Insertion into the sorted start
+                int i = count++;
+                while (i > 0 && heights[i - 1] > value) {
+                    heights[i] = heights[i - 1];
+                    i--;
+                }
+                heights[i] = value;
+                if (count == 5) {
+                    for (int m = 0; m < 5; m++) {
+                        positions[m] = m;
+                        desired[m] = 4 * increments[m];
+                    }
+                }
+                return;
+            }
+            count++;
+
+            int cell;
+            if (value < heights[0]) {
+                heights[0] = value;
+                cell = 0;
+            } else if (value >= heights[4]) {
+                heights[4] = value;
+                cell = 3;
+            } else {
+                cell = 0;
+                while (value >= heights[cell + 1]) {
+                    cell++;
+                }
+            }
+            for (int m = cell + 1; m < 5; m++) {
+                positions[m]++;
+            }
+            for (int m = 0; m < 5; m++) {
+                desired[m] += increments[m];
+            }
+
+            for (int m = 1; m < 4; m++) {
+                double offset = desired[m] - positions[m];
+                if ((offset >= 1 && positions[m + 1] - positions[m] > 1)
+                        || (offset <= -1 && positions[m - 1] - positions[m] < -1)) {
+                    int step = offset > 0 ? 1 : -1;
+                    double height = parabolic(m, step);
+                    if (heights[m - 1] < height && height < heights[m + 1]) {
+                        heights[m] = height;
+                    } else {
+                        heights[m] += step * (heights[m + step] - heights[m])
+                                / (positions[m + step] - positions[m]);
+                    }
+                    positions[m] += step;
+                }
+            }
+        }
+
+        double estimate() {
+            if (count == 0) return Double.NaN;
+            if (count >= 5) return heights[2];
+            // Interpolated from the few samples seen, kept sorted
+            double rank = quantile * (count - 1);
+            int below = (int) rank;
+            int above = Math.min(below + 1, count - 1);
+            return heights[below] + (rank - below) * (heights[above] - heights[below]);
+        }
+
+        private double parabolic(int m, int step) {
+            double left = positions[m] - positions[m - 1];
+            double right = positions[m + 1] - positions[m];
+            return heights[m] + step / (double) (positions[m + 1] - positions[m - 1])
+                    * ((left + step) * (heights[m + 1] - heights[m]) / right
+                    + (right - step) * (heights[m] - heights[m - 1]) / left);
+        }
+    }
+
+    /**
+     * @param window   Latest samples the quantile roughly covers, at least 2.
+     * @param quantile In [0, 1], e.g. 0.5 for the median.
+     */
+    public RollingQuantile(int window, double quantile) {
+        if (window < 2) {
+            throw new IllegalArgumentException("window " + window + " < 2");
+        }
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("quantile " + quantile + " is not in [0, 1]");
+        }
+        this.window = window;
+        first = new P2(quantile);
+        second = new P2(quantile);
+    }
+
+    public void add(float value) {
+        // The first estimator starts over at multiples of the window, the second halfway between
+        long phase = count % window;
+        if (phase == 0) {
+            first.reset();
+        } else if (phase == window / 2) {
+            second.reset();
+        }
+        first.add(value);
+        if (count >= window / 2) {
+            second.add(value);
+        }
+        count++;
+    }
+
+    public void reset() {
+        first.reset();
+        second.reset();
+        count = 0;
+    }
+
+    /**
+     * @return The estimate over the latest half to full window of samples, NaN before the first.
+     */
+    public double get() {
+        return first.count >= second.count ? first.estimate() : second.estimate();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ *  All rights reserved.
+ *
+ *  This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ *  Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ *  For inquiries, permissions, or contributions, contact LevelPixela at [https://www.levelpixel.net].
+ *
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free bounded queue of float samples between exactly one producer thread and one consumer
+ * thread. Each side only writes its own index and publishes it with a release store, so neither
+ * ever blocks. Samples offered while the queue is full are dropped and counted.
+ */
+public final class SampleQueue {
+
+    private final float[] buffer;
+    private final int mask;
+    // Next slot the producer writes, only advanced by the producer
+    private final AtomicLong tail = new AtomicLong();
+    // Next slot the consumer reads, only advanced by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Producer-side copy of head, refreshed only when the queue looks full
+    private long cachedHead;
+    private volatile long dropped;
+
+    /**
+     * @param capacity Rounded up to a power of two.
+     */
+    public SampleQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        buffer = new float[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Producer side.
+     *
+     * @return False if the queue was full and the value was dropped.
+     */
+    public boolean offer(float value) {
+        long t = tail.get();
+        if (t - cachedHead == buffer.length) {
+            cachedHead = head.get();
+            if (t - cachedHead == buffer.length) {
+                dropped++;
+                return false;
+            }
+        }
+        buffer[(int) t & mask] = value;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Producer side.
+     *
+     * @return How many of the values were queued, the rest were dropped.
+     */
+    public int offer(float[] values, int offset, int count) {
+        long t = tail.get();
+        long free = buffer.length - (t - cachedHead);
+        if (free < count) {
+            cachedHead = head.get();
+            free = buffer.length - (t - cachedHead);
+        }
+        int accepted = (int) Math.min(free, count);
+        for (int i = 0; i < accepted; i++) {
+            buffer[(int) (t + i) & mask] = values[offset + i];
+        }
+        tail.lazySet(t + accepted);
+        if (accepted < count) {
+            dropped += count - accepted;
+        }
+        return accepted;
+    }
+
+    /**
+     * Consumer side.
+     *
+     * @return How many samples were moved to out, at most max.
+     */
+    public int drain(float[] out, int max) {
+        long h = head.get();
+        int count = (int) Math.min(tail.get() - h, max);
+        for (int i = 0; i < count; i++) {
+            out[i] = buffer[(int) (h + i) & mask];
+        }
+        head.lazySet(h + count);
+        return count;
+    }
+
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
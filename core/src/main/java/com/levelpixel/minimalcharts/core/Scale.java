@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+/**
+ * Value extents and the projection of values onto the vertical axis of a line chart.
+ */
+public final class Scale {
+
+    private Scale() {
+    }
+
+    /**
+     * Finds the smallest and largest of values[from, to).
+     *
+     * @param out Receives the minimum at index 0 and the maximum at index 1, or positive and
+     *            negative infinity for an empty range.
+     */
+    public static void extent(float[] values, int from, int to, float[] out) {
+        float min = Float.POSITIVE_INFINITY;
+        float max = Float.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            float value = values[i];
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+        out[0] = min;
+        out[1] = max;
+    }
+
+    /**
+     * @return How many horizontal grid steps it takes to show values up to max, at least minimum.
+     */
+    public static int gridCount(float max, int minimum) {
+        return minimum < max + 1 ? (int) Math.floor(max + 1) : minimum;
+    }
+
+    /**
+     * @param gridCount  The value drawn at the top of the plot.
+     * @param top        Y of the top of the plot.
+     * @param plotHeight Height of the plot, zero sits at top + plotHeight.
+     * @return Y of the value.
+     */
+    public static float project(float value, int gridCount, float top, float plotHeight) {
+        return top + plotHeight * (gridCount - value) / gridCount;
+    }
+
+    /**
+     * Projects values[0, count) into out, see {@link #project(float, int, float, float)}.
+     */
+    public static void project(float[] values, int count, int gridCount, float top,
+                               float plotHeight, float[] out) {
+        float scale = plotHeight / gridCount;
+        float bottom = top + plotHeight;
+        for (int i = 0; i < count; i++) {
+            out[i] = bottom - values[i] * scale;
+        }
+    }
+}
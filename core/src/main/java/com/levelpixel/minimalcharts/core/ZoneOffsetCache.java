@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import java.util.TimeZone;
+
+/**
+ * Remembers the UTC offset of the last local day looked up, so converting many timestamps that
+ * fall on the same few days only asks the time zone once per day. Days with a DST transition are
+ * never cached.
+ */
+final class ZoneOffsetCache {
+
+    static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private final TimeZone zone;
+    // UTC range of the cached local day, empty until the first lookup
+    private long dayStart = Long.MAX_VALUE;
+    private long dayEnd = Long.MIN_VALUE;
+    private int dayOffset;
+
+    ZoneOffsetCache(TimeZone zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * @return Offset from UTC in millis at the instant.
+     */
+    int getOffset(long millis) {
+        if (millis >= dayStart && millis < dayEnd) {
+            return dayOffset;
+        }
+        int offset = zone.getOffset(millis);
+        long start = floorDiv(millis + offset, MILLIS_PER_DAY) * MILLIS_PER_DAY - offset;
+        long end = start + MILLIS_PER_DAY;
+        if (zone.getOffset(start) == offset && zone.getOffset(end - 1) == offset) {
+            dayStart = start;
+            dayEnd = end;
+            dayOffset = offset;
+        }
+        return offset;
+    }
+
+    /**
+     * @return Millis since local midnight at the instant.
+     */
+    long getMillisOfDay(long millis) {
+        long local = millis + getOffset(millis);
+        return local - floorDiv(local, MILLIS_PER_DAY) * MILLIS_PER_DAY;
+    }
+
+    // Math.floorDiv needs API 24
+    static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.TimeZone;
+
+public class ClockHeatmapTest {
+
+    private static final TimeZone NEW_YORK = TimeZone.getTimeZone("America/New_York");
+    private static final long MINUTE = 60 * 1000;
+    // 2024-03-10 07:00 UTC, 02:00 EST becomes 03:00 EDT
+    private static final long SPRING_FORWARD = 1710054000000L;
+    // 2024-11-03 06:00 UTC, 02:00 EDT becomes 01:00 EST
+    private static final long FALL_BACK = 1730613600000L;
+
+    @Test
+    public void eventAcrossMidnightWraps() {
+        // 23:30 to 00:30 EST
+        long start = SPRING_FORWARD - 150 * MINUTE;
+        ClockHeatmap heatmap = accumulate(start, start + 60 * MINUTE);
+
+        assertActive(heatmap, 23 * 60 + 30, 24 * 60);
+        assertActive(heatmap, 0, 30);
+        assertEquals(60, activeMinutes(heatmap));
+    }
+
+    @Test
+    public void eventAcrossSpringForwardSkipsTheMissingHour() {
+        // 01:30 EST to 03:30 EDT, one hour of real time
+        ClockHeatmap heatmap = accumulate(SPRING_FORWARD - 30 * MINUTE,
+                SPRING_FORWARD + 30 * MINUTE);
+
+        assertActive(heatmap, 90, 120);
+        assertActive(heatmap, 180, 210);
+        assertEquals(60, activeMinutes(heatmap));
+    }
+
+    @Test
+    public void eventAcrossFallBackCoversTheRepeatedHourOnce() {
+        // 01:50 EDT to 01:10 EST, twenty minutes of real time that end earlier on the clock
+        ClockHeatmap heatmap = accumulate(FALL_BACK - 10 * MINUTE, FALL_BACK + 10 * MINUTE);
+
+        assertActive(heatmap, 110, 120);
+        assertActive(heatmap, 60, 70);
+        assertEquals(20, activeMinutes(heatmap));
+    }
+
+    @Test
+    public void eventOfSeveralDaysCountsEveryDay() {
+        // From 12:00 EDT two days before the fall back to 12:15 EST on its day
+        long start = FALL_BACK - (2 * 24 * 60 - 10 * 60) * MINUTE;
+        long end = FALL_BACK + (11 * 60 + 15) * MINUTE;
+        ClockHeatmap heatmap = accumulate(start, end);
+
+        assertEquals(2, heatmap.getCount(11 * 60));
+        assertEquals(3, heatmap.getCount(12 * 60));
+        assertEquals(3, heatmap.getCount(12 * 60 + 14));
+        assertEquals(2, heatmap.getCount(12 * 60 + 15));
+        assertEquals(3, heatmap.getMaxCount());
+    }
+
+    private static ClockHeatmap accumulate(long startMillis, long endMillis) {
+        ClockHeatmap heatmap = new ClockHeatmap();
+        heatmap.accumulate(new long[]{startMillis}, new long[]{endMillis}, 1, NEW_YORK);
+        return heatmap;
+    }
+
+    private static void assertActive(ClockHeatmap heatmap, int fromMinute, int toMinute) {
+        for (int minute = fromMinute; minute < toMinute; minute++) {
+            assertEquals("minute " + minute, 1, heatmap.getCount(minute));
+        }
+    }
+
+    private static int activeMinutes(ClockHeatmap heatmap) {
+        int active = 0;
+        for (int minute = 0; minute < ClockHeatmap.MINUTES_PER_DAY; minute++) {
+            active += heatmap.getCount(minute);
+        }
+        return active;
+    }
+}
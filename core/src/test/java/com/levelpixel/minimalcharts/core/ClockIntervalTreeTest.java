@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ClockIntervalTreeTest {
+
+    // 270° is midnight and an hour is 15°
+    private static float hour(float hour) {
+        return ClockIntervals.LAP_START + hour * 15;
+    }
+
+    private static float minute(int minute) {
+        return ClockIntervals.LAP_START + minute / 4f;
+    }
+
+    @Test
+    public void intervalAcrossMidnightCoversBothSides() {
+        // 22:00 to 02:00 the next day, and 09:00 to 17:00
+        float[] starts = {hour(22), hour(9)};
+        float[] ends = {hour(26), hour(17)};
+        ClockIntervalTree tree = new ClockIntervalTree(ClockIntervals.of(starts, ends, 2));
+
+        assertCovering(tree, hour(22), 0);
+        assertCovering(tree, hour(23.5f), 0);
+        assertCovering(tree, hour(0), 0);
+        assertCovering(tree, hour(24), 0);
+        assertCovering(tree, hour(1.99f), 0);
+        // Half-open: the end is not covered, the start is
+        assertCovering(tree, hour(2));
+        assertCovering(tree, hour(21.99f));
+        assertCovering(tree, hour(9), 1);
+        assertCovering(tree, hour(17));
+    }
+
+    @Test
+    public void anglesOnOtherLapsAreNormalized() {
+        // The same 22:00 to 02:00, expressed one lap back
+        float[] starts = {hour(22) - 360};
+        float[] ends = {hour(26) - 360};
+        ClockIntervalTree tree = new ClockIntervalTree(ClockIntervals.of(starts, ends, 1));
+
+        assertCovering(tree, hour(1), 0);
+        assertCovering(tree, hour(1) + 720, 0);
+        assertCovering(tree, hour(1) - 1080, 0);
+        assertCovering(tree, hour(12));
+    }
+
+    @Test
+    public void fullDayIsReportedOnce() {
+        // Starting at 18:00, so it is split into two pieces at midnight
+        float[] starts = {hour(18), hour(23)};
+        float[] ends = {hour(18 + 24), hour(25)};
+        ClockIntervalTree tree = new ClockIntervalTree(ClockIntervals.of(starts, ends, 2));
+
+        assertCovering(tree, hour(18), 0);
+        assertCovering(tree, hour(0), 0, 1);
+        assertCovering(tree, hour(23.5f), 0, 1);
+        assertCovering(tree, hour(17.99f), 0);
+    }
+
+    @Test
+    public void emptyIntervalsCoverNothing() {
+        float[] starts = {hour(3), hour(5)};
+        float[] ends = {hour(3), hour(4)};
+        ClockIntervalTree tree = new ClockIntervalTree(ClockIntervals.of(starts, ends, 2));
+
+        assertCovering(tree, hour(3));
+        assertCovering(tree, hour(4.5f));
+    }
+
+    @Test
+    public void queriesMatchAScanOfEveryInterval() {
+        Random random = new Random(11);
+        int count = 500;
+        float[] starts = new float[count];
+        float[] ends = new float[count];
+        for (int i = 0; i < count; i++) {
+            // Whole minutes on any of three laps, many of them across midnight. A minute is a
+            // quarter degree, so every angle is exact
+            starts[i] = minute(random.nextInt(24 * 60)) + 360 * (random.nextInt(3) - 1);
+            ends[i] = starts[i] + random.nextInt(12 * 60) / 4f;
+        }
+        ClockIntervalTree tree = new ClockIntervalTree(ClockIntervals.of(starts, ends, count));
+        int[] out = new int[count];
+
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            float angle = minute(minute);
+            int found = tree.query(angle, out);
+            int[] actual = Arrays.copyOf(out, found);
+            Arrays.sort(actual);
+            assertEquals("minute " + minute, Arrays.toString(scan(starts, ends, angle)),
+                    Arrays.toString(actual));
+        }
+    }
+
+    private static int[] scan(float[] starts, float[] ends, float angle) {
+        int[] covering = new int[starts.length];
+        int found = 0;
+        float t = ClockIntervals.normalize(angle);
+        for (int i = 0; i < starts.length; i++) {
+            float sweep = Math.min(360, ends[i] - starts[i]);
+            float offset = t - ClockIntervals.normalize(starts[i]);
+            if (offset < 0) offset += 360;
+            if (offset < sweep) covering[found++] = i;
+        }
+        return Arrays.copyOf(covering, found);
+    }
+
+    private static void assertCovering(ClockIntervalTree tree, float angle, int... expected) {
+        int[] out = new int[8];
+        int found = tree.query(angle, out);
+        int[] actual = Arrays.copyOf(out, found);
+        Arrays.sort(actual);
+        assertEquals("at " + angle, Arrays.toString(expected), Arrays.toString(actual));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class DensityGridTest {
+
+    @Test
+    public void maxXAndMaxYFallIntoTheLastColumnAndTopRow() {
+        float[] xs = {10, 0, 10, 0, 5};
+        float[] ys = {20, 0, 0, 20, 10};
+        DensityGrid grid = DensityGrid.compute(xs, ys, 5, 0, 10, 0, 20, 4, 3);
+
+        // Rows run from the top, so max y is row 0 and min y the last row
+        assertEquals(1, grid.getCount(3, 0));
+        assertEquals(1, grid.getCount(0, 2));
+        assertEquals(1, grid.getCount(3, 2));
+        assertEquals(1, grid.getCount(0, 0));
+        assertEquals(1, grid.getCount(2, 1));
+        assertEquals(5, total(grid));
+    }
+
+    @Test
+    public void justBelowACellEdgeStaysInTheLowerCell() {
+        float[] xs = {Math.nextDown(5f), 5};
+        float[] ys = {0, 0};
+        DensityGrid grid = DensityGrid.compute(xs, ys, 2, 0, 10, 0, 10, 2, 1);
+
+        assertEquals(1, grid.getCount(0, 0));
+        assertEquals(1, grid.getCount(1, 0));
+    }
+
+    @Test
+    public void pointsOutsideTheRangeOrNaNAreNotCounted() {
+        float[] xs = {-0.01f, 10.01f, 5, 5, Float.NaN, 5, Float.POSITIVE_INFINITY};
+        float[] ys = {5, 5, -0.01f, 10.01f, 5, Float.NaN, 5};
+        DensityGrid grid = DensityGrid.compute(xs, ys, xs.length, 0, 10, 0, 10, 8, 8);
+
+        assertEquals(0, total(grid));
+        assertEquals(0, grid.getMaxCount());
+    }
+
+    @Test
+    public void zeroExtentCountsIntoTheFirstColumnAndBottomRow() {
+        float[] xs = {3, 3, 3};
+        float[] ys = {7, 7, 7};
+        DensityGrid grid = DensityGrid.compute(xs, ys, 3, 3, 3, 7, 7, 5, 4);
+
+        assertEquals(3, grid.getCount(0, 3));
+        assertEquals(3, grid.getMaxCount());
+    }
+
+    @Test
+    public void parallelCountsMatchASerialCount() {
+        int count = 1_000_000;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        Random random = new Random(6);
+        for (int i = 0; i < count; i++) {
+            xs[i] = (float) random.nextGaussian();
+            ys[i] = (float) random.nextGaussian();
+        }
+        float[] extent = new float[4];
+        DensityGrid.extent(xs, ys, count, extent);
+        // Small enough to be split across the pool, then one too large for more than one copy
+        int[][] sizes = {{64, 48}, {3000, 3000}};
+        for (int[] size : sizes) {
+            int width = size[0];
+            int height = size[1];
+            DensityGrid grid = DensityGrid.compute(xs, ys, count, extent[0], extent[1],
+                    extent[2], extent[3], width, height);
+
+            int[] expected = new int[width * height];
+            float scaleX = width / (extent[1] - extent[0]);
+            float scaleY = height / (extent[3] - extent[2]);
+            for (int i = 0; i < count; i++) {
+                int column = Math.min(width - 1, (int) ((xs[i] - extent[0]) * scaleX));
+                int row = height - 1 - Math.min(height - 1, (int) ((ys[i] - extent[2]) * scaleY));
+                expected[row * width + column]++;
+            }
+            for (int cell = 0; cell < expected.length; cell++) {
+                assertEquals("cell " + cell, expected[cell], grid.getCount(cell));
+            }
+        }
+    }
+
+    @Test
+    public void extentSkipsNaNAndInfinitePoints() {
+        float[] xs = {1, Float.NaN, -2, 4, Float.NEGATIVE_INFINITY};
+        float[] ys = {5, 100, Float.POSITIVE_INFINITY, -3, 0};
+        float[] extent = new float[4];
+        DensityGrid.extent(xs, ys, xs.length, extent);
+
+        assertEquals(1, extent[0], 0);
+        assertEquals(4, extent[1], 0);
+        assertEquals(-3, extent[2], 0);
+        assertEquals(5, extent[3], 0);
+    }
+
+    private static long total(DensityGrid grid) {
+        long total = 0;
+        for (int cell = 0; cell < grid.getWidth() * grid.getHeight(); cell++) {
+            total += grid.getCount(cell);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class HistogramTest {
+
+    @Test
+    public void allEqualSamplesFallIntoOneBin() {
+        double[] samples = new double[1000];
+        Arrays.fill(samples, 42);
+        Histogram histogram = Histogram.compute(samples, Histogram.BinSpec.auto());
+
+        assertEquals(1, histogram.getBinCount());
+        assertEquals(1000, histogram.getCount(0));
+        assertEquals(42, histogram.getBinStart(0), 0);
+        assertTrue(histogram.getBinWidth() > 0);
+    }
+
+    @Test
+    public void onlyNaNSamplesGiveAnEmptyHistogram() {
+        float[] samples = new float[100];
+        Arrays.fill(samples, Float.NaN);
+        Histogram histogram = Histogram.compute(samples, Histogram.BinSpec.auto());
+
+        assertEquals(0, histogram.getBinCount());
+        assertEquals(0, histogram.getMaxCount());
+    }
+
+    @Test
+    public void nanAndInfiniteSamplesAreSkipped() {
+        double[] samples = new double[1000];
+        Random random = new Random(4);
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextGaussian();
+        }
+        for (int i = 0; i < samples.length; i += 3) {
+            samples[i] = i % 2 == 0 ? Double.NaN : Double.POSITIVE_INFINITY;
+        }
+        Histogram histogram = Histogram.compute(samples, Histogram.BinSpec.auto());
+
+        assertEquals(1000 - 334, total(histogram));
+        assertTrue(histogram.getBinCount() > 1);
+    }
+
+    @Test
+    public void zeroInterquartileRangeFallsBackToSturges() {
+        // Over half the samples are equal, so the quartiles are too, but the range is not
+        double[] samples = new double[1024];
+        Arrays.fill(samples, 5);
+        samples[0] = 0;
+        samples[1] = 10;
+        Histogram histogram = Histogram.compute(samples, Histogram.BinSpec.auto());
+
+        // log2(1024) + 1 bins over the range
+        assertEquals(10.0 / 11, histogram.getBinWidth(), 1e-9);
+        assertEquals(1024, total(histogram));
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(1, histogram.getCount(histogram.getBinCount() - 1));
+    }
+
+    @Test
+    public void fewFiniteSamplesFallBackToSturges() {
+        double[] samples = {Double.NaN, 1, Double.NaN, 3, Double.NaN, Double.NaN};
+        Histogram histogram = Histogram.compute(samples, Histogram.BinSpec.auto());
+
+        assertEquals(2, total(histogram));
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(1, histogram.getCount(histogram.getBinCount() - 1));
+    }
+
+    @Test
+    public void freedmanDiaconisWidthOfUniformSamples() {
+        int count = 1_000_000;
+        float[] samples = new float[count];
+        Random random = new Random(5);
+        for (int i = 0; i < count; i++) {
+            samples[i] = random.nextFloat();
+        }
+        Histogram histogram = Histogram.compute(samples, Histogram.BinSpec.auto());
+
+        // 2 × IQR / ∛n with an IQR of one half
+        assertEquals(1 / Math.cbrt(count), histogram.getBinWidth(), 0.02 / Math.cbrt(count));
+        assertEquals(count, total(histogram));
+    }
+
+    @Test
+    public void binCountIsCapped() {
+        double[] samples = {0, 1e9};
+        Histogram histogram = Histogram.compute(samples, Histogram.BinSpec.fixedWidth(1));
+
+        assertEquals(Histogram.MAX_BINS, histogram.getBinCount());
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(1, histogram.getCount(Histogram.MAX_BINS - 1));
+    }
+
+    private static long total(Histogram histogram) {
+        long total = 0;
+        for (int i = 0; i < histogram.getBinCount(); i++) {
+            total += histogram.getCount(i);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class KeyedDiffTest {
+
+    private static final int I = KeyedDiff.INSERTED;
+
+    @Test
+    public void unchangedKeysMatchInPlace() {
+        long[] keys = {5, 6, 7, 8};
+        KeyedDiff diff = KeyedDiff.compute(keys, keys.length, keys, keys.length);
+
+        assertOldIndices(diff, 0, 1, 2, 3);
+        assertMoved(diff, 4);
+        assertEquals(0, diff.getRemovedCount());
+    }
+
+    @Test
+    public void appendAndPrependMatchThroughPrefixAndSuffix() {
+        long[] old = {1, 2, 3};
+        KeyedDiff appended = KeyedDiff.compute(old, 3, new long[]{1, 2, 3, 4, 5}, 5);
+        KeyedDiff prepended = KeyedDiff.compute(old, 3, new long[]{9, 1, 2, 3}, 4);
+
+        assertOldIndices(appended, 0, 1, 2, I, I);
+        assertOldIndices(prepended, I, 0, 1, 2);
+        assertMoved(appended, 5);
+        assertMoved(prepended, 4);
+        assertEquals(0, appended.getRemovedCount());
+        assertEquals(0, prepended.getRemovedCount());
+    }
+
+    @Test
+    public void removalFromTheMiddleLeavesPrefixAndSuffix() {
+        long[] old = {1, 2, 3, 4, 5};
+        KeyedDiff diff = KeyedDiff.compute(old, 5, new long[]{1, 2, 5}, 3);
+
+        assertOldIndices(diff, 0, 1, 4);
+        assertMoved(diff, 3);
+        assertEquals(2, diff.getRemovedCount());
+    }
+
+    @Test
+    public void onlyTheCountedKeysAreCompared() {
+        // Stale keys past the counts must not match
+        long[] old = {1, 2, 3, 99};
+        long[] keys = {1, 2, 3, 4, 99};
+        KeyedDiff diff = KeyedDiff.compute(old, 3, keys, 4);
+
+        assertOldIndices(diff, 0, 1, 2, I);
+        assertEquals(0, diff.getRemovedCount());
+    }
+
+    @Test
+    public void swapMovesOneElement() {
+        KeyedDiff diff = KeyedDiff.compute(new long[]{1, 2, 3, 4}, 4, new long[]{1, 3, 2, 4}, 4);
+
+        assertOldIndices(diff, 0, 2, 1, 3);
+        // Either of the two can stay, exactly one of them moved
+        assertEquals(1, (diff.isMoved(1) ? 1 : 0) + (diff.isMoved(2) ? 1 : 0));
+        assertFalse(diff.isMoved(0));
+        assertFalse(diff.isMoved(3));
+    }
+
+    @Test
+    public void movingOneElementToTheFrontLeavesTheRestStable() {
+        KeyedDiff diff = KeyedDiff.compute(new long[]{1, 2, 3, 4, 5}, 5,
+                new long[]{5, 1, 2, 3, 4}, 5);
+
+        assertOldIndices(diff, 4, 0, 1, 2, 3);
+        assertMoved(diff, 5, 0);
+    }
+
+    @Test
+    public void reversalKeepsOnlyOneElementStable() {
+        KeyedDiff diff = KeyedDiff.compute(new long[]{1, 2, 3, 4}, 4, new long[]{4, 3, 2, 1}, 4);
+
+        assertOldIndices(diff, 3, 2, 1, 0);
+        assertEquals(3, countMoved(diff, 4));
+    }
+
+    @Test
+    public void longestIncreasingRunStaysAndInsertsAreSkipped() {
+        // Old indices of the middle: 3, I, 0, 1, I, 4, 2; the run 0, 1, 4 (or 0, 1, 2) is kept
+        long[] old = {10, 11, 12, 13, 14};
+        long[] keys = {13, 20, 10, 11, 21, 14, 12};
+        KeyedDiff diff = KeyedDiff.compute(old, 5, keys, 7);
+
+        assertOldIndices(diff, 3, I, 0, 1, I, 4, 2);
+        assertFalse(diff.isMoved(2));
+        assertFalse(diff.isMoved(3));
+        assertFalse(diff.isMoved(1));
+        assertFalse(diff.isMoved(4));
+        assertEquals("moved besides the run", 2, countMoved(diff, 7));
+        assertEquals(0, diff.getRemovedCount());
+    }
+
+    @Test
+    public void repeatedNewKeyOnlyMatchesOnce() {
+        KeyedDiff diff = KeyedDiff.compute(new long[]{1, 2, 3}, 3, new long[]{2, 2, 9}, 3);
+
+        assertOldIndices(diff, 1, I, I);
+        assertEquals(2, diff.getRemovedCount());
+    }
+
+    @Test
+    public void unmovedElementsFormTheLongestIncreasingRun() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            int oldCount = random.nextInt(60);
+            long[] old = distinctKeys(random, oldCount);
+            // Shuffle, drop some and add fresh keys, in any mix
+            long[] pool = Arrays.copyOf(old, oldCount + 20);
+            for (int i = oldCount; i < pool.length; i++) {
+                pool[i] = 1_000_000 + i;
+            }
+            shuffle(random, pool, random.nextInt(4));
+            int newCount = random.nextInt(pool.length + 1);
+            KeyedDiff diff = KeyedDiff.compute(old, oldCount, pool, newCount);
+
+            int matched = 0;
+            int previous = -1;
+            int stable = 0;
+            for (int j = 0; j < newCount; j++) {
+                int index = diff.getOldIndex(j);
+                if (index == I) {
+                    assertFalse(diff.isMoved(j));
+                    continue;
+                }
+                assertEquals(old[index], pool[j]);
+                matched++;
+                if (!diff.isMoved(j)) {
+                    assertTrue("stable elements keep their order", index > previous);
+                    previous = index;
+                    stable++;
+                }
+            }
+            assertEquals(oldCount - matched, diff.getRemovedCount());
+            assertEquals("round " + round, longestIncreasingRun(diff, newCount), stable);
+        }
+    }
+
+    private static long[] distinctKeys(Random random, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = i * 31L + random.nextInt(31);
+        }
+        return keys;
+    }
+
+    // Swaps a few elements, or none, so prefix and suffix matching also get exercised
+    private static void shuffle(Random random, long[] keys, int swaps) {
+        for (int s = 0; s < swaps && keys.length > 1; s++) {
+            int a = random.nextInt(keys.length);
+            int b = random.nextInt(keys.length);
+            long t = keys[a];
+            keys[a] = keys[b];
+            keys[b] = t;
+        }
+    }
+
+    // Quadratic reference for the length of the longest increasing run of matched old indices
+    private static int longestIncreasingRun(KeyedDiff diff, int count) {
+        int[] best = new int[count];
+        int longest = 0;
+        for (int j = 0; j < count; j++) {
+            if (diff.getOldIndex(j) == I) continue;
+            best[j] = 1;
+            for (int i = 0; i < j; i++) {
+                if (diff.getOldIndex(i) != I && diff.getOldIndex(i) < diff.getOldIndex(j)) {
+                    best[j] = Math.max(best[j], best[i] + 1);
+                }
+            }
+            longest = Math.max(longest, best[j]);
+        }
+        return longest;
+    }
+
+    private static int countMoved(KeyedDiff diff, int count) {
+        int moved = 0;
+        for (int i = 0; i < count; i++) {
+            if (diff.isMoved(i)) moved++;
+        }
+        return moved;
+    }
+
+    private static void assertOldIndices(KeyedDiff diff, int... expected) {
+        int[] actual = new int[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            actual[i] = diff.getOldIndex(i);
+        }
+        assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+    }
+
+    private static void assertMoved(KeyedDiff diff, int count, int... moved) {
+        for (int index : moved) {
+            assertTrue("moved " + index, diff.isMoved(index));
+        }
+        assertEquals(moved.length, countMoved(diff, count));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2025 Tanvir Ahamed
+ * All rights reserved.
+ *
+ * This software is developed and maintained by Tanvir Ahamed, CEO and Founder of LevelPixela.
+ * Unauthorized copying, modification, distribution, or use of this software in any medium is strictly prohibited.
+ *
+ * For inquiries, permissions, or contributions, contact LevelPixel at [https://www.levelpixel.net].
+ */
+
+package com.levelpixel.minimalcharts.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class RollingQuantileTest {
+
+    // In standard deviations of the samples. The worst case is right after an estimator starts
+    // over with only half a window of samples, in the tail.
+    private static final double MEAN_TOLERANCE = 0.1;
+    private static final double WORST_TOLERANCE = 0.5;
+
+    @Test
+    public void nanBeforeTheFirstSample() {
+        RollingQuantile quantile = new RollingQuantile(10, 0.5);
+
+        assertTrue(Double.isNaN(quantile.get()));
+    }
+
+    @Test
+    public void medianOfGaussianSamplesFollowsTheExactWindow() {
+        assertTracksExactQuantile(new GaussianStream(1, 0), 1000, 0.5);
+    }
+
+    @Test
+    public void upperQuantileOfGaussianSamplesFollowsTheExactWindow() {
+        assertTracksExactQuantile(new GaussianStream(2, 0), 1000, 0.95);
+    }
+
+    @Test
+    public void quantileFollowsALevelShiftWithinAWindow() {
+        // The mean jumps by 10 every 5000 samples, the estimate catches up within one window
+        assertTracksExactQuantile(new GaussianStream(3, 5000), 500, 0.9);
+    }
+
+    @Test
+    public void resetForgetsEarlierSamples() {
+        RollingQuantile quantile = new RollingQuantile(100, 0.5);
+        for (int i = 0; i < 1000; i++) {
+            quantile.add(1000);
+        }
+        quantile.reset();
+        for (int i = 0; i < 50; i++) {
+            quantile.add(i % 2);
+        }
+
+        assertTrue(quantile.get() >= 0 && quantile.get() <= 1);
+    }
+
+    /**
+     * Feeds the stream and, once the first window is full, compares every estimate with the
+     * exact quantile of the last window of samples.
+     */
+    private static void assertTracksExactQuantile(GaussianStream stream, int window, double q) {
+        int count = 20 * window;
+        float[] samples = new float[count];
+        RollingQuantile quantile = new RollingQuantile(window, q);
+        float[] sorted = new float[window];
+        double total = 0;
+        double worst = 0;
+        int checks = 0;
+        for (int i = 0; i < count; i++) {
+            samples[i] = stream.next(i);
+            quantile.add(samples[i]);
+            // The estimate covers the latest half to full window, so after a shift it lags
+            if (i + 1 < window || stream.sinceShift(i) < window) continue;
+            System.arraycopy(samples, i + 1 - window, sorted, 0, window);
+            Arrays.sort(sorted);
+            double exact = sorted[(int) Math.ceil(q * window) - 1];
+            double error = Math.abs(quantile.get() - exact);
+            total += error;
+            worst = Math.max(worst, error);
+            checks++;
+        }
+        assertEquals("mean error", 0, total / checks, MEAN_TOLERANCE);
+        assertEquals("worst error", 0, worst, WORST_TOLERANCE);
+    }
+
+    // Unit Gaussian noise around a mean that steps up every shiftEvery samples, if positive
+    private static final class GaussianStream {
+        private final Random random;
+        private final int shiftEvery;
+
+        GaussianStream(long seed, int shiftEvery) {
+            this.random = new Random(seed);
+            this.shiftEvery = shiftEvery;
+        }
+
+        float next(int i) {
+            float mean = shiftEvery > 0 ? 10 * (i / shiftEvery) : 0;
+            return mean + (float) random.nextGaussian();
+        }
+
+        int sinceShift(int i) {
+            return shiftEvery > 0 ? i % shiftEvery : Integer.MAX_VALUE;
+        }
+    }
+}